@@ -0,0 +1,138 @@
+package com.example.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+// Compares a JMH JSON result file against the checked-in baseline and exits non-zero when
+// a benchmark got slower, or allocates more per operation, by more than the tolerance.
+// The baseline holds the JMH runs of the reference setup together with that setup's hardware.
+// Scores are only compared on the same hardware; a run on a different JDK is compared too, and
+// reported as a comparison between the two JDKs. A missing baseline fails the check.
+//
+//   BenchmarkRegressionCheck <baseline.json> <result.json> <tolerance-percent> <record>
+public final class BenchmarkRegressionCheck {
+
+    private static final String ALLOC_PER_OP = "gc.alloc.rate.norm";
+
+    private BenchmarkRegressionCheck() {
+    }
+
+    private record Result(String mode, double score, String unit, Double allocPerOp) {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4) {
+            System.err.println("usage: BenchmarkRegressionCheck <baseline.json> <result.json> <tolerance-percent>"
+                    + " <record>");
+            System.exit(2);
+        }
+        File baselineFile = new File(args[0]);
+        File resultFile = new File(args[1]);
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        JsonNode runs = mapper.readTree(resultFile);
+        String hardware = hardware();
+        if (Boolean.parseBoolean(args[3])) {
+            // The JVM path is local to this machine; the JDK is kept in vmVersion and jdkVersion
+            for (JsonNode run : runs) {
+                ((ObjectNode) run).remove("jvm");
+            }
+            ObjectNode baseline = mapper.createObjectNode();
+            baseline.put("hardware", hardware);
+            baseline.set("runs", runs);
+            baselineFile.getAbsoluteFile().getParentFile().mkdirs();
+            mapper.writeValue(baselineFile, baseline);
+            System.out.println("Recorded this run on " + hardware + " as the baseline " + baselineFile);
+            return;
+        }
+        if (!baselineFile.isFile()) {
+            System.err.println("No benchmark baseline at " + baselineFile + "; record one on the reference setup"
+                    + " with -Djmh.record=true");
+            System.exit(1);
+        }
+        JsonNode baselineContent = mapper.readTree(baselineFile);
+        String baselineHardware = baselineContent.path("hardware").asText();
+        if (!baselineHardware.equals(hardware)) {
+            System.err.println("SKIPPED: the baseline was recorded on " + baselineHardware + ", this machine is "
+                    + hardware + "; scores are only compared on the reference setup");
+            return;
+        }
+        JsonNode baselineRuns = baselineContent.path("runs");
+        String baselineJvm = jvm(baselineRuns);
+        String currentJvm = jvm(runs);
+        if (baselineJvm.equals(currentJvm)) {
+            System.out.println("Comparing with the baseline on " + baselineJvm);
+        } else {
+            System.out.println("Comparing across JDKs: baseline on " + baselineJvm + ", this run on " + currentJvm);
+        }
+        Map<String, Result> baseline = read(baselineRuns);
+        Map<String, Result> current = read(runs);
+        double tolerance = Double.parseDouble(args[2]) / 100;
+
+        int regressions = 0;
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result before = baseline.get(entry.getKey());
+            Result now = entry.getValue();
+            if (before == null || !before.mode().equals(now.mode()) || !before.unit().equals(now.unit())) {
+                System.out.printf("NEW   %-70s %12.3f %s%n", entry.getKey(), now.score(), now.unit());
+                continue;
+            }
+            // Throughput is better when higher, every other mode measures time per operation
+            double change = now.mode().equals("thrpt")
+                    ? (before.score() - now.score()) / before.score()
+                    : (now.score() - before.score()) / before.score();
+            boolean slower = change > tolerance;
+            boolean allocates = before.allocPerOp() != null && now.allocPerOp() != null
+                    && now.allocPerOp() > before.allocPerOp() * (1 + tolerance) + 16;
+            if (slower || allocates) {
+                regressions++;
+            }
+            System.out.printf("%-5s %-70s %12.3f -> %12.3f %s (%+.1f%%), alloc %s -> %s B/op%n",
+                    slower || allocates ? "FAIL" : "OK", entry.getKey(), before.score(), now.score(), now.unit(),
+                    change * 100, format(before.allocPerOp()), format(now.allocPerOp()));
+        }
+        if (regressions > 0) {
+            System.err.println(regressions + " benchmark(s) regressed by more than " + args[2] + "%; after an"
+                    + " intentional change, re-record the baseline on the reference setup with -Djmh.record=true");
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Result> read(JsonNode runs) {
+        Map<String, Result> results = new HashMap<>();
+        for (JsonNode run : runs) {
+            String key = run.get("benchmark").asText();
+            JsonNode params = run.get("params");
+            if (params != null) {
+                key += params.toString();
+            }
+            JsonNode primary = run.get("primaryMetric");
+            JsonNode alloc = run.path("secondaryMetrics").path(ALLOC_PER_OP).get("score");
+            results.put(key, new Result(run.get("mode").asText(), primary.get("score").asDouble(),
+                    primary.get("scoreUnit").asText(), alloc == null ? null : alloc.asDouble()));
+        }
+        return results;
+    }
+
+    // JDK and VM of the first run; every run of one JMH invocation shares them
+    private static String jvm(JsonNode runs) {
+        JsonNode run = runs.path(0);
+        return run.path("vmName").asText() + " " + run.path("vmVersion").asText()
+                + " (JDK " + run.path("jdkVersion").asText() + ")";
+    }
+
+    // The check runs on the machine that just ran the benchmarks
+    private static String hardware() {
+        return System.getProperty("os.name") + " " + System.getProperty("os.arch") + ", "
+                + Runtime.getRuntime().availableProcessors() + " CPUs";
+    }
+
+    private static String format(Double value) {
+        return value == null ? "n/a" : String.format("%.0f", value);
+    }
+}
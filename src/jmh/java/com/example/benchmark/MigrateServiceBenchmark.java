@@ -0,0 +1,107 @@
+package com.example.benchmark;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.service.MigrateService;
+import com.example.service.RegexSplitter;
+import com.example.service.TaskExecutionService;
+import com.example.service.WorkerPool;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+public class MigrateServiceBenchmark {
+
+    private TaskExecutionService taskExecutionService;
+    private WorkerPool workerPool;
+    private MigrateService migrateService;
+
+    // Inputs live in non-final state fields, so the JIT cannot constant-fold them into the calls
+    private String csvLine;
+    private String mixedLine;
+    private String literalDelimiter;
+    private String regexDelimiter;
+    private String repeatedText;
+    private int repeatCount;
+    private int x;
+    private int y;
+    private Object integerValue;
+    private Object stringValue;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        csvLine = "alpha,beta,gamma,delta,epsilon,zeta,eta,theta,iota,kappa";
+        mixedLine = "alpha,beta-gamma;delta,epsilon-zeta;eta,theta-iota;kappa";
+        literalDelimiter = ",";
+        regexDelimiter = "[,;\\-]";
+        repeatedText = "abc";
+        repeatCount = 1_000;
+        x = 10;
+        y = 20;
+        integerValue = 123;
+        stringValue = "hello";
+        taskExecutionService = new TaskExecutionService(256, 10_000, 64, Duration.ofMinutes(1));
+        workerPool = new WorkerPool(8, 256, Duration.ofSeconds(30));
+        migrateService = new MigrateService(taskExecutionService,
+                new RegexSplitter(256, 256, Duration.ofMillis(100)), workerPool, 1 << 20, 1 << 28);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        taskExecutionService.shutdown();
+        workerPool.shutdown();
+    }
+
+    @Benchmark
+    public String[] splitLiteralDelimiter() {
+        return migrateService.splitKeepingDelimiters(csvLine, literalDelimiter);
+    }
+
+    @Benchmark
+    public String[] splitRegexDelimiter() {
+        return migrateService.splitKeepingDelimiters(mixedLine, regexDelimiter);
+    }
+
+    @Benchmark
+    public String repeatText() {
+        return migrateService.repeatText(repeatedText, repeatCount);
+    }
+
+    @Benchmark
+    public String recordPattern() {
+        return migrateService.demonstrateRecordPattern(x, y);
+    }
+
+    @Benchmark
+    public String checkTypeInteger() {
+        return migrateService.checkType(integerValue);
+    }
+
+    @Benchmark
+    public String checkTypeString() {
+        return migrateService.checkType(stringValue);
+    }
+
+    @Benchmark
+    public List<String> sequencedCollections() {
+        return migrateService.demonstrateSequencedCollections();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import com.example.App;
+import com.example.entities.Student;
+import com.example.repositories.StudentRepository;
+import com.example.service.StudentStore;
+
+// Repository save/find against the embedded H2 database, through the full Spring Data,
+// Hibernate, cache and pooled DataSource stack the application uses; cached lookups go through
+// the StudentStore, where the caches sit
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class StudentRepositoryBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private StudentRepository studentRepository;
+    private StudentStore studentStore;
+    private long existingId;
+    private long saved;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(App.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false");
+        studentRepository = context.getBean(StudentRepository.class);
+        studentStore = context.getBean(StudentStore.class);
+        existingId = studentRepository.save(new Student(null, "benchmark")).getId();
+    }
+
+    // Deletes what save added during the last iteration, so every iteration starts from the same
+    // table, caches and search index; the deletes go through the repository so their events fire
+    @Setup(Level.Iteration)
+    public void resetTable() {
+        List<Student> page;
+        while (!(page = studentRepository.findByIdGreaterThanOrderByIdAsc(existingId,
+                PageRequest.ofSize(1000))).isEmpty()) {
+            page.forEach(studentRepository::delete);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Distinct names: the search index keeps one copy-on-write array per name, which a run of
+    // identical names would grow by a copy on every save
+    @Benchmark
+    public Student save() {
+        return studentRepository.save(new Student(null, "benchmark-" + saved++));
+    }
+
+    // Served from the id cache after the first call
+    @Benchmark
+    public Optional<Student> findByIdCached() {
+        return studentStore.findById(existingId);
+    }
+
+    // Always reaches the database
+    @Benchmark
+    public List<Student> findByIdUncached() {
+        return studentRepository.findByIdGreaterThanOrderByIdAsc(existingId - 1, PageRequest.ofSize(1));
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.example.loadtest.LoadReport.EndpointResult;
+import com.example.metrics.LatencyHistogram;
+
+// Closed-loop load: each client picks a scenario by weight, sends it, waits for the full response
+// and goes again, so throughput is what the server sustains at the given concurrency. Any status
+// of 400 or above and any I/O failure counts as an error.
+public final class LoadGenerator {
+
+    public record Scenario(String name, int weight, Function<Long, HttpRequest.Builder> request) {}
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final List<Scenario> scenarios;
+    private final int[] cumulativeWeights;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public LoadGenerator(List<Scenario> scenarios) {
+        this.scenarios = List.copyOf(scenarios);
+        this.cumulativeWeights = new int[scenarios.size()];
+        int total = 0;
+        for (int i = 0; i < scenarios.size(); i++) {
+            total += scenarios.get(i).weight();
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("The load mix has no scenario with a positive weight");
+        }
+    }
+
+    // Runs the warmup first and discards its numbers
+    public LoadReport run(int concurrency, Duration warmup, Duration duration) {
+        if (!warmup.isZero()) {
+            measure(concurrency, warmup);
+        }
+        return measure(concurrency, duration);
+    }
+
+    private LoadReport measure(int concurrency, Duration duration) {
+        Map<String, Stats> stats = new LinkedHashMap<>();
+        for (Scenario scenario : scenarios) {
+            stats.put(scenario.name(), new Stats());
+        }
+        Stats total = new Stats();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.submit(() -> drive(stats, total, end));
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        List<EndpointResult> endpoints = new ArrayList<>();
+        stats.forEach((name, s) -> endpoints.add(EndpointResult.of(name, s.latency().snapshot(), s.errors().sum(),
+                seconds)));
+        return new LoadReport(mix(), concurrency, seconds, Runtime.version().toString(), LoadReport.currentHardware(),
+                endpoints, EndpointResult.of("total", total.latency().snapshot(), total.errors().sum(), seconds));
+    }
+
+    private void drive(Map<String, Stats> stats, Stats total, long end) {
+        while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+            Scenario scenario = pick();
+            Stats s = stats.get(scenario.name());
+            HttpRequest request = scenario.request().apply(sequence.incrementAndGet())
+                    .timeout(Duration.ofSeconds(30))
+                    .build();
+            long started = System.nanoTime();
+            boolean failed;
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                failed = response.statusCode() >= 400;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                failed = true;
+            }
+            long nanos = System.nanoTime() - started;
+            s.latency().record(nanos);
+            total.latency().record(nanos);
+            if (failed) {
+                s.errors().increment();
+                total.errors().increment();
+            }
+        }
+    }
+
+    // The mix in loadtest.mix notation, so a baseline is only compared with runs of the same mix
+    public String mix() {
+        return scenarios.stream().map(s -> s.name() + "=" + s.weight()).collect(Collectors.joining(","));
+    }
+
+    private Scenario pick() {
+        int ticket = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (ticket < cumulativeWeights[i]) {
+                return scenarios.get(i);
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private record Stats(LatencyHistogram latency, LongAdder errors) {
+        Stats() {
+            this(new LatencyHistogram(), new LongAdder());
+        }
+    }
+}
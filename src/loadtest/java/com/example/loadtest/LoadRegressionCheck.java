@@ -0,0 +1,71 @@
+package com.example.loadtest;
+
+import java.util.ArrayList;
+import java.util.Formatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.example.loadtest.LoadReport.EndpointResult;
+
+// Compares a load run against the recorded baseline. A run regresses when total throughput drops
+// by more than the tolerance, when an endpoint's p95 latency grows by more than the tolerance plus
+// one histogram bucket (12.5%), or when its error rate rises by more than one percentage point.
+// Per-endpoint throughput only reflects the endpoint's share of the random mix, and endpoints with
+// few samples have meaningless percentiles, so neither is checked; p99 and max are only reported.
+public final class LoadRegressionCheck {
+
+    private static final double ERROR_RATE_SLACK = 0.01;
+    private static final double BUCKET_SLACK = 1.125;
+    private static final long MIN_SAMPLES = 100;
+
+    private LoadRegressionCheck() {
+    }
+
+    // Returns one line per regression; writes a comparison table to the report along the way
+    public static List<String> compare(LoadReport baseline, LoadReport current, double tolerancePercent,
+                                       Formatter report) {
+        double tolerance = tolerancePercent / 100;
+        Map<String, EndpointResult> before = baseline.endpoints().stream()
+                .collect(Collectors.toMap(EndpointResult::name, Function.identity(), (a, b) -> a, HashMap::new));
+        List<EndpointResult> results = new ArrayList<>(current.endpoints());
+        results.add(current.total());
+        before.put(baseline.total().name(), baseline.total());
+
+        List<String> regressions = new ArrayList<>();
+        for (EndpointResult now : results) {
+            EndpointResult then = before.get(now.name());
+            if (then == null || then.requests() == 0) {
+                report.format("NEW   %-22s %10.1f req/s  p95 %8.2f ms  errors %5.2f%%%n",
+                        now.name(), now.throughput(), now.p95Millis(), now.errorRate() * 100);
+                continue;
+            }
+            double throughputChange = (now.throughput() - then.throughput()) / then.throughput();
+            double p95Change = then.p95Millis() == 0 ? 0 : (now.p95Millis() - then.p95Millis()) / then.p95Millis();
+            List<String> reasons = new ArrayList<>();
+            boolean total = now == current.total();
+            if (total && -throughputChange > tolerance) {
+                reasons.add(String.format("throughput %.1f -> %.1f req/s", then.throughput(), now.throughput()));
+            }
+            boolean sampled = then.requests() >= MIN_SAMPLES && now.requests() >= MIN_SAMPLES;
+            if (sampled && now.p95Millis() > then.p95Millis() * (1 + tolerance) * BUCKET_SLACK) {
+                reasons.add(String.format("p95 %.2f -> %.2f ms", then.p95Millis(), now.p95Millis()));
+            }
+            if (now.errorRate() > then.errorRate() + ERROR_RATE_SLACK) {
+                reasons.add(String.format("error rate %.2f%% -> %.2f%%", then.errorRate() * 100,
+                        now.errorRate() * 100));
+            }
+            report.format("%-5s %-22s %10.1f -> %10.1f req/s (%+.1f%%)  p95 %8.2f -> %8.2f ms (%+.1f%%)"
+                            + "  p99 %8.2f ms  errors %5.2f%%%n",
+                    !reasons.isEmpty() ? "FAIL" : sampled ? "OK" : "FEW", now.name(), then.throughput(),
+                    now.throughput(), throughputChange * 100, then.p95Millis(), now.p95Millis(), p95Change * 100,
+                    now.p99Millis(), now.errorRate() * 100);
+            if (!reasons.isEmpty()) {
+                regressions.add(now.name() + ": " + String.join(", ", reasons));
+            }
+        }
+        return regressions;
+    }
+}
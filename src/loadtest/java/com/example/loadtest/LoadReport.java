@@ -0,0 +1,28 @@
+package com.example.loadtest;
+
+import java.util.List;
+
+import com.example.metrics.LatencyHistogram;
+
+// hardware identifies the kind of machine a run was taken on; runs are only compared on the same hardware
+public record LoadReport(String mix, int concurrency, double durationSeconds, String javaVersion, String hardware,
+                         List<EndpointResult> endpoints, EndpointResult total) {
+
+    public record EndpointResult(String name, long requests, long errors, double throughput, double errorRate,
+                                 double meanMillis, double p50Millis, double p95Millis, double p99Millis,
+                                 double maxMillis) {
+
+        static EndpointResult of(String name, LatencyHistogram.Snapshot latency, long errors, double seconds) {
+            long requests = latency.count();
+            return new EndpointResult(name, requests, errors, requests / seconds,
+                    requests == 0 ? 0 : (double) errors / requests, latency.meanMillis(), latency.p50Millis(),
+                    latency.p95Millis(), latency.p99Millis(), latency.maxMillis());
+        }
+    }
+
+    // OS, architecture and CPU count rather than the host name, which differs between CI runners
+    static String currentHardware() {
+        return System.getProperty("os.name") + " " + System.getProperty("os.arch") + ", "
+                + Runtime.getRuntime().availableProcessors() + " CPUs";
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Formatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.example.loadtest.LoadGenerator.Scenario;
+import com.example.loadtest.LoadReport.EndpointResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.abort;
+
+// Drives a weighted mix of every MigrateController endpoint against the application on a random
+// port (in-memory H2) and checks the numbers against benchmarks/loadtest-baseline.json.
+// Run with mvn -Ploadtest verify; the loadtest.* system properties are set by that profile.
+// Admission control is off so the run measures capacity rather than the configured limits.
+// The checked-in baseline comes from the reference setup: a missing baseline fails the test, and
+// one from other hardware or another mix aborts it, so the run shows up as skipped.
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.admission.enabled=false")
+@EnabledIfSystemProperty(named = "loadtest.baseline", matches = ".+")
+class MigrateControllerLoadIT {
+
+    private static final String JSON = "application/json";
+
+    @LocalServerPort
+    int port;
+
+    @Test
+    void migrateEndpoints_shouldNotRegressAgainstBaseline() throws IOException {
+        int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+        Duration warmup = DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "5s"));
+        Duration duration = DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "20s"));
+        double tolerance = Double.parseDouble(System.getProperty("loadtest.tolerance", "20"));
+        double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+        File baselineFile = new File(System.getProperty("loadtest.baseline"));
+        File resultFile = new File(System.getProperty("loadtest.result", "target/loadtest-result.json"));
+
+        List<Scenario> mix = mix(URI.create("http://localhost:" + port), System.getProperty("loadtest.mix", ""));
+        LoadReport report = new LoadGenerator(mix).run(concurrency, warmup, duration);
+
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        resultFile.getAbsoluteFile().getParentFile().mkdirs();
+        mapper.writeValue(resultFile, report);
+        Formatter summary = new Formatter();
+        summary.format("%d clients for %.1f s, %.1f req/s, p95 %.2f ms, errors %.2f%%", concurrency,
+                report.durationSeconds(), report.total().throughput(), report.total().p95Millis(),
+                report.total().errorRate() * 100);
+        log.info("Load run: {} ({})", summary, resultFile);
+
+        for (EndpointResult endpoint : report.endpoints()) {
+            assertTrue(endpoint.errorRate() <= maxErrorRate,
+                    endpoint.name() + " failed " + endpoint.errors() + " of " + endpoint.requests() + " requests");
+        }
+
+        if (Boolean.getBoolean("loadtest.record")) {
+            baselineFile.getAbsoluteFile().getParentFile().mkdirs();
+            mapper.writeValue(baselineFile, report);
+            log.info("Recorded this run on {} as the load baseline {}", report.hardware(), baselineFile);
+            return;
+        }
+        if (!baselineFile.isFile()) {
+            fail("No load baseline at " + baselineFile + "; record one on the reference setup with"
+                    + " -Dloadtest.record=true");
+        }
+        LoadReport baseline = mapper.readValue(baselineFile, LoadReport.class);
+        // Not comparable: reported as a skipped test rather than a pass
+        if (baseline.concurrency() != concurrency || !baseline.mix().equals(report.mix())) {
+            abort("Baseline was taken with " + baseline.concurrency() + " clients and mix " + baseline.mix()
+                    + ", this run with " + concurrency + " clients and mix " + report.mix());
+        }
+        if (!Objects.equals(baseline.hardware(), report.hardware())) {
+            abort("Baseline was taken on " + baseline.hardware() + ", this run on " + report.hardware()
+                    + "; load runs are only compared on the reference setup");
+        }
+        if (!Objects.equals(baseline.javaVersion(), report.javaVersion())) {
+            log.info("Comparing across JDKs: baseline on Java {}, this run on Java {}", baseline.javaVersion(),
+                    report.javaVersion());
+        }
+        Formatter comparison = new Formatter();
+        List<String> regressions = LoadRegressionCheck.compare(baseline, report, tolerance, comparison);
+        log.info("Load run against {}:{}{}", baselineFile, System.lineSeparator(), comparison);
+        if (!regressions.isEmpty()) {
+            fail(regressions.size() + " load regression(s) beyond " + tolerance + "%:\n"
+                    + String.join("\n", regressions));
+        }
+    }
+
+    // name=weight pairs separated by commas select and weight scenarios; empty runs the default mix
+    private static List<Scenario> mix(URI base, String spec) {
+        Map<String, Scenario> all = new LinkedHashMap<>();
+        for (Scenario scenario : scenarios(base)) {
+            all.put(scenario.name(), scenario);
+        }
+        if (spec.isBlank()) {
+            return List.copyOf(all.values());
+        }
+        List<Scenario> selected = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split("=");
+            Scenario scenario = all.get(parts[0]);
+            if (scenario == null) {
+                throw new IllegalArgumentException("Unknown load scenario '" + parts[0] + "', known: "
+                        + all.keySet());
+            }
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1]) : scenario.weight();
+            selected.add(new Scenario(scenario.name(), weight, scenario.request()));
+        }
+        return selected;
+    }
+
+    private static List<Scenario> scenarios(URI base) {
+        Function<String, HttpRequest.Builder> get = path -> HttpRequest.newBuilder(base.resolve(path)).GET();
+        return List.of(
+                new Scenario("hello", 5, n -> get.apply("/")),
+                new Scenario("virtualThread", 5, n -> get.apply("/virtualThread")),
+                new Scenario("sequencedCollections", 10, n -> get.apply("/sequencedCollections")),
+                new Scenario("recordPattern", 10, n -> get.apply("/recordPattern?x=" + n % 100 + "&y=" + n % 7)),
+                new Scenario("multiline", 5, n -> get.apply("/multiline")),
+                new Scenario("checkType", 10, n -> get.apply("/checkType?input=" + (n % 2 == 0 ? n : "text" + n))),
+                new Scenario("checkTypeBatch", 3, n -> post(base, "/checkType/batch",
+                        "[\"1\",\"two\",\"3\",\"four\",\"" + n + "\"]")),
+                new Scenario("sealedClass", 5, n -> get.apply("/sealedClass")),
+                new Scenario("personRecord", 5, n -> get.apply("/personRecord")),
+                new Scenario("clamp", 10, n -> get.apply("/clamp?value=" + (n % 300 - 100))),
+                new Scenario("clampBatch", 3, n -> post(base, "/clamp/batch", "[-5,0,50,150,250," + n % 500 + "]")),
+                new Scenario("repeat", 5, n -> get.apply("/repeat?text=ab&count=" + (n % 500 + 1))),
+                new Scenario("repeatStream", 2, n -> get.apply("/repeat/stream?text=abcd&count=16384")),
+                new Scenario("emoji", 10, n -> get.apply("/emoji?codePoint=" + (0x1F600 + n % 80))),
+                new Scenario("emojiBatch", 3, n -> post(base, "/emoji/batch",
+                        "[128512,65,128525," + n % 200_000 + "]")),
+                new Scenario("split", 5, n -> get.apply("/split?input=a1b22c333d" + n + "&regex=%5Cd%2B")),
+                new Scenario("addStudent", 10, n -> get.apply("/addStudent?name=load-" + n)),
+                new Scenario("legacyThreads", 1, n -> get.apply("/legacyThreads")),
+                new Scenario("runFinalization", 1, n -> get.apply("/runFinalization")),
+                new Scenario("finalize", 1, n -> get.apply("/finalize")));
+    }
+
+    private static HttpRequest.Builder post(URI base, String path, String json) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .header("Content-Type", JSON)
+                .POST(BodyPublishers.ofString(json));
+    }
+}
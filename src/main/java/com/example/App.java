@@ -2,10 +2,29 @@ package com.example;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 
-@SpringBootApplication
+// The reactive profile builds its own R2DBC pool on the application's H2 database (see
+// ReactiveConfig); Boot's would open a separate in-memory database and a second transaction manager
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 public class App {
+
+    // Enough for every bean instantiation step of this application; later steps are dropped
+    static final int STARTUP_STEP_CAPACITY = 4096;
+
     public static void main(String[] args) {
-        SpringApplication.run(App.class, args);
+        SpringApplication application = new SpringApplication(App.class);
+        // Record bean instantiation timings for the startup report (GET /startup)
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(STARTUP_STEP_CAPACITY);
+        startup.addFilter(App::isBeanInstantiation);
+        application.setApplicationStartup(startup);
+        application.run(args);
+    }
+
+    private static boolean isBeanInstantiation(StartupStep step) {
+        return "spring.beans.instantiate".equals(step.getName());
     }
-}
\ No newline at end of file
+}
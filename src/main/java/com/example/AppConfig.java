@@ -1,30 +1,59 @@
 package com.example;
 
-import net.sf.log4jdbc.sql.jdbcapi.DataSourceSpy;
+import com.example.datasource.H2Storage;
+import com.example.datasource.InstrumentedDataSource;
+import com.example.datasource.JdbcInstrumentation;
+import com.example.limits.AdmissionControl;
+import com.example.limits.AdmissionControlFilter;
+import com.example.limits.AdmissionProperties;
+import com.example.metrics.EndpointMetrics;
+import com.example.metrics.RequestMetricsFilter;
+import com.example.metrics.SqlMetrics;
+import com.example.sharding.ShardingProperties;
+import com.example.web.HttpResponseCache;
+import com.example.web.ResponseCacheFilter;
+import com.zaxxer.hikari.HikariDataSource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
-
-import javax.sql.DataSource;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
+@EnableCaching
+@EnableAsync
+@EnableScheduling
+@EnableConfigurationProperties({AdmissionProperties.class, ShardingProperties.class})
 public class AppConfig {
     @Autowired
     DataSourceProperties dataSourceProperties;
 
+    @Autowired
+    H2Storage h2Storage;
+
+    // Pool sizing and timeouts come from spring.datasource.hikari.*; without an explicit
+    // spring.datasource.url the embedded H2 database is set up according to app.h2.*
     @Bean
-    @ConfigurationProperties(prefix = "spring.datasource")
-    DataSource realDataSource() {
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    HikariDataSource realDataSource() {
         String url = this.dataSourceProperties.getUrl();
         if (url == null) {
-            url = "jdbc:h2:mem:testdb";
+            url = h2Storage.url();
         }
         return DataSourceBuilder
                 .create(this.dataSourceProperties.getClassLoader())
+                .type(HikariDataSource.class)
                 .url(url)
                 .username(this.dataSourceProperties.getUsername())
                 .password(this.dataSourceProperties.getPassword())
@@ -33,7 +62,40 @@ public class AppConfig {
 
     @Bean
     @Primary
-    DataSource dataSource() {
-        return new DataSourceSpy(realDataSource());
+    InstrumentedDataSource dataSource(SqlMetrics sqlMetrics,
+                                      @Value("${app.datasource.instrumentation:timing}") JdbcInstrumentation mode) {
+        return new InstrumentedDataSource(realDataSource(), sqlMetrics, mode);
+    }
+
+    // Outermost filter, so the measured latency includes every other filter
+    @Bean
+    @ConditionalOnWebApplication(type = Type.SERVLET)
+    FilterRegistrationBean<RequestMetricsFilter> requestMetricsFilter(EndpointMetrics endpointMetrics) {
+        FilterRegistrationBean<RequestMetricsFilter> registration =
+                new FilterRegistrationBean<>(new RequestMetricsFilter(endpointMetrics));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.setAsyncSupported(true);
+        return registration;
+    }
+
+    // Right after the metrics filter, so cache hits are still timed
+    @Bean
+    @ConditionalOnWebApplication(type = Type.SERVLET)
+    FilterRegistrationBean<ResponseCacheFilter> responseCacheFilter(HttpResponseCache httpResponseCache) {
+        FilterRegistrationBean<ResponseCacheFilter> registration =
+                new FilterRegistrationBean<>(new ResponseCacheFilter(httpResponseCache));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    // After the response cache, so cache hits are never throttled; rejected requests are still timed
+    @Bean
+    @ConditionalOnWebApplication(type = Type.SERVLET)
+    FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(AdmissionControl admissionControl) {
+        FilterRegistrationBean<AdmissionControlFilter> registration =
+                new FilterRegistrationBean<>(new AdmissionControlFilter(admissionControl));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        registration.setAsyncSupported(true);
+        return registration;
     }
-}
\ No newline at end of file
+}
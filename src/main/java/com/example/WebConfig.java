@@ -0,0 +1,33 @@
+package com.example;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.web.BufferPool;
+import com.example.web.ResponseCacheInterceptor;
+import com.example.web.StringArrayJsonConverter;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WebConfig implements WebMvcConfigurer {
+
+    // 16 KB per in-flight response; buffers beyond the pooled count are simply dropped
+    private final BufferPool jsonBuffers = new BufferPool(16 * 1024, 256);
+
+    // Ahead of Jackson, which would otherwise render String[]/List<String> results in one go
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new StringArrayJsonConverter(jsonBuffers));
+    }
+
+    // Flags @DeterministicResponse handlers for ResponseCacheFilter
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ResponseCacheInterceptor());
+    }
+}
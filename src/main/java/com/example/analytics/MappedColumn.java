@@ -0,0 +1,74 @@
+package com.example.analytics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// One column file mapped into memory. The mapping lives outside the Java heap and its pages are
+// managed by the OS page cache, so a column costs the GC nothing however many rows it holds.
+// Growing remaps the file at twice the size; buffers handed out earlier stay valid for the
+// bytes they already covered. A single mapping is limited to 2 GB.
+final class MappedColumn implements AutoCloseable {
+
+    private final Path path;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    MappedColumn(Path path, int initialBytes) {
+        this.path = path;
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = map(initialBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map " + path, e);
+        }
+    }
+
+    // Native byte order; buffers are only accessed with absolute gets and puts, which never
+    // touch the shared position, so readers can use them concurrently
+    private MappedByteBuffer map(long bytes) throws IOException {
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        mapped.order(ByteOrder.nativeOrder());
+        return mapped;
+    }
+
+    MappedByteBuffer buffer() {
+        return buffer;
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    MappedByteBuffer ensureCapacity(long bytes) {
+        if (bytes <= buffer.capacity()) {
+            return buffer;
+        }
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException(path + " would exceed the 2 GB mapping limit");
+        }
+        try {
+            buffer = map(Math.min(Math.max(bytes, 2L * buffer.capacity()), Integer.MAX_VALUE));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not grow " + path, e);
+        }
+        return buffer;
+    }
+
+    // The mapping itself is released once the last buffer is collected
+    @Override
+    public void close() {
+        try {
+            channel.close();
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not remove " + path, e);
+        }
+    }
+}
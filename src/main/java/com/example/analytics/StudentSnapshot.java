@@ -0,0 +1,655 @@
+package com.example.analytics;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.entities.Student;
+import com.example.entities.StudentChangedEvent;
+import com.example.service.StudentStore;
+import com.example.service.StudentsImportedEvent;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// Read-only columnar copy of the student table for reporting queries (GET /snapshot/...).
+// Rows live outside the heap in memory-mapped column files: the ids as a sorted long column, the
+// names as an int column of dictionary codes, and the dictionary of distinct names as
+// length-prefixed UTF-8 located through an int offset column and found by name through an
+// open-addressing hash column. Aggregates split the rows into ranges that are scanned in parallel
+// on a dedicated pool, each with its own histogram.
+// New rows are appended by id from where the last refresh stopped. Committed updates and deletes
+// are queued and applied in place by the next refresh: a rename overwrites the row's name code and
+// a delete overwrites it with DELETED, which every scan skips. Names no longer used stay in the
+// dictionary until the next rebuild.
+// Ids are not handed out in commit order, so an insert can commit below the last appended id;
+// every committed insert is announced, and after each refresh the announced ids at or below it are
+// looked up. Such a missed insert cannot be added in place, so it marks the snapshot dirty and a
+// refresh rebuilds it into new files, at most once per min-rebuild-interval.
+// Queries never take the lock; they read an immutable View published after each refresh batch. A
+// row changed in place while a query runs is counted with its old or its new name.
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "app.snapshot", name = "enabled", havingValue = "true")
+public class StudentSnapshot {
+
+    // Smaller ranges are not worth a task of their own
+    private static final int MIN_CHUNK_ROWS = 16_384;
+    private static final int INITIAL_HASH_SLOTS = 1024;
+    // Name code of a deleted row
+    private static final int DELETED = -1;
+
+    public record Frequency(String value, long count) {}
+
+    public record CountResult(String prefix, Long fromId, Long toId, long count, int rowsScanned,
+                              long elapsedMicros) {}
+
+    public record RefreshResult(boolean rebuilt, int rowsAdded, int rowsChanged, int rows, long lastId,
+                                long elapsedMillis) {}
+
+    public record SnapshotStats(int rows, int deletedRows, int distinctNames, long lastId, long columnBytes,
+                                long refreshes, long rebuilds, boolean dirty, Instant refreshedAt,
+                                long lastRefreshMillis, String directory) {}
+
+    // What queries see; the buffers are only read below rows and names. rows includes the deleted.
+    private record View(ByteBuffer ids, ByteBuffer codes, ByteBuffer offsets, ByteBuffer dictionary,
+                        int rows, int deleted, int names, long lastId, long columnBytes, Instant refreshedAt) {}
+
+    @FunctionalInterface
+    private interface RangeScan<T> {
+        T scan(int from, int to);
+    }
+
+    private final StudentStore studentStore;
+    private final Path directory;
+    private final boolean temporaryDirectory;
+    private final int initialRows;
+    private final int batchSize;
+    private final int maxResults;
+    private final long minRebuildIntervalNanos;
+    private final ForkJoinPool scanPool;
+
+    // JDBC while holding the lock, so no synchronized (virtual threads would pin)
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    // Ids of inserts committed since they were last checked against the snapshot
+    private final Queue<long[]> announced = new ConcurrentLinkedQueue<>();
+    // Committed updates and deletes not applied yet
+    private final Queue<StudentChangedEvent> changes = new ConcurrentLinkedQueue<>();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+    private volatile long lastRefreshMillis;
+    private long lastRebuildNanos;
+    private Generation generation;
+    private volatile View view;
+
+    public StudentSnapshot(StudentStore studentStore,
+                           @Value("${app.snapshot.directory:}") String directory,
+                           @Value("${app.snapshot.initial-rows:65536}") int initialRows,
+                           @Value("${app.snapshot.batch-size:10000}") int batchSize,
+                           @Value("${app.snapshot.parallelism:0}") int parallelism,
+                           @Value("${app.snapshot.max-results:1000}") int maxResults,
+                           @Value("${app.snapshot.min-rebuild-interval:5m}") Duration minRebuildInterval) {
+        this.studentStore = studentStore;
+        this.temporaryDirectory = directory.isBlank();
+        try {
+            this.directory = temporaryDirectory
+                    ? Files.createTempDirectory("student-snapshot")
+                    : Files.createDirectories(Path.of(directory));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create snapshot directory " + directory, e);
+        }
+        this.initialRows = Math.max(initialRows, 1024);
+        this.batchSize = batchSize;
+        this.maxResults = maxResults;
+        this.minRebuildIntervalNanos = minRebuildInterval.toNanos();
+        // The first rebuild may run at once
+        this.lastRebuildNanos = System.nanoTime() - minRebuildIntervalNanos;
+        this.scanPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.generation = new Generation(0);
+        this.view = generation.view();
+    }
+
+    public CountResult count(String prefix, Long fromId, Long toId) {
+        long start = System.nanoTime();
+        View current = view;
+        int from = fromId == null ? 0 : firstRowAtLeast(current, fromId);
+        int to = toId == null || toId == Long.MAX_VALUE ? current.rows() : firstRowAtLeast(current, toId + 1);
+        boolean[] matching = matching(current, prefix);
+        long count;
+        ByteBuffer codes = current.codes();
+        if (matching == null && current.deleted() == 0) {
+            count = Math.max(to - from, 0);
+        } else if (matching == null) {
+            count = scan(from, to, (a, b) -> {
+                long n = 0;
+                for (int row = a; row < b; row++) {
+                    if (codes.getInt(4 * row) != DELETED) {
+                        n++;
+                    }
+                }
+                return n;
+            }).stream().mapToLong(Long::longValue).sum();
+        } else {
+            count = scan(from, to, (a, b) -> {
+                long n = 0;
+                for (int row = a; row < b; row++) {
+                    int code = codes.getInt(4 * row);
+                    if (code >= 0 && code < matching.length && matching[code]) {
+                        n++;
+                    }
+                }
+                return n;
+            }).stream().mapToLong(Long::longValue).sum();
+        }
+        return new CountResult(prefix, fromId, toId, count, Math.max(to - from, 0),
+                (System.nanoTime() - start) / 1_000);
+    }
+
+    // Most frequent names, optionally only those starting with prefix
+    public List<Frequency> topNames(String prefix, int limit) {
+        View current = view;
+        boolean[] matching = matching(current, prefix);
+        int[] counts = histogram(current);
+        int max = Math.clamp(limit, 1, maxResults);
+        Comparator<Integer> byCount = Comparator.comparingInt(code -> counts[code]);
+        PriorityQueue<Integer> top = new PriorityQueue<>(max + 1, byCount);
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0 && (matching == null || matching[code])) {
+                top.add(code);
+                if (top.size() > max) {
+                    top.poll();
+                }
+            }
+        }
+        List<Frequency> frequencies = new ArrayList<>(top.size());
+        for (int code : top) {
+            frequencies.add(new Frequency(name(current, code), counts[code]));
+        }
+        frequencies.sort(byCountThenValue());
+        return frequencies;
+    }
+
+    // Row counts grouped by the first length characters of the name
+    public List<Frequency> prefixes(int length, int limit) {
+        View current = view;
+        int[] counts = histogram(current);
+        int chars = Math.max(length, 1);
+        Map<String, Long> groups = new HashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                String name = name(current, code);
+                String key = name.length() <= chars ? name : name.substring(0, chars);
+                groups.merge(key, (long) counts[code], Long::sum);
+            }
+        }
+        return groups.entrySet().stream()
+                .map(e -> new Frequency(e.getKey(), e.getValue()))
+                .sorted(byCountThenValue())
+                .limit(Math.clamp(limit, 1, maxResults))
+                .toList();
+    }
+
+    public SnapshotStats stats() {
+        View current = view;
+        return new SnapshotStats(current.rows() - current.deleted(), current.deleted(), current.names(),
+                current.lastId(), current.columnBytes(), refreshes.get(), rebuilds.get(), dirty.get(),
+                current.refreshedAt(), lastRefreshMillis, directory.toString());
+    }
+
+    // Appends rows added since the last refresh and applies the queued updates and deletes; rebuilds
+    // everything instead when a missed insert made the snapshot dirty and the last rebuild is at least
+    // min-rebuild-interval ago
+    public RefreshResult refresh() {
+        return refresh(false);
+    }
+
+    // Rebuilds from scratch now, however recently the last rebuild ran
+    public RefreshResult rebuild() {
+        return refresh(true);
+    }
+
+    private RefreshResult refresh(boolean force) {
+        lock.lock();
+        try {
+            long start = System.nanoTime();
+            boolean rebuild = force || dirty.get() && start - lastRebuildNanos >= minRebuildIntervalNanos;
+            Generation previous = generation;
+            if (rebuild) {
+                dirty.set(false);
+                lastRebuildNanos = start;
+                generation = new Generation(rebuilds.incrementAndGet());
+            }
+            int added = 0;
+            int changed;
+            try {
+                int read;
+                do {
+                    Generation target = generation;
+                    read = appendRows(target);
+                    added += read;
+                    // A rebuild only becomes visible once it is complete
+                    if (!rebuild) {
+                        view = target.view();
+                    }
+                } while (read == batchSize);
+                changed = applyChanges(generation);
+            } catch (RuntimeException e) {
+                if (rebuild) {
+                    generation.close();
+                    generation = previous;
+                    dirty.set(true);
+                }
+                throw e;
+            }
+            view = generation.view();
+            if (rebuild) {
+                previous.close();
+            }
+            checkAnnounced(generation.lastId);
+            refreshes.incrementAndGet();
+            lastRefreshMillis = (System.nanoTime() - start) / 1_000_000;
+            int rows = generation.rows - generation.deleted;
+            if (rebuild || added > 0 || changed > 0) {
+                log.info("Snapshot {} {} rows and changed {}, {} total up to id {} in {} ms",
+                        rebuild ? "rebuilt with" : "appended", added, changed, rows, generation.lastId,
+                        lastRefreshMillis);
+            }
+            return new RefreshResult(rebuild, added, changed, rows, generation.lastId, lastRefreshMillis);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int appendRows(Generation target) {
+        List<Student> students = studentStore.findAfter(target.lastId, batchSize);
+        for (Student student : students) {
+            target.append(student.getId(), Objects.requireNonNullElse(student.getName(), ""));
+        }
+        return students.size();
+    }
+
+    // Ids above the last appended one are left to the next scan, which reads the row as committed. A
+    // lower id that is not in the snapshot is an insert that committed late, which only a rebuild adds.
+    private int applyChanges(Generation target) {
+        int applied = 0;
+        StudentChangedEvent change;
+        while ((change = changes.poll()) != null) {
+            if (change.id() > target.lastId) {
+                continue;
+            }
+            int row = target.row(change.id());
+            if (row < 0) {
+                if (change.type() == StudentChangedEvent.ChangeType.UPDATED) {
+                    log.info("Snapshot missed student {} that committed below id {}; rebuild pending",
+                            change.id(), target.lastId);
+                    dirty.set(true);
+                }
+                continue;
+            }
+            if (change.type() == StudentChangedEvent.ChangeType.DELETED) {
+                target.delete(row);
+            } else {
+                target.rename(row, Objects.requireNonNullElse(change.name(), ""));
+            }
+            applied++;
+        }
+        return applied;
+    }
+
+    // Ids of committed inserts; one that a refresh has already scanned past is checked by the next
+    public void announce(long... ids) {
+        if (ids.length > 0) {
+            announced.add(ids);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onStudentChanged(StudentChangedEvent event) {
+        if (event.type() == StudentChangedEvent.ChangeType.CREATED) {
+            announce(event.id());
+        } else {
+            changes.add(event);
+        }
+    }
+
+    @EventListener
+    void onImported(StudentsImportedEvent event) {
+        announce(event.students().stream().mapToLong(Student::getId).toArray());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void onReady() {
+        Thread.ofVirtual().name("student-snapshot-refresh").start(this::refreshQuietly);
+    }
+
+    @Scheduled(fixedDelayString = "${app.snapshot.refresh-interval-seconds:10}",
+            initialDelayString = "${app.snapshot.refresh-interval-seconds:10}", timeUnit = TimeUnit.SECONDS)
+    void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Snapshot refresh failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        scanPool.shutdownNow();
+        lock.lock();
+        try {
+            generation.close();
+            if (temporaryDirectory) {
+                Files.deleteIfExists(directory);
+            }
+        } catch (IOException e) {
+            log.warn("Could not remove snapshot directory {}", directory, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Ids above lastId are picked up by the next scan; lower ones must already be in the snapshot.
+    // Anything announced from here on is left for the next refresh.
+    private void checkAnnounced(long lastId) {
+        View current = view;
+        long[] ids;
+        Queue<long[]> pending = new ArrayDeque<>();
+        while ((ids = announced.poll()) != null) {
+            long[] later = Arrays.stream(ids).filter(id -> id > lastId).toArray();
+            if (later.length > 0) {
+                pending.add(later);
+            }
+            for (long id : ids) {
+                if (id <= lastId && !contains(current, id)) {
+                    log.info("Snapshot missed student {} that committed below id {}; rebuild pending", id, lastId);
+                    dirty.set(true);
+                    announced.addAll(pending);
+                    return;
+                }
+            }
+        }
+        announced.addAll(pending);
+    }
+
+    // Code counts over all rows, one histogram per range and summed afterwards
+    private int[] histogram(View current) {
+        ByteBuffer codes = current.codes();
+        int names = current.names();
+        int[] total = new int[names];
+        for (int[] partial : scan(0, current.rows(), (a, b) -> {
+            int[] counts = new int[names];
+            for (int row = a; row < b; row++) {
+                // Deleted, or renamed to a name added after this view was published
+                int code = codes.getInt(4 * row);
+                if (code >= 0 && code < names) {
+                    counts[code]++;
+                }
+            }
+            return counts;
+        })) {
+            for (int code = 0; code < names; code++) {
+                total[code] += partial[code];
+            }
+        }
+        return total;
+    }
+
+    private <T> List<T> scan(int from, int to, RangeScan<T> range) {
+        int size = to - from;
+        if (size <= 0) {
+            return List.of();
+        }
+        int parts = Math.clamp(size / MIN_CHUNK_ROWS, 1, scanPool.getParallelism());
+        List<ForkJoinTask<T>> tasks = new ArrayList<>(parts);
+        for (int i = 0; i < parts; i++) {
+            int a = from + (int) ((long) size * i / parts);
+            int b = from + (int) ((long) size * (i + 1) / parts);
+            tasks.add(scanPool.submit(() -> range.scan(a, b)));
+        }
+        return tasks.stream().map(ForkJoinTask::join).toList();
+    }
+
+    // Codes whose name starts with prefix, compared on the stored UTF-8 bytes; null matches all
+    private static boolean[] matching(View current, String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            return null;
+        }
+        byte[] bytes = prefix.getBytes(UTF_8);
+        ByteBuffer dictionary = current.dictionary();
+        boolean[] matching = new boolean[current.names()];
+        for (int code = 0; code < matching.length; code++) {
+            int offset = current.offsets().getInt(4 * code);
+            if (dictionary.getInt(offset) >= bytes.length) {
+                int i = 0;
+                while (i < bytes.length && dictionary.get(offset + 4 + i) == bytes[i]) {
+                    i++;
+                }
+                matching[code] = i == bytes.length;
+            }
+        }
+        return matching;
+    }
+
+    private static String name(View current, int code) {
+        int offset = current.offsets().getInt(4 * code);
+        byte[] bytes = new byte[current.dictionary().getInt(offset)];
+        current.dictionary().get(offset + 4, bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static int firstRowAtLeast(View current, long id) {
+        return firstRowAtLeast(current.ids(), current.rows(), id);
+    }
+
+    private static int firstRowAtLeast(ByteBuffer ids, int rows, long id) {
+        int low = 0;
+        int high = rows;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ids.getLong(8 * mid) < id) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean contains(View current, long id) {
+        int row = firstRowAtLeast(current, id);
+        return row < current.rows() && current.ids().getLong(8 * row) == id;
+    }
+
+    private static Comparator<Frequency> byCountThenValue() {
+        return Comparator.comparingLong(Frequency::count).reversed().thenComparing(Frequency::value);
+    }
+
+    // Column files being written; only touched under the lock
+    private final class Generation implements AutoCloseable {
+
+        private final MappedColumn ids;
+        private final MappedColumn codes;
+        private final MappedColumn offsets;
+        private final MappedColumn dictionary;
+        private final long number;
+        // Open addressing with linear probing over slots of two ints: the name's hash and its code + 1,
+        // or 0 for a free slot. Kept at most half full; growing rehashes from the dictionary.
+        private MappedColumn hashes;
+        private int slots;
+        private int names;
+        private int rows;
+        private int deleted;
+        private int dictionaryBytes;
+        private long lastId;
+
+        Generation(long number) {
+            this.number = number;
+            ids = column(number, "ids", 8 * initialRows);
+            codes = column(number, "codes", 4 * initialRows);
+            offsets = column(number, "offsets", 4 * initialRows);
+            dictionary = column(number, "names", 16 * initialRows);
+            slots = INITIAL_HASH_SLOTS;
+            hashes = column(number, "hash", 8 * slots);
+        }
+
+        private MappedColumn column(long number, String name, int bytes) {
+            return new MappedColumn(directory.resolve("students-" + number + "." + name), bytes);
+        }
+
+        void append(long id, String name) {
+            int code = code(name.getBytes(UTF_8));
+            ids.ensureCapacity(8L * (rows + 1)).putLong(8 * rows, id);
+            codes.ensureCapacity(4L * (rows + 1)).putInt(4 * rows, code);
+            rows++;
+            lastId = id;
+        }
+
+        // The row of id, or -1 when it is not in the snapshot
+        int row(long id) {
+            int row = firstRowAtLeast(ids.buffer(), rows, id);
+            return row < rows && ids.buffer().getLong(8 * row) == id ? row : -1;
+        }
+
+        // A deleted row stays deleted: ids are never reused, so a late rename must not bring it back
+        void rename(int row, String name) {
+            if (codes.buffer().getInt(4 * row) != DELETED) {
+                codes.buffer().putInt(4 * row, code(name.getBytes(UTF_8)));
+            }
+        }
+
+        void delete(int row) {
+            if (codes.buffer().getInt(4 * row) != DELETED) {
+                codes.buffer().putInt(4 * row, DELETED);
+                deleted++;
+            }
+        }
+
+        // The dictionary code of name, adding it when it is new
+        private int code(byte[] name) {
+            int hash = hash(name);
+            ByteBuffer table = hashes.buffer();
+            int mask = slots - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                int entry = table.getInt(8 * slot + 4);
+                if (entry == 0) {
+                    break;
+                }
+                if (table.getInt(8 * slot) == hash && sameName(entry - 1, name)) {
+                    return entry - 1;
+                }
+            }
+            int code = addName(name);
+            if (2L * names > slots) {
+                rehash(2 * slots);
+            } else {
+                insert(hash, code);
+            }
+            return code;
+        }
+
+        private int addName(byte[] name) {
+            int code = names++;
+            offsets.ensureCapacity(4L * (code + 1)).putInt(4 * code, dictionaryBytes);
+            MappedByteBuffer entries = dictionary.ensureCapacity((long) dictionaryBytes + 4 + name.length);
+            entries.putInt(dictionaryBytes, name.length);
+            entries.put(dictionaryBytes + 4, name);
+            dictionaryBytes += 4 + name.length;
+            return code;
+        }
+
+        private boolean sameName(int code, byte[] name) {
+            int offset = offsets.buffer().getInt(4 * code);
+            ByteBuffer entries = dictionary.buffer();
+            if (entries.getInt(offset) != name.length) {
+                return false;
+            }
+            for (int i = 0; i < name.length; i++) {
+                if (entries.get(offset + 4 + i) != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void insert(int hash, int code) {
+            ByteBuffer table = hashes.buffer();
+            int mask = slots - 1;
+            int slot = hash & mask;
+            while (table.getInt(8 * slot + 4) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table.putInt(8 * slot, hash).putInt(8 * slot + 4, code + 1);
+        }
+
+        // A fresh, zeroed file at the new size, refilled from the dictionary
+        private void rehash(int newSlots) {
+            if (newSlots > Integer.MAX_VALUE / 8) {
+                throw new IllegalStateException("Snapshot dictionary hash would exceed the 2 GB mapping limit");
+            }
+            hashes.close();
+            slots = newSlots;
+            hashes = column(number, "hash", 8 * slots);
+            ByteBuffer entries = dictionary.buffer();
+            for (int code = 0; code < names; code++) {
+                int offset = offsets.buffer().getInt(4 * code);
+                byte[] name = new byte[entries.getInt(offset)];
+                entries.get(offset + 4, name);
+                insert(hash(name), code);
+            }
+        }
+
+        private static int hash(byte[] name) {
+            int h = Arrays.hashCode(name) * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        View view() {
+            long bytes = (long) ids.capacity() + codes.capacity() + offsets.capacity() + dictionary.capacity()
+                    + hashes.capacity();
+            return new View(ids.buffer(), codes.buffer(), offsets.buffer(), dictionary.buffer(), rows, deleted,
+                    names, lastId, bytes, Instant.now());
+        }
+
+        @Override
+        public void close() {
+            ids.close();
+            codes.close();
+            offsets.close();
+            dictionary.close();
+            hashes.close();
+        }
+    }
+}
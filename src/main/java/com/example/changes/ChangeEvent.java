@@ -0,0 +1,8 @@
+package com.example.changes;
+
+import java.time.Instant;
+
+import com.example.entities.StudentChangedEvent.ChangeType;
+
+// One committed student write as stored in the change log; offset is its position in the log
+public record ChangeEvent(long offset, ChangeType type, long id, String name, Instant committedAt) {}
@@ -0,0 +1,211 @@
+package com.example.changes;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.changes.ChangeLog.LogStats;
+import com.example.datasource.H2Storage;
+import com.example.entities.Student;
+import com.example.entities.StudentChangedEvent;
+import com.example.entities.StudentChangedEvent.ChangeType;
+import com.example.service.ChangeOffsetExpiredException;
+import com.example.service.StudentsImportedEvent;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// Change feed of the student table (GET /changes, GET /changes/stream).
+// JPA writes arrive as StudentChangedEvents after their transaction commits and are appended to the
+// on-disk ChangeLog in commit order. Bulk imports bypass JPA; every committed import batch announces
+// the rows it inserted, with their generated ids, and exactly those are logged as CREATED.
+// Consumers keep the offset after the last change they applied and resume from it, by polling or
+// over server-sent events. Offsets count from 0 again when the log starts over (a new directory, or
+// the temp directory of an in-memory database), so each batch and SSE id also carries the log id; a
+// consumer that resumes with another log's id gets a ChangeOffsetExpiredException instead of
+// silently reading someone else's offsets.
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "app.changes", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeFeed {
+
+    public record ChangeBatch(String logId, List<ChangeEvent> changes, long nextOffset) {}
+
+    public record FeedStats(String logId, long firstOffset, long nextOffset, int segments, long bytes,
+                            int streams, String directory) {}
+
+    private static final Duration POLL_TIMEOUT_GRACE = Duration.ofSeconds(5);
+
+    private final ChangeLog changeLog;
+    private final Path directory;
+    private final boolean temporaryDirectory;
+    private final int maxBatchSize;
+    private final Duration maxWait;
+    private final Duration heartbeatInterval;
+    private final Duration streamTimeout;
+    private final AtomicInteger streams = new AtomicInteger();
+
+    // An empty directory puts the log next to a file database, so it lives as long as the rows do,
+    // and in a temp directory for an in-memory one
+    public ChangeFeed(H2Storage h2Storage,
+                      @Value("${app.changes.directory:}") String directory,
+                      @Value("${app.changes.segment-size:16MB}") DataSize segmentSize,
+                      @Value("${app.changes.retained-segments:16}") int retainedSegments,
+                      @Value("${app.changes.sync-writes:false}") boolean syncWrites,
+                      @Value("${app.changes.max-batch-size:1000}") int maxBatchSize,
+                      @Value("${app.changes.max-wait:60s}") Duration maxWait,
+                      @Value("${app.changes.heartbeat-interval:15s}") Duration heartbeatInterval,
+                      @Value("${app.changes.stream-timeout:30m}") Duration streamTimeout) {
+        this.temporaryDirectory = directory.isBlank() && h2Storage.mode() == H2Storage.Mode.MEM;
+        try {
+            this.directory = temporaryDirectory ? Files.createTempDirectory("student-changes")
+                    : directory.isBlank() ? h2Storage.path().resolveSibling(h2Storage.path().getFileName() + "-changes")
+                    : Path.of(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create change log directory", e);
+        }
+        this.changeLog = new ChangeLog(this.directory, segmentSize.toBytes(), retainedSegments, syncWrites);
+        this.maxBatchSize = maxBatchSize;
+        this.maxWait = maxWait;
+        this.heartbeatInterval = heartbeatInterval;
+        this.streamTimeout = streamTimeout;
+    }
+
+    // logId is the one the consumer got its offset from, or null to take from as it is
+    public ChangeBatch read(String logId, long from, int limit) {
+        checkLogId(logId);
+        List<ChangeEvent> changes = changeLog.read(from, Math.clamp(limit, 1, maxBatchSize));
+        return new ChangeBatch(changeLog.logId(), changes, changes.isEmpty() ? from : changes.getLast().offset() + 1);
+    }
+
+    public String logId() {
+        return changeLog.logId();
+    }
+
+    public long nextOffset() {
+        return changeLog.nextOffset();
+    }
+
+    // The SSE id of a change, which a reconnecting client sends back as Last-Event-ID
+    public String eventId(long offset) {
+        return changeLog.logId() + ":" + offset;
+    }
+
+    // Blocks until a change at or after from exists, at most wait (capped at max-wait)
+    public ChangeBatch poll(String logId, long from, int limit, Duration wait) throws InterruptedException {
+        ChangeBatch batch = read(logId, from, limit);
+        Duration timeout = wait.compareTo(maxWait) > 0 ? maxWait : wait;
+        if (batch.changes().isEmpty() && changeLog.awaitOffset(from, timeout)) {
+            batch = read(logId, from, limit);
+        }
+        return batch;
+    }
+
+    // Long poll that waits on a virtual thread instead of holding a request thread. The request
+    // times out a little after the wait, answering with whatever is there by then.
+    public DeferredResult<ChangeBatch> longPoll(String logId, long from, int limit, Duration wait) {
+        // A stale log id or expired offset fails the request itself
+        read(logId, from, 1);
+        Duration timeout = (wait.compareTo(maxWait) > 0 ? maxWait : wait).plus(POLL_TIMEOUT_GRACE);
+        DeferredResult<ChangeBatch> result = new DeferredResult<>(timeout.toMillis(), () -> read(logId, from, limit));
+        Thread.ofVirtual().name("change-poll").start(() -> {
+            try {
+                result.setResult(poll(logId, from, limit, wait));
+            } catch (InterruptedException | RuntimeException e) {
+                result.setErrorResult(e);
+            }
+        });
+        return result;
+    }
+
+    // Sends every change from offset from as an SSE event whose id is eventId(offset), until the client
+    // goes away or stream-timeout passes; a reconnecting client resumes after its Last-Event-ID
+    public SseEmitter stream(String logId, long from) {
+        // A stale log id or expired offset fails the request itself rather than the open stream
+        read(logId, from, 1);
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        streams.incrementAndGet();
+        Thread.ofVirtual().name("change-stream").start(() -> {
+            long next = from;
+            try {
+                while (true) {
+                    ChangeBatch batch = read(null, next, maxBatchSize);
+                    for (ChangeEvent change : batch.changes()) {
+                        emitter.send(SseEmitter.event().id(eventId(change.offset())).name("change")
+                                .data(change));
+                    }
+                    next = batch.nextOffset();
+                    if (batch.changes().isEmpty() && !changeLog.awaitOffset(next, heartbeatInterval)) {
+                        // Also how a closed connection is noticed while nothing changes
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client gone, or the log closed on shutdown
+                log.debug("Change stream closed at offset {}", next, e);
+                emitter.completeWithError(e);
+            } catch (InterruptedException e) {
+                emitter.complete();
+            } catch (RuntimeException e) {
+                log.warn("Change stream failed at offset {}", next, e);
+                emitter.completeWithError(e);
+            } finally {
+                streams.decrementAndGet();
+            }
+        });
+        return emitter;
+    }
+
+    public FeedStats stats() {
+        LogStats logStats = changeLog.stats();
+        return new FeedStats(logStats.logId(), logStats.firstOffset(), logStats.nextOffset(), logStats.segments(),
+                logStats.bytes(), streams.get(), directory.toString());
+    }
+
+    private void checkLogId(String logId) {
+        if (logId != null && !logId.equals(changeLog.logId())) {
+            throw new ChangeOffsetExpiredException("Change log " + logId
+                    + " no longer exists; offsets now belong to log " + changeLog.logId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onStudentChanged(StudentChangedEvent event) {
+        changeLog.append(event.type(), event.id(), event.name());
+    }
+
+    @EventListener
+    void onImported(StudentsImportedEvent event) {
+        for (Student student : event.students()) {
+            changeLog.append(ChangeType.CREATED, student.getId(), student.getName());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        changeLog.close();
+        if (temporaryDirectory) {
+            try (var files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+                Files.deleteIfExists(directory);
+            } catch (IOException e) {
+                log.warn("Could not remove change log directory {}", directory, e);
+            }
+        }
+    }
+}
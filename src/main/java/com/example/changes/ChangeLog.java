@@ -0,0 +1,342 @@
+package com.example.changes;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import com.example.entities.StudentChangedEvent.ChangeType;
+import com.example.service.ChangeOffsetExpiredException;
+
+// Append-only log of student changes, split into segment files named after their first offset.
+// A record is the payload length and its CRC32, then offset, type, id, commit time in millis and
+// the name as length-prefixed UTF-8 (-1 for null). A record torn by a crash fails the length or
+// CRC check and is cut off when the log is reopened. Every INDEX_INTERVAL-th record position is
+// kept in memory per segment, so a read from an offset scans at most that many records to start.
+// Rolling to a new segment deletes the oldest ones beyond retainedSegments.
+// Offsets only mean something within one log, so every log gets a random id when it is created,
+// kept in LOG_ID_FILE next to the segments. A log started over in an empty or new directory counts
+// from offset 0 again under a new id, and consumers tell the two apart by it.
+public class ChangeLog implements AutoCloseable {
+
+    public record LogStats(String logId, long firstOffset, long nextOffset, int segments, long bytes) {}
+
+    private record Record(ChangeEvent event, long end) {}
+
+    static final String SUFFIX = ".log";
+    static final String LOG_ID_FILE = "log-id";
+    private static final int HEADER_BYTES = 8;
+    private static final int MIN_PAYLOAD_BYTES = 8 + 1 + 8 + 8 + 4;
+    private static final int INDEX_INTERVAL = 256;
+    private static final ChangeType[] TYPES = ChangeType.values();
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final int retainedSegments;
+    private final boolean syncWrites;
+    private final String logId;
+    // Appends and rolls are exclusive; reads only need the segments to stay open
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Condition appended = lock.writeLock().newCondition();
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private long nextOffset;
+    private boolean closed;
+
+    public ChangeLog(Path directory, long segmentBytes, int retainedSegments, boolean syncWrites) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.retainedSegments = Math.max(retainedSegments, 1);
+        this.syncWrites = syncWrites;
+        try {
+            Files.createDirectories(directory);
+            List<Path> files;
+            try (Stream<Path> list = Files.list(directory)) {
+                files = list.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+            }
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long baseOffset = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+                segments.put(baseOffset, new Segment(file, baseOffset));
+            }
+            Path logIdFile = directory.resolve(LOG_ID_FILE);
+            if (segments.isEmpty() || !Files.exists(logIdFile)) {
+                Files.deleteIfExists(logIdFile);
+                Files.writeString(logIdFile, UUID.randomUUID().toString(), UTF_8);
+            }
+            this.logId = Files.readString(logIdFile, UTF_8).strip();
+            if (segments.isEmpty()) {
+                roll(0);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open change log in " + directory, e);
+        }
+        Segment last = segments.lastEntry().getValue();
+        nextOffset = last.baseOffset + last.count;
+    }
+
+    public ChangeEvent append(ChangeType type, long id, String name) {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Change log in " + directory + " is closed");
+            }
+            // Millisecond precision, so the returned event equals the one read back later
+            ChangeEvent event = new ChangeEvent(nextOffset, type, id, name,
+                    Instant.ofEpochMilli(System.currentTimeMillis()));
+            ByteBuffer record = encode(event);
+            Segment active = segments.lastEntry().getValue();
+            if (active.count > 0 && active.size + record.remaining() > segmentBytes) {
+                active.channel.force(false);
+                active = roll(nextOffset);
+            }
+            active.append(record, event.offset());
+            if (syncWrites) {
+                active.channel.force(false);
+            }
+            nextOffset++;
+            appended.signalAll();
+            return event;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to change log in " + directory, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Up to max events starting at offset from; from may be the next offset, which reads nothing
+    public List<ChangeEvent> read(long from, int max) {
+        lock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Change log in " + directory + " is closed");
+            }
+            long first = segments.firstKey();
+            if (from < first || from > nextOffset) {
+                throw new ChangeOffsetExpiredException("Offset " + from + " is outside the retained change log ["
+                        + first + ", " + nextOffset + "]");
+            }
+            List<ChangeEvent> events = new ArrayList<>((int) Math.min(max, nextOffset - from));
+            for (Segment segment : segments.tailMap(segments.floorKey(from), true).values()) {
+                long position = segment.positionOf(from);
+                while (events.size() < max && position < segment.size) {
+                    Record record = segment.read(position);
+                    if (record.event().offset() >= from) {
+                        events.add(record.event());
+                    }
+                    position = record.end();
+                }
+                if (events.size() >= max) {
+                    break;
+                }
+            }
+            return events;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read change log in " + directory, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Waits until an event at or after offset exists; false on timeout or when the log closes
+    public boolean awaitOffset(long offset, Duration timeout) throws InterruptedException {
+        long nanos = timeout.toNanos();
+        lock.writeLock().lock();
+        try {
+            while (nextOffset <= offset && !closed) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = appended.awaitNanos(nanos);
+            }
+            return nextOffset > offset;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public String logId() {
+        return logId;
+    }
+
+    public long nextOffset() {
+        lock.readLock().lock();
+        try {
+            return nextOffset;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public LogStats stats() {
+        lock.readLock().lock();
+        try {
+            long bytes = segments.values().stream().mapToLong(segment -> segment.size).sum();
+            return new LogStats(logId, segments.firstKey(), nextOffset, segments.size(), bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            appended.signalAll();
+            for (Segment segment : segments.values()) {
+                segment.channel.force(false);
+                segment.channel.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close change log in " + directory, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Segment roll(long baseOffset) throws IOException {
+        Segment segment = new Segment(directory.resolve(String.format("%020d%s", baseOffset, SUFFIX)), baseOffset);
+        segments.put(baseOffset, segment);
+        while (segments.size() > retainedSegments) {
+            Segment oldest = segments.pollFirstEntry().getValue();
+            oldest.channel.close();
+            Files.deleteIfExists(oldest.path);
+        }
+        return segment;
+    }
+
+    private static ByteBuffer encode(ChangeEvent event) {
+        byte[] name = event.name() == null ? null : event.name().getBytes(UTF_8);
+        int length = MIN_PAYLOAD_BYTES + (name == null ? 0 : name.length);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + length);
+        buffer.putInt(length).putInt(0)
+                .putLong(event.offset())
+                .put((byte) event.type().ordinal())
+                .putLong(event.id())
+                .putLong(event.committedAt().toEpochMilli())
+                .putInt(name == null ? -1 : name.length);
+        if (name != null) {
+            buffer.put(name);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_BYTES, length);
+        buffer.putInt(4, (int) crc.getValue());
+        return buffer.flip();
+    }
+
+    // One file of the log; only the last segment is appended to
+    private static final class Segment {
+
+        private final Path path;
+        private final long baseOffset;
+        private final FileChannel channel;
+        // offset -> file position for every INDEX_INTERVAL-th record
+        private final TreeMap<Long, Long> index = new TreeMap<>();
+        private long size;
+        private int count;
+
+        Segment(Path path, long baseOffset) throws IOException {
+            this.path = path;
+            this.baseOffset = baseOffset;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            this.size = channel.size();
+            recover();
+        }
+
+        // Counts and indexes the valid records and cuts off whatever follows the last one
+        private void recover() throws IOException {
+            long position = 0;
+            Record record;
+            while ((record = tryRead(position)) != null && record.event().offset() == baseOffset + count) {
+                if (count % INDEX_INTERVAL == 0) {
+                    index.put(record.event().offset(), position);
+                }
+                count++;
+                position = record.end();
+            }
+            if (position < size) {
+                channel.truncate(position);
+                size = position;
+            }
+        }
+
+        void append(ByteBuffer record, long offset) throws IOException {
+            if (count % INDEX_INTERVAL == 0) {
+                index.put(offset, size);
+            }
+            long position = size;
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+            size = position;
+            count++;
+        }
+
+        long positionOf(long offset) {
+            Map.Entry<Long, Long> entry = index.floorEntry(offset);
+            return entry == null ? 0 : entry.getValue();
+        }
+
+        Record read(long position) throws IOException {
+            Record record = tryRead(position);
+            if (record == null) {
+                throw new IOException("Corrupt record at " + path + ":" + position);
+            }
+            return record;
+        }
+
+        private Record tryRead(long position) throws IOException {
+            if (position + HEADER_BYTES > size) {
+                return null;
+            }
+            ByteBuffer header = readFully(position, HEADER_BYTES);
+            int length = header.getInt(0);
+            if (length < MIN_PAYLOAD_BYTES || position + HEADER_BYTES + length > size) {
+                return null;
+            }
+            ByteBuffer payload = readFully(position + HEADER_BYTES, length);
+            CRC32 crc = new CRC32();
+            crc.update(payload.array());
+            if ((int) crc.getValue() != header.getInt(4)) {
+                return null;
+            }
+            long offset = payload.getLong();
+            ChangeType type = TYPES[payload.get()];
+            long id = payload.getLong();
+            Instant committedAt = Instant.ofEpochMilli(payload.getLong());
+            int nameLength = payload.getInt();
+            String name = nameLength < 0 ? null : new String(payload.array(), payload.position(), nameLength, UTF_8);
+            return new Record(new ChangeEvent(offset, type, id, name, committedAt), position + HEADER_BYTES + length);
+        }
+
+        private ByteBuffer readFully(long position, int bytes) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(bytes);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of " + path);
+                }
+            }
+            return buffer.flip();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.controller;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+// Per-request async timeout for streaming responses (StreamingResponseBody), which have no
+// timeout of their own. Every other async request keeps the container default.
+final class AsyncTimeouts {
+
+    private static final String KEY = AsyncTimeouts.class.getName();
+
+    private AsyncTimeouts() {
+    }
+
+    static void set(HttpServletRequest request, Duration timeout) {
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(KEY, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest webRequest, Callable<T> task) {
+                // Called with the request's AsyncWebRequest just before it starts async processing
+                if (webRequest instanceof AsyncWebRequest asyncWebRequest) {
+                    asyncWebRequest.setTimeout(timeout.toMillis());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.controller;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.web.HttpResponseCache;
+import com.example.web.HttpResponseCache.ResponseCacheStats;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("cache")
+public class CacheController {
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    HttpResponseCache httpResponseCache;
+
+    public record CacheStatistics(long size, long hits, long misses, double hitRate, long evictions) {}
+
+    @GetMapping("stats")
+    public Map<String, CacheStatistics> getStats() {
+        Map<String, CacheStatistics> result = new TreeMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(name) instanceof CaffeineCache cache) {
+                var nativeCache = cache.getNativeCache();
+                CacheStats stats = nativeCache.stats();
+                result.put(name, new CacheStatistics(nativeCache.estimatedSize(), stats.hitCount(),
+                        stats.missCount(), stats.hitRate(), stats.evictionCount()));
+            }
+        }
+        return result;
+    }
+
+    // Serialized @DeterministicResponse bodies served by ResponseCacheFilter
+    @GetMapping("responses")
+    public ResponseCacheStats getResponseStats() {
+        return httpResponseCache.stats();
+    }
+
+    @DeleteMapping("responses")
+    public void clearResponses() {
+        httpResponseCache.clear();
+    }
+}
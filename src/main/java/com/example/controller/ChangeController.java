@@ -0,0 +1,64 @@
+package com.example.controller;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.changes.ChangeFeed;
+import com.example.changes.ChangeFeed.ChangeBatch;
+import com.example.changes.ChangeFeed.FeedStats;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "app.changes", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequestMapping("changes")
+public class ChangeController {
+
+    @Autowired
+    ChangeFeed changeFeed;
+
+    // Long poll: answers as soon as there is a change at or after from, or with none after waitMillis.
+    // Poll again with the returned logId and nextOffset; 410 once that log is gone.
+    @GetMapping
+    public DeferredResult<ChangeBatch> poll(@RequestParam long from,
+                                            @RequestParam(required = false) String logId,
+                                            @RequestParam(defaultValue = "100") int limit,
+                                            @RequestParam(defaultValue = "30000") long waitMillis) {
+        return changeFeed.longPoll(logId, from, limit, Duration.ofMillis(Math.max(waitMillis, 0)));
+    }
+
+    // Without from or Last-Event-ID the stream starts with the next change. Event ids are
+    // logId:offset; a plain offset is taken as it is.
+    @GetMapping(value = "stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(required = false) Long from,
+                             @RequestParam(required = false) String logId,
+                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        if (lastEventId == null) {
+            return changeFeed.stream(logId, from != null ? from : changeFeed.nextOffset());
+        }
+        int separator = lastEventId.lastIndexOf(':');
+        try {
+            long offset = Long.parseLong(lastEventId.substring(separator + 1).strip());
+            return changeFeed.stream(separator < 0 ? null : lastEventId.substring(0, separator), offset + 1);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed Last-Event-ID: " + lastEventId);
+        }
+    }
+
+    @GetMapping("stats")
+    public FeedStats stats() {
+        return changeFeed.stats();
+    }
+}
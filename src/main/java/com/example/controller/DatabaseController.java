@@ -0,0 +1,72 @@
+package com.example.controller;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.service.DatabaseBackupService;
+import com.example.service.DatabaseBackupService.Backup;
+import com.example.service.DatabaseBackupService.DatabaseInfo;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("database")
+public class DatabaseController {
+
+    private static final String BACKUP_RELEASE = DatabaseController.class.getName() + ".backupRelease";
+
+    @Autowired
+    DatabaseBackupService databaseBackupService;
+
+    @Value("${app.h2.file.backup-timeout:30m}")
+    Duration backupTimeout;
+
+    @GetMapping
+    public DatabaseInfo getDatabase() throws IOException {
+        return databaseBackupService.info();
+    }
+
+    // 409 while running on the in-memory database or while another backup is in progress.
+    // The copy runs on the async thread while the response streams, so its size is not known up
+    // front; HEAD only checks availability. The slot is released after streaming, or when the
+    // async request ends without streaming (timeout, client gone).
+    @GetMapping("backup")
+    public ResponseEntity<StreamingResponseBody> backup(HttpServletRequest request) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("students-backup.zip").build().toString());
+        if (HttpMethod.HEAD.matches(request.getMethod())) {
+            databaseBackupService.checkAvailable();
+            return response.build();
+        }
+        Backup backup = databaseBackupService.begin();
+        AsyncTimeouts.set(request, backupTimeout);
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(BACKUP_RELEASE,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                        backup.release();
+                    }
+                });
+        return response.body(backup::writeTo);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.limits.AdmissionControl;
+import com.example.limits.AdmissionControl.PolicyStats;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("limits")
+public class LimitsController {
+
+    @Autowired
+    AdmissionControl admissionControl;
+
+    // Per-policy admissions, rejections by reason and the current adaptive concurrency limit
+    @GetMapping
+    public List<PolicyStats> getLimits() {
+        return admissionControl.stats();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.metrics.EndpointMetrics;
+import com.example.metrics.EndpointMetrics.EndpointSnapshot;
+import com.example.metrics.PrometheusExporter;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("metrics")
+public class MetricsController {
+
+    @Autowired
+    EndpointMetrics endpointMetrics;
+
+    @Autowired
+    PrometheusExporter prometheusExporter;
+
+    // Scrape target: endpoint, SQL and JVM metrics in Prometheus text format
+    @GetMapping(produces = PrometheusExporter.CONTENT_TYPE)
+    public String scrape() {
+        return prometheusExporter.scrape();
+    }
+
+    @GetMapping("endpoints")
+    public List<EndpointSnapshot> getEndpoints() {
+        return endpointMetrics.snapshot();
+    }
+
+    @DeleteMapping("endpoints")
+    public void resetEndpoints() {
+        endpointMetrics.reset();
+    }
+}
@@ -1,22 +1,36 @@
 package com.example.controller;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 
 import lombok.Data;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.entities.Student;
-import com.example.repositories.StudentRepository;
 import com.example.service.MigrateService;
+import com.example.service.StudentStore;
+import com.example.service.WorkerPool.ResourceStats;
+import com.example.service.WorkerPool.WorkerStatus;
+import com.example.web.DeterministicResponse;
 
 import org.springframework.web.bind.annotation.GetMapping;
 
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class MigrateController {
     // @Autowired
     // NamedParameterJdbcTemplate jdbcTemplate;
@@ -25,7 +39,10 @@ public class MigrateController {
     MigrateService migrateService;
 
     @Autowired
-    StudentRepository studentRepository;
+    StudentStore studentStore;
+
+    @Value("${app.repeat.stream-timeout:5m}")
+    Duration repeatStreamTimeout;
 
 
     @RequestMapping("/")
@@ -56,16 +73,19 @@ public class MigrateController {
     }
 
     @GetMapping("sequencedCollections")
+    @DeterministicResponse
     public List<String> getSequencedCollections() {
         return migrateService.demonstrateSequencedCollections();
     }
 
     @GetMapping("recordPattern")
+    @DeterministicResponse
     public String getRecordPattern(@Valid @RequestParam int x, @RequestParam int y) {
         return migrateService.demonstrateRecordPattern(x, y);
     }
 
     @GetMapping("multiline")
+    @DeterministicResponse
     public String getMultiline() {
         return migrateService.getMultilineText();
     }
@@ -79,12 +99,19 @@ public class MigrateController {
         }
     }
 
+    @PostMapping("checkType/batch")
+    public String[] checkTypes(@RequestBody String[] inputs) {
+        return migrateService.checkTypes(inputs);
+    }
+
     @GetMapping("sealedClass")
+    @DeterministicResponse
     public String getSealedClass() {
         return migrateService.demonstrateSealedClass();
     }
 
     @GetMapping("personRecord")
+    @DeterministicResponse
     public String getPersonRecord() {
         return migrateService.demonstrateRecord();
     }
@@ -94,16 +121,38 @@ public class MigrateController {
         return migrateService.clampValue(value);
     }
 
+    @PostMapping("clamp/batch")
+    public int[] getClampValues(@RequestBody int[] values) {
+        return migrateService.clampValues(values);
+    }
+
     @GetMapping("repeat")
     public String getRepeatText(@RequestParam String text, @RequestParam int count) {
         return migrateService.repeatText(text, count);
     }
 
+    @GetMapping("repeat/stream")
+    public ResponseEntity<StreamingResponseBody> streamRepeatText(@RequestParam String text, @RequestParam int count,
+                                                                  HttpServletRequest request) {
+        long size = migrateService.repeatedSize(text, count);
+        AsyncTimeouts.set(request, repeatStreamTimeout);
+        StreamingResponseBody body = out -> migrateService.writeRepeated(text, count, out);
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .contentLength(size)
+                .body(body);
+    }
+
     @GetMapping("emoji")
     public boolean isEmoji(@RequestParam int codePoint) {
         return migrateService.isEmojiCharacter(codePoint);
     }
 
+    @PostMapping("emoji/batch")
+    public boolean[] areEmoji(@RequestBody int[] codePoints) {
+        return migrateService.areEmojiCharacters(codePoints);
+    }
+
     @GetMapping("split")
     public String[] getSplitWithDelimiters(@RequestParam String input, @RequestParam String regex) {
         return migrateService.splitKeepingDelimiters(input, regex);
@@ -111,24 +160,28 @@ public class MigrateController {
 
     @GetMapping("addStudent")
     public Student addStudent(@RequestParam String name) {
-        return studentRepository.save(new Student(null, name));
+        return studentStore.save(name);
     }
 
+    // The three worker demos answer with what the worker pool reports: the worker's final state
+    // (CANCELLED, SUCCEEDED, DEADLINE_EXCEEDED...), or 202 with its current one if it has not
+    // stopped within the wait; poll it at /workers/{id}
     @GetMapping("legacyThreads")
-    public String getLegacyThreads() {
-        migrateService.demonstrateLegacyThreadMethods();
-        return "Legacy thread methods executed";
+    public ResponseEntity<WorkerStatus> getLegacyThreads() throws InterruptedException {
+        return workerResponse(migrateService.demonstrateLegacyThreadMethods());
     }
 
     @GetMapping("runFinalization")
-    public String getRunFinalization() {
-        migrateService.demonstrateFinalization();
-        return "Runtime.runFinalization() executed";
+    public ResourceStats getRunFinalization() {
+        return migrateService.demonstrateFinalization();
     }
 
     @GetMapping("finalize")
-    public String callFinalize() throws Throwable {
-        migrateService.finalize();
-        return "finalize() called manually";
+    public ResponseEntity<WorkerStatus> callFinalize() throws InterruptedException {
+        return workerResponse(migrateService.demonstrateCleaner());
+    }
+
+    private static ResponseEntity<WorkerStatus> workerResponse(WorkerStatus status) {
+        return status.finishedAt() == null ? ResponseEntity.accepted().body(status) : ResponseEntity.ok(status);
     }
 }
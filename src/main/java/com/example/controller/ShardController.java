@@ -0,0 +1,42 @@
+package com.example.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.sharding.ShardedStudentStore;
+import com.example.sharding.ShardedStudentStore.RebalanceResult;
+import com.example.sharding.ShardedStudentStore.ShardStats;
+
+// Shard administration only: students are read and written through /students like any other
+// StudentStore, which routes them to their shard
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+@RequestMapping("shards")
+public class ShardController {
+
+    @Autowired
+    ShardedStudentStore shardedStudentStore;
+
+    // Rows and pool usage per shard
+    @GetMapping
+    public List<ShardStats> getShards() {
+        return shardedStudentStore.stats();
+    }
+
+    // Moves rows to the shard they belong to under the new count while reads and writes go on;
+    // 409 while another rebalance runs. The count is clamped to app.sharding.max-shards, since every
+    // shard opens a database and a pool.
+    @PostMapping("rebalance")
+    public RebalanceResult rebalance(@RequestParam int shards) {
+        return shardedStudentStore.rebalance(Math.clamp(shards, 1, shardedStudentStore.maxShards()));
+    }
+}
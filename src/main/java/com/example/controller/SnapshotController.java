@@ -0,0 +1,59 @@
+package com.example.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.analytics.StudentSnapshot;
+import com.example.analytics.StudentSnapshot.CountResult;
+import com.example.analytics.StudentSnapshot.Frequency;
+import com.example.analytics.StudentSnapshot.RefreshResult;
+import com.example.analytics.StudentSnapshot.SnapshotStats;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "app.snapshot", name = "enabled", havingValue = "true")
+@RequestMapping("snapshot")
+public class SnapshotController {
+
+    @Autowired
+    StudentSnapshot studentSnapshot;
+
+    @GetMapping
+    public SnapshotStats getSnapshot() {
+        return studentSnapshot.stats();
+    }
+
+    // Ids are inclusive on both ends
+    @GetMapping("count")
+    public CountResult count(@RequestParam(required = false) String prefix,
+                             @RequestParam(required = false) Long fromId,
+                             @RequestParam(required = false) Long toId) {
+        return studentSnapshot.count(prefix, fromId, toId);
+    }
+
+    @GetMapping("names")
+    public List<Frequency> topNames(@RequestParam(required = false) String prefix,
+                                    @RequestParam(defaultValue = "10") int limit) {
+        return studentSnapshot.topNames(prefix, limit);
+    }
+
+    @GetMapping("prefixes")
+    public List<Frequency> prefixes(@RequestParam(defaultValue = "1") int length,
+                                    @RequestParam(defaultValue = "10") int limit) {
+        return studentSnapshot.prefixes(length, limit);
+    }
+
+    // Normally the snapshot refreshes on a schedule; this catches it up immediately
+    @PostMapping("refresh")
+    public RefreshResult refresh(@RequestParam(defaultValue = "false") boolean rebuild) {
+        return rebuild ? studentSnapshot.rebuild() : studentSnapshot.refresh();
+    }
+}
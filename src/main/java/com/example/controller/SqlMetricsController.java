@@ -0,0 +1,51 @@
+package com.example.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.datasource.InstrumentedDataSource;
+import com.example.datasource.JdbcInstrumentation;
+import com.example.metrics.SqlMetrics;
+import com.example.metrics.SqlMetrics.StatementSnapshot;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("metrics/sql")
+public class SqlMetricsController {
+
+    @Autowired
+    SqlMetrics sqlMetrics;
+
+    @Autowired
+    InstrumentedDataSource dataSource;
+
+    @GetMapping
+    public List<StatementSnapshot> getStatements() {
+        return sqlMetrics.snapshot();
+    }
+
+    @DeleteMapping
+    public void resetStatements() {
+        sqlMetrics.reset();
+    }
+
+    @GetMapping("mode")
+    public JdbcInstrumentation getMode() {
+        return dataSource.getMode();
+    }
+
+    // e.g. PUT /metrics/sql/mode?value=NONE to drop all JDBC wrapping at runtime
+    @PutMapping("mode")
+    public JdbcInstrumentation setMode(@RequestParam JdbcInstrumentation value) {
+        dataSource.setMode(value);
+        return value;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.startup.StartupReport;
+import com.example.startup.StartupReport.Report;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class StartupController {
+
+    @Autowired
+    StartupReport startupReport;
+
+    @GetMapping("startup")
+    public Report getStartup(@RequestParam(defaultValue = "20") int limit) {
+        return startupReport.report(Math.max(1, Math.min(limit, 500)));
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.example.entities.Student;
+import com.example.service.StudentImportService;
+import com.example.service.StudentImportService.ImportResult;
+import com.example.service.StudentQueryService;
+import com.example.service.StudentQueryService.StudentPage;
+import com.example.service.StudentSearchIndex;
+import com.example.service.StudentSearchIndex.IndexStats;
+import com.example.service.StudentSearchIndex.SearchHit;
+import com.example.service.StudentWriteBehindService;
+import com.example.service.StudentWriteBehindService.WriteBehindMetrics;
+import com.example.service.StudentWriteBehindService.WriteStatus;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("students")
+public class StudentController {
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Autowired
+    StudentImportService studentImportService;
+
+    @Autowired
+    StudentQueryService studentQueryService;
+
+    @Autowired
+    StudentWriteBehindService studentWriteBehindService;
+
+    @Autowired
+    StudentSearchIndex studentSearchIndex;
+
+    @Value("${app.students.export.timeout:30m}")
+    Duration exportTimeout;
+
+    @GetMapping
+    public StudentPage listStudents(@RequestParam(defaultValue = "0") long afterId,
+                                    @RequestParam(defaultValue = "100") int size) {
+        return studentQueryService.listAfter(afterId, size);
+    }
+
+    @GetMapping("{id}")
+    public ResponseEntity<Student> getStudent(@PathVariable long id) {
+        return ResponseEntity.of(studentQueryService.findById(id));
+    }
+
+    @GetMapping("byName")
+    public List<Student> getStudentsByName(@RequestParam String name) {
+        return studentQueryService.findByName(name);
+    }
+
+    // Type-ahead lookup, e.g. /students/search?q=ali or ?q=alise&mode=FUZZY&maxDistance=1
+    @GetMapping("search")
+    public List<SearchHit> searchStudents(@RequestParam String q,
+                                          @RequestParam(defaultValue = "PREFIX") StudentSearchIndex.Mode mode,
+                                          @RequestParam(defaultValue = "10") int limit,
+                                          @RequestParam(defaultValue = "1") int maxDistance) {
+        return studentSearchIndex.search(q, mode, limit, maxDistance);
+    }
+
+    @GetMapping("search/stats")
+    public IndexStats getSearchStats() {
+        return studentSearchIndex.stats();
+    }
+
+    @GetMapping("export")
+    public ResponseEntity<StreamingResponseBody> exportStudents(HttpServletRequest request) {
+        AsyncTimeouts.set(request, exportTimeout);
+        StreamingResponseBody body = out -> studentQueryService.exportNdjson(out);
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    @PostMapping(value = "import", consumes = "application/x-ndjson")
+    public ImportResult importNdjson(InputStream body) throws IOException {
+        return studentImportService.importNdjson(body);
+    }
+
+    @PostMapping(value = "import", consumes = "text/csv")
+    public ImportResult importCsv(InputStream body) throws IOException {
+        return studentImportService.importCsv(body);
+    }
+
+    // Write-behind insert: acknowledged once queued, persisted by the background writer
+    @PostMapping("async")
+    public ResponseEntity<WriteStatus> addStudentAsync(@RequestParam String name) {
+        WriteStatus status = studentWriteBehindService.enqueue(name);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().replaceQuery(null)
+                        .path("/{id}").buildAndExpand(status.id()).toUri())
+                .body(status);
+    }
+
+    @GetMapping("async/{id}")
+    public ResponseEntity<WriteStatus> getAsyncStatus(@PathVariable String id) {
+        return ResponseEntity.of(studentWriteBehindService.status(id));
+    }
+
+    @GetMapping("async/metrics")
+    public WriteBehindMetrics getAsyncMetrics() {
+        return studentWriteBehindService.metrics();
+    }
+}
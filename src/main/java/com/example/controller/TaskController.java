@@ -0,0 +1,89 @@
+package com.example.controller;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.service.StudentStore;
+import com.example.service.TaskExecutionService;
+import com.example.service.TaskExecutionService.TaskMetrics;
+import com.example.service.TaskExecutionService.TaskStatus;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("tasks")
+public class TaskController {
+
+    @Autowired
+    TaskExecutionService taskExecutionService;
+
+    @Autowired
+    StudentStore studentStore;
+
+    // type=sleep: blocking wait of `millis`; type=count: student count query;
+    // type=composite: `parts` sleeps plus a count, fanned out and joined.
+    // Oversized parts or millis are refused with 422 before anything is queued.
+    @PostMapping
+    public ResponseEntity<TaskStatus> submit(@RequestParam String type,
+                                             @RequestParam(defaultValue = "100") long millis,
+                                             @RequestParam(defaultValue = "4") int parts) {
+        if (millis < 0 || parts < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "millis and parts must not be negative");
+        }
+        Callable<?> work = switch (type) {
+            case "sleep" -> sleep(millis);
+            case "count" -> studentStore::count;
+            case "composite" -> () -> {
+                List<Callable<Object>> subtasks = new ArrayList<>();
+                for (int i = 0; i < parts; i++) {
+                    subtasks.add(sleep(millis));
+                }
+                subtasks.add(studentStore::count);
+                return taskExecutionService.fanOut(subtasks);
+            };
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown task type: " + type);
+        };
+        // Checked once the type is known to be valid, so an unknown type is a 400 whatever its size
+        if (!type.equals("count")) {
+            // parts + 1 in long, so parts=Integer.MAX_VALUE cannot wrap around below the limit
+            taskExecutionService.checkLimits(type.equals("composite") ? parts + 1L : 1, Duration.ofMillis(millis));
+        }
+        return ResponseEntity.accepted().body(taskExecutionService.submit(type, work));
+    }
+
+    @GetMapping("{id}")
+    public ResponseEntity<TaskStatus> getStatus(@PathVariable String id) {
+        return ResponseEntity.of(taskExecutionService.status(id));
+    }
+
+    @DeleteMapping("{id}")
+    public ResponseEntity<TaskStatus> cancel(@PathVariable String id) {
+        return ResponseEntity.of(taskExecutionService.cancel(id));
+    }
+
+    @GetMapping("metrics")
+    public TaskMetrics getMetrics() {
+        return taskExecutionService.metrics();
+    }
+
+    private static Callable<Object> sleep(long millis) {
+        return () -> {
+            Thread.sleep(millis);
+            return millis;
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.controller;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.threads.PinningMonitor;
+import com.example.threads.PinningMonitor.PinningStats;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ThreadingController {
+
+    @Autowired
+    Environment environment;
+
+    @Autowired
+    ObjectProvider<PinningMonitor> pinningMonitor;
+
+    // pinning is null when running on platform threads
+    public record ThreadingInfo(String mode, String requestThread, boolean virtual, PinningStats pinning) {}
+
+    @GetMapping("threads")
+    public ThreadingInfo getThreading() {
+        Thread current = Thread.currentThread();
+        String mode = Threading.VIRTUAL.isActive(environment) ? "virtual" : "platform";
+        PinningMonitor monitor = pinningMonitor.getIfAvailable();
+        return new ThreadingInfo(mode, current.toString(), current.isVirtual(),
+                monitor == null ? null : monitor.stats());
+    }
+}
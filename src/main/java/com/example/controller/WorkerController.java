@@ -0,0 +1,102 @@
+package com.example.controller;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.service.WorkerPool;
+import com.example.service.WorkerPool.Job;
+import com.example.service.WorkerPool.WorkerMetrics;
+import com.example.service.WorkerPool.WorkerStatus;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("workers")
+public class WorkerController {
+
+    @Autowired
+    WorkerPool workerPool;
+
+    @Value("${app.workers.max-steps:1000}")
+    int maxSteps;
+
+    @Value("${app.workers.max-step-duration:10s}")
+    Duration maxStepDuration;
+
+    @Value("${app.workers.max-deadline:10m}")
+    Duration maxDeadline;
+
+    // `steps` sleeps of `millis` each with a checkpoint in between, appending progress to a scratch
+    // file that is deleted when the worker ends; deadlineMillis defaults to app.workers.default-deadline.
+    // All three are clamped to the configured maximums.
+    @PostMapping
+    public ResponseEntity<WorkerStatus> submit(@RequestParam(defaultValue = "10") int steps,
+                                               @RequestParam(defaultValue = "100") long millis,
+                                               @RequestParam(required = false) Long deadlineMillis) {
+        Duration deadline = deadlineMillis == null ? null
+                : Duration.ofMillis(Math.clamp(deadlineMillis, 1, maxDeadline.toMillis()));
+        Job<Integer> job = steps(Math.clamp(steps, 0, maxSteps), Math.clamp(millis, 0, maxStepDuration.toMillis()));
+        return ResponseEntity.accepted().body(workerPool.submit("steps", deadline, job));
+    }
+
+    @GetMapping("{id}")
+    public ResponseEntity<WorkerStatus> getStatus(@PathVariable String id) {
+        return ResponseEntity.of(workerPool.status(id));
+    }
+
+    @PostMapping("{id}/pause")
+    public ResponseEntity<WorkerStatus> pause(@PathVariable String id) {
+        return ResponseEntity.of(workerPool.pause(id));
+    }
+
+    @PostMapping("{id}/resume")
+    public ResponseEntity<WorkerStatus> resume(@PathVariable String id) {
+        return ResponseEntity.of(workerPool.resume(id));
+    }
+
+    @DeleteMapping("{id}")
+    public ResponseEntity<WorkerStatus> cancel(@PathVariable String id) {
+        return ResponseEntity.of(workerPool.cancel(id));
+    }
+
+    @GetMapping("metrics")
+    public WorkerMetrics getMetrics() {
+        return workerPool.metrics();
+    }
+
+    private static Job<Integer> steps(int steps, long millis) {
+        return context -> {
+            Path scratch = Files.createTempFile("worker-", ".log");
+            context.register(() -> {
+                try {
+                    Files.deleteIfExists(scratch);
+                } catch (IOException e) {
+                    log.warn("Could not delete {}", scratch, e);
+                }
+            });
+            for (int step = 0; step < steps; step++) {
+                context.checkpoint();
+                Thread.sleep(millis);
+                Files.writeString(scratch, "step " + step + "\n", StandardOpenOption.APPEND);
+            }
+            return steps;
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.datasource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+// Where the embedded H2 database keeps its data.
+// MEM keeps every row on the JVM heap and loses it on restart; FILE uses an MVStore file whose
+// page cache is bounded by cache-size, so the heap no longer grows with the table.
+@Component
+public class H2Storage {
+
+    public enum Mode { MEM, FILE }
+
+    static final String MEM_URL = "jdbc:h2:mem:testdb";
+
+    private final Mode mode;
+    private final Path path;
+    private final DataSize cacheSize;
+    private final Duration writeDelay;
+    private final Duration maxCompactTime;
+    private final int autoCompactFillRate;
+
+    public H2Storage(@Value("${app.h2.mode:mem}") Mode mode,
+                     @Value("${app.h2.file.path:./data/students}") Path path,
+                     @Value("${app.h2.file.cache-size:64MB}") DataSize cacheSize,
+                     @Value("${app.h2.file.write-delay:500ms}") Duration writeDelay,
+                     @Value("${app.h2.file.max-compact-time:2s}") Duration maxCompactTime,
+                     @Value("${app.h2.file.auto-compact-fill-rate:90}") int autoCompactFillRate) {
+        this.mode = mode;
+        this.path = path.toAbsolutePath().normalize();
+        this.cacheSize = cacheSize;
+        this.writeDelay = writeDelay;
+        this.maxCompactTime = maxCompactTime;
+        this.autoCompactFillRate = autoCompactFillRate;
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    // H2 appends .mv.db to the configured path
+    public Path databaseFile() {
+        return path.resolveSibling(path.getFileName() + ".mv.db");
+    }
+
+    // CACHE_SIZE is in KB; WRITE_DELAY bounds how long a commit may sit in memory before it is
+    // written; MAX_COMPACT_TIME is spent compacting the file on close, and AUTO_COMPACT_FILL_RATE
+    // is the fill rate below which chunks are rewritten in the background
+    public String url() {
+        if (mode == Mode.MEM) {
+            return MEM_URL;
+        }
+        return "jdbc:h2:file:" + path
+                + ";CACHE_SIZE=" + cacheSize.toKilobytes()
+                + ";WRITE_DELAY=" + writeDelay.toMillis()
+                + ";MAX_COMPACT_TIME=" + maxCompactTime.toMillis()
+                + ";AUTO_COMPACT_FILL_RATE=" + autoCompactFillRate;
+    }
+}
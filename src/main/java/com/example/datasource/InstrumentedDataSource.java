@@ -0,0 +1,75 @@
+package com.example.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.example.metrics.SqlMetrics;
+
+import lombok.extern.slf4j.Slf4j;
+import net.sf.log4jdbc.sql.jdbcapi.DataSourceSpy;
+
+// Front for the connection pool whose wrapping can be switched while the application runs.
+// The mode is read on every checkout, so a change applies to the next transaction.
+// The log4jdbc spy is only built the first time SPY is selected, keeping it off the startup path.
+@Slf4j
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    private volatile DataSourceSpy spy;
+    private final SqlMetrics sqlMetrics;
+    private volatile JdbcInstrumentation mode;
+
+    public InstrumentedDataSource(DataSource pool, SqlMetrics sqlMetrics, JdbcInstrumentation mode) {
+        super(pool);
+        this.sqlMetrics = sqlMetrics;
+        this.mode = mode;
+    }
+
+    public JdbcInstrumentation getMode() {
+        return mode;
+    }
+
+    public void setMode(JdbcInstrumentation mode) {
+        log.info("JDBC instrumentation switched from {} to {}", this.mode, mode);
+        this.mode = mode;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        JdbcInstrumentation current = mode;
+        if (current == JdbcInstrumentation.SPY) {
+            return spy().getConnection();
+        }
+        return wrap(obtainTargetDataSource().getConnection(), current);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        JdbcInstrumentation current = mode;
+        if (current == JdbcInstrumentation.SPY) {
+            return spy().getConnection(username, password);
+        }
+        return wrap(obtainTargetDataSource().getConnection(username, password), current);
+    }
+
+    private DataSourceSpy spy() {
+        DataSourceSpy current = spy;
+        if (current == null) {
+            synchronized (this) {
+                current = spy;
+                if (current == null) {
+                    current = new DataSourceSpy(obtainTargetDataSource());
+                    spy = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Connection wrap(Connection connection, JdbcInstrumentation current) {
+        return current == JdbcInstrumentation.TIMING ? TimingProxies.connection(connection, sqlMetrics) : connection;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.datasource;
+
+// How connections handed out by InstrumentedDataSource are wrapped
+public enum JdbcInstrumentation {
+    // Raw pooled connections, no per-call overhead
+    NONE,
+    // Per-statement latency histograms recorded into SqlMetrics
+    TIMING,
+    // log4jdbc DataSourceSpy with SQL text logging
+    SPY
+}
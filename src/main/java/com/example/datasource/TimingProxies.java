@@ -0,0 +1,156 @@
+package com.example.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import com.example.metrics.SqlMetrics;
+import com.example.metrics.SqlMetrics.StatementStats;
+
+// Thin JDK proxies that time statement execution and count rows.
+// Unlike log4jdbc they never render SQL or parameters into strings; the SQL text is
+// only used as the metrics key, exactly as the driver received it.
+final class TimingProxies {
+
+    private static final String BATCH = "<batch>";
+
+    private TimingProxies() {
+    }
+
+    static Connection connection(Connection target, SqlMetrics metrics) {
+        return proxy(Connection.class, new ConnectionHandler(target, metrics));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(TimingProxies.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    // equals/hashCode must refer to the proxy itself, not the wrapped object
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> null;
+        };
+    }
+
+    private static boolean isIdentityMethod(Method method) {
+        return method.getDeclaringClass() == Object.class && !method.getName().equals("toString");
+    }
+
+    private record ConnectionHandler(Connection target, SqlMetrics metrics) implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            Object result = TimingProxies.invoke(target, method, args);
+            String name = method.getName();
+            if (result instanceof CallableStatement statement && name.equals("prepareCall")) {
+                return proxy(CallableStatement.class,
+                        new StatementHandler(statement, (Connection) proxy, metrics, (String) args[0]));
+            }
+            if (result instanceof PreparedStatement statement && name.equals("prepareStatement")) {
+                return proxy(PreparedStatement.class,
+                        new StatementHandler(statement, (Connection) proxy, metrics, (String) args[0]));
+            }
+            if (result instanceof Statement statement && name.equals("createStatement")) {
+                return proxy(Statement.class, new StatementHandler(statement, (Connection) proxy, metrics, null));
+            }
+            return result;
+        }
+    }
+
+    private record StatementHandler(Statement target, Connection connection, SqlMetrics metrics,
+                                    String preparedSql) implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            String name = method.getName();
+            if (name.equals("getConnection")) {
+                return connection;
+            }
+            if (!name.startsWith("execute")) {
+                Object result = TimingProxies.invoke(target, method, args);
+                if (result instanceof ResultSet rs && preparedSql != null && name.equals("getResultSet")) {
+                    return resultSet(rs, proxy, metrics.statement(preparedSql));
+                }
+                return result;
+            }
+
+            StatementStats stats = stats(args);
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = TimingProxies.invoke(target, method, args);
+                failed = false;
+                return switch (result) {
+                    case ResultSet rs -> resultSet(rs, proxy, stats);
+                    case Integer updated -> {
+                        stats.addRows(Math.max(updated, 0));
+                        yield updated;
+                    }
+                    case Long updated -> {
+                        stats.addRows(Math.max(updated, 0));
+                        yield updated;
+                    }
+                    case int[] batch -> {
+                        for (int updated : batch) {
+                            stats.addRows(Math.max(updated, 0));
+                        }
+                        yield batch;
+                    }
+                    case null, default -> result;
+                };
+            } finally {
+                stats.record(System.nanoTime() - start, failed);
+            }
+        }
+
+        private StatementStats stats(Object[] args) {
+            if (preparedSql != null) {
+                return metrics.statement(preparedSql);
+            }
+            return metrics.statement(args != null && args.length > 0 && args[0] instanceof String sql ? sql : BATCH);
+        }
+
+        private static ResultSet resultSet(ResultSet target, Object statement, StatementStats stats) {
+            return proxy(ResultSet.class, new ResultSetHandler(target, statement, stats));
+        }
+    }
+
+    private record ResultSetHandler(ResultSet target, Object statement, StatementStats stats)
+            implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            if (method.getName().equals("getStatement")) {
+                return statement;
+            }
+            Object result = TimingProxies.invoke(target, method, args);
+            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                stats.addRows(1);
+            }
+            return result;
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package com.example.entities;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@Table(indexes = @Index(name = "idx_student_name", columnList = "name"))
+@EntityListeners(StudentEntityListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,8 @@
+package com.example.entities;
+
+// Published by StudentEntityListener for every JPA write; consumers that only care about
+// committed data listen with @TransactionalEventListener.
+public record StudentChangedEvent(ChangeType type, long id, String name) {
+
+    public enum ChangeType { CREATED, UPDATED, DELETED }
+}
@@ -0,0 +1,39 @@
+package com.example.entities;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.example.entities.StudentChangedEvent.ChangeType;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+// Instantiated by Hibernate through Spring's bean container, so the publisher is injected.
+// Writes made with plain JDBC (StudentImportService) bypass this listener.
+public class StudentEntityListener {
+
+    @Autowired
+    ApplicationEventPublisher publisher;
+
+    @PostPersist
+    void created(Student student) {
+        publish(ChangeType.CREATED, student);
+    }
+
+    @PostUpdate
+    void updated(Student student) {
+        publish(ChangeType.UPDATED, student);
+    }
+
+    @PostRemove
+    void deleted(Student student) {
+        publish(ChangeType.DELETED, student);
+    }
+
+    private void publish(ChangeType type, Student student) {
+        if (publisher != null) {
+            publisher.publishEvent(new StudentChangedEvent(type, student.getId(), student.getName()));
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.limits;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import com.example.limits.AdmissionProperties.Policy;
+
+// Decides per request whether an expensive endpoint may run now. A request has to pass its
+// client's token bucket, then the endpoint-wide bucket, then the adaptive concurrency limit;
+// permits taken by an earlier stage are handed back when a later one turns the request away.
+@Component
+public class AdmissionControl {
+
+    private static final Admitted UNLIMITED = new Admitted(null, 0);
+
+    private final boolean enabled;
+    private final List<EndpointLimiter> limiters = new ArrayList<>();
+
+    public AdmissionControl(AdmissionProperties properties) {
+        this.enabled = properties.enabled();
+        for (Policy policy : properties.policies()) {
+            limiters.add(new EndpointLimiter(policy, properties));
+        }
+    }
+
+    public enum Reason { CLIENT_RATE, ENDPOINT_RATE, CONCURRENCY }
+
+    public sealed interface Admission permits Admitted, Rejected {}
+
+    public record Rejected(String policy, Reason reason, long retryAfterNanos) implements Admission {}
+
+    public static final class Admitted implements Admission {
+        private final EndpointLimiter limiter;
+        private final long start;
+
+        private Admitted(EndpointLimiter limiter, long start) {
+            this.limiter = limiter;
+            this.start = start;
+        }
+
+        // failed: the request ended in an exception or a 5xx, which counts against the limit
+        public void release(boolean failed) {
+            if (limiter != null && limiter.concurrency != null) {
+                limiter.concurrency.release(System.nanoTime() - start, failed);
+            }
+        }
+    }
+
+    public record PolicyStats(String path, double rate, double clientRate, long clients, int concurrencyLimit,
+                              int inFlight, long admitted, long rejectedClientRate, long rejectedEndpointRate,
+                              long rejectedConcurrency) {}
+
+    public Admission admit(String path, String client) {
+        if (!enabled) {
+            return UNLIMITED;
+        }
+        PathContainer container = PathContainer.parsePath(path);
+        for (EndpointLimiter limiter : limiters) {
+            if (limiter.pattern.matches(container)) {
+                return limiter.admit(client);
+            }
+        }
+        return UNLIMITED;
+    }
+
+    public List<PolicyStats> stats() {
+        return limiters.stream().map(EndpointLimiter::stats).toList();
+    }
+
+    private static final class EndpointLimiter {
+        private final Policy policy;
+        private final PathPattern pattern;
+        private final TokenBucket endpoint;
+        private final Cache<String, TokenBucket> clients;
+        private final ConcurrencyLimiter concurrency;
+        private final LongAdder admitted = new LongAdder();
+        private final LongAdder rejectedClientRate = new LongAdder();
+        private final LongAdder rejectedEndpointRate = new LongAdder();
+        private final LongAdder rejectedConcurrency = new LongAdder();
+
+        EndpointLimiter(Policy policy, AdmissionProperties properties) {
+            this.policy = policy;
+            this.pattern = PathPatternParser.defaultInstance.parse(policy.path());
+            this.endpoint = policy.rate() > 0 ? new TokenBucket(policy.rate(), policy.burst()) : null;
+            this.clients = policy.clientRate() > 0
+                    ? Caffeine.newBuilder()
+                            .maximumSize(properties.maxClients())
+                            .expireAfterAccess(properties.clientIdleTimeout())
+                            .build()
+                    : null;
+            this.concurrency = policy.maxConcurrency() > 0
+                    ? new ConcurrencyLimiter(policy.minConcurrency(), policy.maxConcurrency(),
+                            policy.latencyThreshold().toNanos(), policy.backoff())
+                    : null;
+        }
+
+        Admission admit(String client) {
+            TokenBucket clientBucket = null;
+            if (clients != null) {
+                clientBucket = clients.get(client, key -> new TokenBucket(policy.clientRate(), policy.clientBurst()));
+                long wait = clientBucket.tryAcquire();
+                if (wait > 0) {
+                    rejectedClientRate.increment();
+                    return new Rejected(policy.path(), Reason.CLIENT_RATE, wait);
+                }
+            }
+            if (endpoint != null) {
+                long wait = endpoint.tryAcquire();
+                if (wait > 0) {
+                    if (clientBucket != null) {
+                        clientBucket.refund();
+                    }
+                    rejectedEndpointRate.increment();
+                    return new Rejected(policy.path(), Reason.ENDPOINT_RATE, wait);
+                }
+            }
+            if (concurrency != null && !concurrency.tryAcquire()) {
+                if (clientBucket != null) {
+                    clientBucket.refund();
+                }
+                if (endpoint != null) {
+                    endpoint.refund();
+                }
+                rejectedConcurrency.increment();
+                // No way to know when a slot frees up; the latency threshold is the best hint
+                return new Rejected(policy.path(), Reason.CONCURRENCY, policy.latencyThreshold().toNanos());
+            }
+            admitted.increment();
+            return new Admitted(this, System.nanoTime());
+        }
+
+        PolicyStats stats() {
+            return new PolicyStats(policy.path(), policy.rate(), policy.clientRate(),
+                    clients == null ? 0 : clients.estimatedSize(),
+                    concurrency == null ? 0 : concurrency.limit(),
+                    concurrency == null ? 0 : concurrency.inFlight(),
+                    admitted.sum(), rejectedClientRate.sum(), rejectedEndpointRate.sum(), rejectedConcurrency.sum());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.limits;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import com.example.limits.AdmissionControl.Admission;
+import com.example.limits.AdmissionControl.Admitted;
+import com.example.limits.AdmissionControl.Rejected;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Turns requests away with 429 and a Retry-After header before they reach a handler. Clients are
+// told apart by remote address; behind a proxy set server.forward-headers-strategy so that is the
+// real client. Async requests hold their concurrency slot until the async cycle completes.
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdmissionControl admissionControl;
+
+    public AdmissionControlFilter(AdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        Admission admission = admissionControl.admit(path, request.getRemoteAddr());
+        if (admission instanceof Rejected rejected) {
+            long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(rejected.retryAfterNanos() + 999_999_999L));
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(),
+                    "Too many requests for " + rejected.policy() + " (" + rejected.reason() + ")");
+            return;
+        }
+        Admitted admitted = (Admitted) admission;
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new Release(admitted, response));
+            } else {
+                admitted.release(failed || response.getStatus() >= 500);
+            }
+        }
+    }
+
+    private static final class Release implements AsyncListener {
+        private final Admitted admitted;
+        private final HttpServletResponse response;
+        private volatile boolean failed;
+
+        Release(Admitted admitted, HttpServletResponse response) {
+            this.admitted = admitted;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            admitted.release(failed || response.getStatus() >= 500);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
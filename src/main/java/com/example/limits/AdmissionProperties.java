@@ -0,0 +1,26 @@
+package com.example.limits;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// app.admission.*: one policy per path pattern, first match wins. A zero rate, client rate or
+// max concurrency switches that part of the policy off.
+@ConfigurationProperties("app.admission")
+public record AdmissionProperties(@DefaultValue("true") boolean enabled,
+                                  @DefaultValue("100000") int maxClients,
+                                  @DefaultValue("10m") Duration clientIdleTimeout,
+                                  @DefaultValue List<Policy> policies) {
+
+    public record Policy(String path,
+                         @DefaultValue("0") double rate,
+                         @DefaultValue("1") int burst,
+                         @DefaultValue("0") double clientRate,
+                         @DefaultValue("1") int clientBurst,
+                         @DefaultValue("1") int minConcurrency,
+                         @DefaultValue("0") int maxConcurrency,
+                         @DefaultValue("1s") Duration latencyThreshold,
+                         @DefaultValue("0.9") double backoff) {}
+}
@@ -0,0 +1,66 @@
+package com.example.limits;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Adaptive cap on requests in flight (AIMD): every request that finishes within the latency
+// threshold while the limit is at least half used raises the limit by one, and every slow or
+// failed request cuts it by the backoff ratio. A slowing dependency (DB pool, a sleeping handler)
+// therefore sheds load within a few requests instead of queueing until Tomcat runs out of threads.
+public class ConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long thresholdNanos;
+    private final double backoff;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public ConcurrencyLimiter(int minLimit, int maxLimit, long thresholdNanos, double backoff) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("limits must satisfy 1 <= min <= max");
+        }
+        if (backoff <= 0 || backoff >= 1) {
+            throw new IllegalArgumentException("backoff must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.thresholdNanos = thresholdNanos;
+        this.backoff = backoff;
+        this.limit = new AtomicInteger(maxLimit);
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos, boolean failed) {
+        int active = inFlight.getAndDecrement();
+        int current = limit.get();
+        int next;
+        if (failed || latencyNanos > thresholdNanos) {
+            next = Math.max(minLimit, (int) (current * backoff));
+        } else if (active * 2 >= current) {
+            next = Math.min(maxLimit, current + 1);
+        } else {
+            return;
+        }
+        // A lost race means another release already moved the limit from this sample
+        limit.compareAndSet(current, next);
+    }
+
+    public int limit() {
+        return limit.get();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.limits;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket kept as a single "theoretical arrival time" (GCRA), so taking a permit is one CAS
+// and an idle bucket needs no refill bookkeeping. A bucket refills at `rate` permits per second
+// and holds at most `burst` of them.
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong arrival;
+
+    public TokenBucket(double rate, int burst) {
+        if (rate <= 0 || burst < 1) {
+            throw new IllegalArgumentException("rate and burst must be positive");
+        }
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000L / rate));
+        this.toleranceNanos = intervalNanos * burst;
+        this.arrival = new AtomicLong(System.nanoTime());
+    }
+
+    // 0 when a permit was taken, otherwise how long until the next one is available
+    public long tryAcquire() {
+        long now = System.nanoTime();
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - now - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Gives back a permit that was taken for a request another limiter then turned away
+    public void refund() {
+        arrival.addAndGet(-intervalNanos);
+    }
+}
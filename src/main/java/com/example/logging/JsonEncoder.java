@@ -0,0 +1,111 @@
+package com.example.logging;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.event.KeyValuePair;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+
+// One JSON object per line: timestamp, level, thread, logger, message, then MDC entries in an "mdc"
+// object, key-value pairs from the fluent API (log.atInfo().addKeyValue(...)) in a "kv" object, and
+// the stack trace. Nesting them means no key can shadow or duplicate one of the fixed fields.
+// Written straight into a reused per-thread buffer instead of through an object mapper.
+public class JsonEncoder extends EncoderBase<ILoggingEvent> {
+
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(512));
+
+    @Override
+    public byte[] headerBytes() {
+        return null;
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        StringBuilder json = buffers.get();
+        json.setLength(0);
+        json.append("{\"timestamp\":\"");
+        DateTimeFormatter.ISO_INSTANT.formatTo(event.getInstant(), json);
+        json.append('"');
+        field(json, "level", event.getLevel().toString());
+        field(json, "thread", event.getThreadName());
+        field(json, "logger", event.getLoggerName());
+        field(json, "message", event.getFormattedMessage());
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        if (mdc != null && !mdc.isEmpty()) {
+            json.append(",\"mdc\":{");
+            int start = json.length();
+            mdc.forEach((key, value) -> field(json, key, value));
+            // The first field's separator
+            json.deleteCharAt(start);
+            json.append('}');
+        }
+        List<KeyValuePair> pairs = event.getKeyValuePairs();
+        if (pairs != null && !pairs.isEmpty()) {
+            json.append(",\"kv\":{");
+            int start = json.length();
+            for (KeyValuePair pair : pairs) {
+                field(json, pair.key, String.valueOf(pair.value));
+            }
+            json.deleteCharAt(start);
+            json.append('}');
+        }
+        IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null) {
+            field(json, "exception", ThrowableProxyUtil.asString(throwable));
+        }
+        json.append("}\n");
+        byte[] bytes = json.toString().getBytes(UTF_8);
+        if (json.capacity() > MAX_RETAINED_CAPACITY) {
+            buffers.remove();
+        }
+        return bytes;
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return null;
+    }
+
+    private static void field(StringBuilder json, String name, String value) {
+        json.append(",\"");
+        escape(json, name);
+        json.append("\":");
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        escape(json, value);
+        json.append('"');
+    }
+
+    static void escape(StringBuilder json, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append("\\u00").append(Character.forDigit(c >> 4, 16))
+                                .append(Character.forDigit(c & 0xf, 16));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.logging;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+// Keeps about one in N events of the loggers under a prefix, for hot paths such as jdbc.sqltiming
+// where every statement would otherwise be logged. WARN and ERROR always pass.
+// Rules are "prefix=N" pairs separated by commas; the longest matching prefix wins.
+// Turbo filters also answer isDebugEnabled() and friends (with a null format), so guarded callers
+// such as log4jdbc skip building the message of a dropped event. The guard's decision is remembered
+// per thread for the log call that follows, so guarded call sites are not sampled twice. It only
+// lasts until the thread's next decision, whatever that is for, so a guard whose log call never
+// comes cannot let a later event through unsampled.
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final Map<String, Integer> rules = new LinkedHashMap<>();
+    private final Map<String, Integer> rateByLogger = new ConcurrentHashMap<>();
+    private final ThreadLocal<Logger> admitted = new ThreadLocal<>();
+
+    public void setRules(String rules) {
+        this.rules.clear();
+        rateByLogger.clear();
+        for (String rule : rules.split(",")) {
+            if (rule.isBlank()) {
+                continue;
+            }
+            int separator = rule.indexOf('=');
+            if (separator < 1) {
+                addError("Sampling rule '" + rule.strip() + "' is not prefix=N");
+                continue;
+            }
+            try {
+                this.rules.put(rule.substring(0, separator).strip(),
+                        Integer.parseInt(rule.substring(separator + 1).strip()));
+            } catch (NumberFormatException e) {
+                addError("Sampling rule '" + rule.strip() + "' has no numeric rate", e);
+            }
+        }
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (!isStarted() || level == null) {
+            return FilterReply.NEUTRAL;
+        }
+        Logger guarded = admitted.get();
+        if (guarded != null) {
+            admitted.remove();
+        }
+        if (level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        int every = rateByLogger.computeIfAbsent(logger.getName(), this::rateFor);
+        if (every <= 1) {
+            return FilterReply.NEUTRAL;
+        }
+        if (format != null && guarded == logger) {
+            return FilterReply.NEUTRAL;
+        }
+        if (ThreadLocalRandom.current().nextInt(every) != 0) {
+            return FilterReply.DENY;
+        }
+        if (format == null) {
+            admitted.set(logger);
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    private int rateFor(String loggerName) {
+        String match = null;
+        for (String prefix : rules.keySet()) {
+            boolean matches = loggerName.equals(prefix) || loggerName.startsWith(prefix + ".");
+            if (matches && (match == null || prefix.length() > match.length())) {
+                match = prefix;
+            }
+        }
+        return match == null ? 1 : rules.get(match);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.metrics;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+// Per-endpoint request timings fed by RequestMetricsFilter.
+// Endpoints are keyed by method and mapping pattern (GET /students/{id}), never by the raw URI,
+// so the map stays as small as the set of controller mappings.
+@Component
+public class EndpointMetrics {
+
+    static final String UNMATCHED = "<unmatched>";
+
+    private final ConcurrentMap<Endpoint, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final LongAdder inFlight = new LongAdder();
+
+    public record Endpoint(String method, String pattern) {}
+
+    public static final class EndpointStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+
+        void record(long nanos, int status) {
+            latency.record(nanos);
+            if (status >= 500) {
+                serverErrors.increment();
+            } else if (status >= 400) {
+                clientErrors.increment();
+            }
+        }
+    }
+
+    public record EndpointSnapshot(String method, String pattern, long clientErrors, long serverErrors,
+                                   LatencyHistogram.Snapshot latency) {}
+
+    public void requestStarted() {
+        inFlight.increment();
+    }
+
+    // pattern is null when no handler matched (404s, static resources)
+    public void requestFinished(String method, String pattern, int status, long nanos) {
+        inFlight.decrement();
+        Endpoint endpoint = new Endpoint(method, pattern == null ? UNMATCHED : pattern);
+        EndpointStats stats = endpoints.get(endpoint);
+        if (stats == null) {
+            stats = endpoints.computeIfAbsent(endpoint, e -> new EndpointStats());
+        }
+        stats.record(nanos, status);
+    }
+
+    public long inFlight() {
+        return inFlight.sum();
+    }
+
+    public List<EndpointSnapshot> snapshot() {
+        return endpoints.entrySet().stream()
+                .map(e -> new EndpointSnapshot(e.getKey().method(), e.getKey().pattern(),
+                        e.getValue().clientErrors.sum(), e.getValue().serverErrors.sum(),
+                        e.getValue().latency.snapshot()))
+                .sorted(Comparator.comparing(EndpointSnapshot::pattern).thenComparing(EndpointSnapshot::method))
+                .toList();
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+}
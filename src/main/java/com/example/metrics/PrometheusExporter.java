@@ -0,0 +1,147 @@
+package com.example.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+// Renders endpoint, SQL and JVM metrics in the Prometheus text exposition format (version 0.0.4).
+// Latency histograms are exported as summaries with precomputed quantiles; the raw buckets stay
+// in-process.
+@Component
+public class PrometheusExporter {
+
+    public static final String CONTENT_TYPE = "text/plain;version=0.0.4;charset=utf-8";
+
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    private final EndpointMetrics endpointMetrics;
+    private final SqlMetrics sqlMetrics;
+
+    public PrometheusExporter(EndpointMetrics endpointMetrics, SqlMetrics sqlMetrics) {
+        this.endpointMetrics = endpointMetrics;
+        this.sqlMetrics = sqlMetrics;
+    }
+
+    public String scrape() {
+        StringBuilder out = new StringBuilder(8192);
+        writeEndpoints(out);
+        writeStatements(out);
+        writeJvm(out);
+        return out.toString();
+    }
+
+    private void writeEndpoints(StringBuilder out) {
+        List<EndpointMetrics.EndpointSnapshot> endpoints = endpointMetrics.snapshot();
+        header(out, "http_server_requests_seconds", "summary", "Request latency per endpoint");
+        for (EndpointMetrics.EndpointSnapshot e : endpoints) {
+            summary(out, "http_server_requests_seconds", endpointLabels(e), e.latency());
+        }
+        header(out, "http_server_requests_max_seconds", "gauge", "Slowest request per endpoint since the last reset");
+        for (EndpointMetrics.EndpointSnapshot e : endpoints) {
+            sample(out, "http_server_requests_max_seconds", endpointLabels(e), e.latency().maxMillis() / 1000);
+        }
+        header(out, "http_server_requests_errors_total", "counter", "Requests answered with a 4xx or 5xx status");
+        for (EndpointMetrics.EndpointSnapshot e : endpoints) {
+            sample(out, "http_server_requests_errors_total", endpointLabels(e) + ",status=\"4xx\"", e.clientErrors());
+            sample(out, "http_server_requests_errors_total", endpointLabels(e) + ",status=\"5xx\"", e.serverErrors());
+        }
+        header(out, "http_server_requests_in_flight", "gauge", "Requests currently being handled");
+        sample(out, "http_server_requests_in_flight", null, endpointMetrics.inFlight());
+    }
+
+    private void writeStatements(StringBuilder out) {
+        List<SqlMetrics.StatementSnapshot> statements = sqlMetrics.snapshot();
+        header(out, "jdbc_statement_seconds", "summary", "JDBC statement latency (TIMING instrumentation only)");
+        for (SqlMetrics.StatementSnapshot s : statements) {
+            summary(out, "jdbc_statement_seconds", label("sql", s.sql()), s.latency());
+        }
+        header(out, "jdbc_statement_rows_total", "counter", "Rows read or updated per statement");
+        for (SqlMetrics.StatementSnapshot s : statements) {
+            sample(out, "jdbc_statement_rows_total", label("sql", s.sql()), s.rows());
+        }
+        header(out, "jdbc_statement_errors_total", "counter", "Failed executions per statement");
+        for (SqlMetrics.StatementSnapshot s : statements) {
+            sample(out, "jdbc_statement_errors_total", label("sql", s.sql()), s.errors());
+        }
+    }
+
+    private void writeJvm(StringBuilder out) {
+        header(out, "jvm_gc_collections_total", "counter", "Garbage collections per collector");
+        List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        for (GarbageCollectorMXBean gc : collectors) {
+            sample(out, "jvm_gc_collections_total", label("gc", gc.getName()), gc.getCollectionCount());
+        }
+        header(out, "jvm_gc_collection_seconds_total", "counter", "Time spent in garbage collection per collector");
+        for (GarbageCollectorMXBean gc : collectors) {
+            sample(out, "jvm_gc_collection_seconds_total", label("gc", gc.getName()), gc.getCollectionTime() / 1000.0);
+        }
+
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        header(out, "jvm_memory_heap_bytes", "gauge", "Heap usage");
+        sample(out, "jvm_memory_heap_bytes", "area=\"used\"", heap.getUsed());
+        sample(out, "jvm_memory_heap_bytes", "area=\"committed\"", heap.getCommitted());
+        sample(out, "jvm_memory_heap_bytes", "area=\"max\"", heap.getMax());
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        // Covers platform threads only; allocations made on virtual threads are not attributed
+        if (threads instanceof com.sun.management.ThreadMXBean hotspot && hotspot.isThreadAllocatedMemoryEnabled()) {
+            header(out, "jvm_allocated_bytes_total", "counter", "Bytes allocated by platform threads since start");
+            sample(out, "jvm_allocated_bytes_total", null, hotspot.getTotalThreadAllocatedBytes());
+        }
+        header(out, "jvm_threads", "gauge", "Live platform threads");
+        sample(out, "jvm_threads", "state=\"live\"", threads.getThreadCount());
+        sample(out, "jvm_threads", "state=\"daemon\"", threads.getDaemonThreadCount());
+    }
+
+    private static void summary(StringBuilder out, String name, String labels, LatencyHistogram.Snapshot latency) {
+        double[] values = {latency.p50Millis(), latency.p95Millis(), latency.p99Millis()};
+        for (int i = 0; i < QUANTILES.length; i++) {
+            sample(out, name, labels + ",quantile=\"" + QUANTILES[i] + "\"", values[i] / 1000);
+        }
+        sample(out, name + "_sum", labels, latency.meanMillis() * latency.count() / 1000);
+        sample(out, name + "_count", labels, latency.count());
+    }
+
+    private static String endpointLabels(EndpointMetrics.EndpointSnapshot e) {
+        return label("method", e.method()) + "," + label("uri", e.pattern());
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (labels != null) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, long value) {
+        out.append(name);
+        if (labels != null) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    static String label(String name, String value) {
+        StringBuilder label = new StringBuilder(name.length() + value.length() + 3).append(name).append("=\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> label.append("\\\\");
+                case '"' -> label.append("\\\"");
+                case '\n' -> label.append("\\n");
+                default -> label.append(c);
+            }
+        }
+        return label.append('"').toString();
+    }
+}
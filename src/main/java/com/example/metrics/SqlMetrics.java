@@ -0,0 +1,65 @@
+package com.example.metrics;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Per-statement JDBC timings fed by the timing proxies in com.example.datasource.
+@Component
+public class SqlMetrics {
+
+    static final String OTHER_STATEMENTS = "<other>";
+
+    private final ConcurrentMap<String, StatementStats> statements = new ConcurrentHashMap<>();
+    private final int maxStatements;
+
+    public SqlMetrics(@Value("${app.datasource.metrics.max-statements:500}") int maxStatements) {
+        this.maxStatements = maxStatements;
+    }
+
+    public static final class StatementStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        public void record(long nanos, boolean failed) {
+            latency.record(nanos);
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        public void addRows(long count) {
+            rows.add(count);
+        }
+    }
+
+    public record StatementSnapshot(String sql, long rows, long errors, LatencyHistogram.Snapshot latency) {}
+
+    // Statements built by string concatenation would otherwise grow the map without bound
+    public StatementStats statement(String sql) {
+        StatementStats stats = statements.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+        String key = statements.size() < maxStatements ? sql : OTHER_STATEMENTS;
+        return statements.computeIfAbsent(key, k -> new StatementStats());
+    }
+
+    public List<StatementSnapshot> snapshot() {
+        return statements.entrySet().stream()
+                .map(e -> new StatementSnapshot(e.getKey(), e.getValue().rows.sum(), e.getValue().errors.sum(),
+                        e.getValue().latency.snapshot()))
+                .sorted(Comparator.comparingLong((StatementSnapshot s) -> s.latency().count()).reversed())
+                .toList();
+    }
+
+    public void reset() {
+        statements.clear();
+    }
+}
@@ -1,9 +1,91 @@
 package com.example.repositories;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 import com.example.entities.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
+
+    String CACHE_BY_ID = "students";
+    String CACHE_BY_NAME = "studentsByName";
+
+    // Not cached here: lookups are cached on StudentStore, whichever store holds the students
+    List<Student> findByName(String name);
+
+    // New rows only invalidate their own name; an update may be a rename, so the
+    // condition is checked before the call while a new entity still has no id
+    @Override
+    @Caching(
+            put = @CachePut(cacheNames = CACHE_BY_ID, key = "#result.id"),
+            evict = {
+                    @CacheEvict(cacheNames = CACHE_BY_NAME, key = "#p0.name"),
+                    @CacheEvict(cacheNames = CACHE_BY_NAME, allEntries = true, beforeInvocation = true,
+                            condition = "#p0.id != null")
+            })
+    <S extends Student> S save(S entity);
+
+    // No cache annotations: StudentCacheEvictor evicts the saved ids and names from the
+    // committed entity events instead of clearing both caches per batch
+    @Override
+    <S extends Student> List<S> saveAll(Iterable<S> entities);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(CACHE_BY_ID),
+            @CacheEvict(cacheNames = CACHE_BY_NAME, allEntries = true)
+    })
+    void deleteById(Long id);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CACHE_BY_ID, key = "#p0.id"),
+            @CacheEvict(cacheNames = CACHE_BY_NAME, key = "#p0.name")
+    })
+    void delete(Student entity);
+
+    // Bulk deletes run a single JPQL/SQL delete: no entity is loaded, so neither the annotations
+    // above nor StudentEntityListener see which rows went, and both caches are cleared instead
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CACHE_BY_ID, allEntries = true),
+            @CacheEvict(cacheNames = CACHE_BY_NAME, allEntries = true)
+    })
+    void deleteAllInBatch();
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CACHE_BY_ID, allEntries = true),
+            @CacheEvict(cacheNames = CACHE_BY_NAME, allEntries = true)
+    })
+    void deleteAllInBatch(Iterable<Student> entities);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CACHE_BY_ID, allEntries = true),
+            @CacheEvict(cacheNames = CACHE_BY_NAME, allEntries = true)
+    })
+    void deleteAllByIdInBatch(Iterable<Long> ids);
+
+    // Keyset (seek) page: callers pass the last id they saw, so no OFFSET scan is needed
+    List<Student> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Cursor over the whole table; must be consumed inside a read-only transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select s from Student s order by s.id")
+    Stream<Student> streamAllOrderedById();
 }
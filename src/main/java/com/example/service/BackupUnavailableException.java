@@ -0,0 +1,12 @@
+package com.example.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class BackupUnavailableException extends RuntimeException {
+
+    public BackupUnavailableException(String message) {
+        super(message);
+    }
+}
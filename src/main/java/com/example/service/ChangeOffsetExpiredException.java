@@ -0,0 +1,13 @@
+package com.example.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// The consumer has to re-read the table and resume from the log's current end
+@ResponseStatus(HttpStatus.GONE)
+public class ChangeOffsetExpiredException extends RuntimeException {
+
+    public ChangeOffsetExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidRepeatCountException extends RuntimeException {
+
+    public InvalidRepeatCountException(String message) {
+        super(message);
+    }
+}
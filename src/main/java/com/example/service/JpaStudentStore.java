@@ -0,0 +1,122 @@
+package com.example.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.entities.Student;
+import com.example.repositories.StudentRepository;
+
+import jakarta.persistence.EntityManager;
+
+// Students in the application database. Single rows go through the repository, so its cache
+// annotations and the JPA entity listener see them; batches and scans use plain JDBC, which skips
+// both, so a batch announces the rows it inserted, with their generated ids, once it has committed.
+// The student table comes from Hibernate's schema export, so the EntityManagerFactory has to
+// be up before the first batch even when JPA bootstraps lazily (faststart profile).
+@Service
+@DependsOn("entityManagerFactory")
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class JpaStudentStore implements StudentStore {
+
+    static final String INSERT_SQL = "INSERT INTO student (name) VALUES (?)";
+    static final String PAGE_SQL = "SELECT id, name FROM student WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final RowMapper<Student> STUDENT = (rs, rowNum) -> new Student(rs.getLong(1), rs.getString(2));
+
+    private final StudentRepository studentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public JpaStudentStore(StudentRepository studentRepository, JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager, EntityManager entityManager,
+                           ApplicationEventPublisher eventPublisher) {
+        this.studentRepository = studentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public Optional<Student> findById(long id) {
+        return studentRepository.findById(id);
+    }
+
+    @Override
+    public List<Student> findByName(String name) {
+        return studentRepository.findByName(name);
+    }
+
+    @Override
+    public List<Student> findAfter(long afterId, int limit) {
+        return jdbcTemplate.query(PAGE_SQL, STUDENT, afterId, limit);
+    }
+
+    // Entities are detached as soon as they are handed on, so the persistence context stays empty
+    // and memory use stays flat however many rows are read
+    @Override
+    public Stream<Student> streamAll() {
+        return studentRepository.streamAllOrderedById().peek(entityManager::detach);
+    }
+
+    @Override
+    public Student save(String name) {
+        return studentRepository.save(new Student(null, name));
+    }
+
+    @Override
+    public List<Student> saveAll(List<String> names) {
+        if (names.isEmpty()) {
+            return List.of();
+        }
+        List<Student> students = transactionTemplate.execute(status -> insert(names));
+        eventPublisher.publishEvent(new StudentsImportedEvent(students));
+        return students;
+    }
+
+    private List<Student> insert(List<String> names) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setString(1, names.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return names.size();
+                    }
+                }, keys);
+        List<Map<String, Object>> ids = keys.getKeyList();
+        List<Student> students = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            students.add(new Student(((Number) ids.get(i).values().iterator().next()).longValue(), names.get(i)));
+        }
+        return students;
+    }
+
+    @Override
+    public long count() {
+        return studentRepository.count();
+    }
+}
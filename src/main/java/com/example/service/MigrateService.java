@@ -1,24 +1,62 @@
 package com.example.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+
+import com.example.service.WorkerPool.ResourceStats;
+import com.example.service.WorkerPool.WorkerStatus;
+
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Service
 public class MigrateService {
 
+    private static final int REPEAT_CHUNK_BYTES = 8192;
+    // Below this size a batch is cheaper to evaluate on the calling thread than to fork
+    private static final int PARALLEL_BATCH_THRESHOLD = 16_384;
+    // Largest char[] most JVMs will allocate; /repeat builds its whole result in one
+    static final long MAX_REPEAT_CHARS_LIMIT = Integer.MAX_VALUE - 8;
+
+    private final TaskExecutionService taskExecutionService;
+    private final RegexSplitter regexSplitter;
+    private final WorkerPool workerPool;
+    private final long maxRepeatChars;
+    private final long maxRepeatStreamBytes;
+
+    public MigrateService(TaskExecutionService taskExecutionService, RegexSplitter regexSplitter, WorkerPool workerPool,
+                          @Value("${app.repeat.max-chars:1048576}") long maxRepeatChars,
+                          @Value("${app.repeat.max-stream-bytes:268435456}") long maxRepeatStreamBytes) {
+        if (maxRepeatChars < 0 || maxRepeatChars > MAX_REPEAT_CHARS_LIMIT) {
+            throw new IllegalArgumentException("app.repeat.max-chars must be between 0 and "
+                    + MAX_REPEAT_CHARS_LIMIT + ": " + maxRepeatChars);
+        }
+        this.taskExecutionService = taskExecutionService;
+        this.regexSplitter = regexSplitter;
+        this.workerPool = workerPool;
+        this.maxRepeatChars = maxRepeatChars;
+        this.maxRepeatStreamBytes = maxRepeatStreamBytes;
+    }
+
     // Virtual Threads (JEP 444)
     // Deprecation Notice: Scheduled for removal in Java 25
+    // Runs on the shared virtual-thread executor and waits for the task's result
     public String runVirtualThreadTask() {
-        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
-            executor.submit(() -> log.info("Running in virtual thread"));
-        }
-
-        return "Running in virtual thread";
+        return taskExecutionService.run("virtualThread", () -> {
+            log.info("Running in virtual thread");
+            return "Running in virtual thread";
+        });
     }
 
     // Sequenced Collections (JEP 431)
@@ -33,9 +71,9 @@ public class MigrateService {
 
         // Java 21 methods: getFirst(), getLast(), reversed()
         String first = list.getFirst();
-        log.info("First element: " + first);
+        log.info("First element: {}", first);
         String last = list.getLast();
-        log.info("Last element: " + last);
+        log.info("Last element: {}", last);
         List<String> reversed = list.reversed();
         return reversed;
     }
@@ -75,6 +113,48 @@ public class MigrateService {
         return "Unknown";
     }
 
+    // Batch form of checkType for raw request strings: integers are reported as Integer,
+    // everything else as String, the same as GET /checkType
+    public String[] checkTypes(String[] inputs) {
+        String[] results = new String[inputs.length];
+        if (inputs.length >= PARALLEL_BATCH_THRESHOLD) {
+            Arrays.parallelSetAll(results, i -> checkRawType(inputs[i]));
+        } else {
+            for (int i = 0; i < inputs.length; i++) {
+                results[i] = checkRawType(inputs[i]);
+            }
+        }
+        return results;
+    }
+
+    private String checkRawType(String input) {
+        Integer number = parseIntOrNull(input);
+        return checkType(number != null ? number : input);
+    }
+
+    // Integer.parseInt without paying for a NumberFormatException on every non-number: the same
+    // optional sign, any run of leading zeros and every digit Character.digit accepts
+    static Integer parseIntOrNull(String input) {
+        if (input == null || input.isEmpty()) {
+            return null;
+        }
+        boolean negative = input.charAt(0) == '-';
+        int start = negative || input.charAt(0) == '+' ? 1 : 0;
+        if (start == input.length()) {
+            return null;
+        }
+        long value = 0;
+        for (int i = start; i < input.length(); i++) {
+            int digit = Character.digit(input.charAt(i), 10);
+            // Past 2^31 neither sign fits, so stop before the long could overflow too
+            if (digit < 0 || (value = value * 10 + digit) > 1L << 31) {
+                return null;
+            }
+        }
+        value = negative ? -value : value;
+        return value > Integer.MAX_VALUE ? null : (int) value;
+    }
+
     // Sealed classes - introduced in Java 17, enhanced in Java 21
     // Potential deprecation candidate in Java 25
     public sealed class Animal permits Dog, Cat {
@@ -119,15 +199,78 @@ public class MigrateService {
         return Math.clamp(value, 0, 100);
     }
 
+    // Batch form of clampValue over a primitive array, no boxing
+    public int[] clampValues(int[] values) {
+        int[] results = new int[values.length];
+        if (values.length >= PARALLEL_BATCH_THRESHOLD) {
+            Arrays.parallelSetAll(results, i -> Math.clamp(values[i], 0, 100));
+        } else {
+            for (int i = 0; i < values.length; i++) {
+                results[i] = Math.clamp(values[i], 0, 100);
+            }
+        }
+        return results;
+    }
+
     // StringBuilder.repeat() - Introduced in Java 21
     // Native support for repeating sequences in StringBuilder
     // Deprecation Notice: Scheduled for removal in Java 25
+    // The builder is sized up front, after the result is checked against app.repeat.max-chars
     public String repeatText(String text, int count) {
-        StringBuilder sb = new StringBuilder();
+        long length = checkRepeatCount(count) * text.length();
+        if (length > maxRepeatChars) {
+            throw new OutputLimitExceededException("Repeated text would be " + length
+                    + " characters, limit is " + maxRepeatChars + "; use /repeat/stream for large output");
+        }
+        StringBuilder sb = new StringBuilder(Math.toIntExact(length));
         sb.repeat(text, count);
         return sb.toString();
     }
 
+    // UTF-8 size of the streamed repeat, checked against app.repeat.max-stream-bytes
+    public long repeatedSize(String text, int count) {
+        long size = checkRepeatCount(count) * text.getBytes(StandardCharsets.UTF_8).length;
+        if (size > maxRepeatStreamBytes) {
+            throw new OutputLimitExceededException("Repeated text would be " + size
+                    + " bytes, limit is " + maxRepeatStreamBytes);
+        }
+        return size;
+    }
+
+    // Streams the repetitions straight to the output through one reusable chunk of at most
+    // 8 KB, so memory per request stays constant however large count is
+    public void writeRepeated(String text, int count, OutputStream out) throws IOException {
+        byte[] unit = text.getBytes(StandardCharsets.UTF_8);
+        if (unit.length == 0 || count == 0) {
+            return;
+        }
+        byte[] chunk = repeatChunk(unit);
+        int perChunk = chunk.length / unit.length;
+        int remaining = count;
+        while (remaining >= perChunk) {
+            out.write(chunk);
+            remaining -= perChunk;
+        }
+        out.write(chunk, 0, remaining * unit.length);
+    }
+
+    // As many whole copies of unit as fit in 8 KB (at least one), the unit of every repeat write
+    public byte[] repeatChunk(byte[] unit) {
+        int perChunk = Math.max(1, REPEAT_CHUNK_BYTES / unit.length);
+        byte[] chunk = new byte[perChunk * unit.length];
+        for (int i = 0; i < perChunk; i++) {
+            System.arraycopy(unit, 0, chunk, i * unit.length, unit.length);
+        }
+        return chunk;
+    }
+
+    private static long checkRepeatCount(int count) {
+        if (count < 0) {
+            throw new InvalidRepeatCountException("count must not be negative: " + count);
+        }
+        return count;
+    }
+
     // Character.isEmoji() - Introduced in Java 21
     // Checks if a code point is an Emoji
     // Deprecation Notice: Scheduled for removal in Java 25
@@ -135,51 +278,71 @@ public class MigrateService {
         return Character.isEmoji(codePoint);
     }
 
+    // Batch form of isEmojiCharacter over a primitive array, no boxing
+    public boolean[] areEmojiCharacters(int[] codePoints) {
+        boolean[] results = new boolean[codePoints.length];
+        if (codePoints.length >= PARALLEL_BATCH_THRESHOLD) {
+            IntStream.range(0, codePoints.length).parallel()
+                    .forEach(i -> results[i] = Character.isEmoji(codePoints[i]));
+        } else {
+            for (int i = 0; i < codePoints.length; i++) {
+                results[i] = Character.isEmoji(codePoints[i]);
+            }
+        }
+        return results;
+    }
+
     // String.splitWithDelimiters() - Introduced in Java 21
     // Returns an array containing both the substrings and the delimiters
     // Deprecation Notice: Scheduled for removal in Java 25
     public String[] splitKeepingDelimiters(String input, String regex) {
         // Unlike standard split(), this keeps the delimiters in the result array
         // Example: "a,b,c" split by "," -> ["a", ",", "b", ",", "c"]
-        return input.splitWithDelimiters(regex, -1);
+        // Same result as input.splitWithDelimiters(regex, -1), with cached patterns and a match budget
+        return regexSplitter.split(input, regex);
     }
 
     // Thread.stop(), suspend(), resume()
-    // Removed in Java 25
-    @SuppressWarnings("removal")
-    public void demonstrateLegacyThreadMethods() {
-        Thread thread = new Thread(() -> {
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+    // Removed in Java 25: the same controls on a pooled worker. Pause and resume take effect at the
+    // job's next checkpoint, and cancel interrupts it instead of killing the thread mid-update.
+    public WorkerStatus demonstrateLegacyThreadMethods() throws InterruptedException {
+        WorkerStatus worker = workerPool.submit("legacyThreads", Duration.ofSeconds(5), context -> {
+            for (int step = 0; step < 100; step++) {
+                context.checkpoint();
+                Thread.sleep(10);
             }
+            return "completed";
         });
-        thread.start();
-        
-        // These methods are removed in Java 25 and should be replaced
-        // with modern concurrency constructs
-        thread.suspend();
-        thread.resume();
-        thread.stop();
+        workerPool.pause(worker.id());
+        workerPool.resume(worker.id());
+        workerPool.cancel(worker.id());
+        return workerPool.await(worker.id(), Duration.ofSeconds(5)).orElseThrow();
     }
 
     // Runtime.runFinalization()
-    // Deprecated for removal in Java 25
-    @SuppressWarnings({"deprecation", "removal"})
-    public void demonstrateFinalization() {
-        // This method is deprecated for removal
-        Runtime.getRuntime().runFinalization();
+    // Deprecated for removal in Java 25: worker resources are released through a Cleaner, which runs
+    // on its own thread, so there is nothing left to drive from a request thread; report on it instead
+    public ResourceStats demonstrateFinalization() {
+        return workerPool.resources();
     }
 
     // Object.finalize()
-    // Deprecated for removal in Java 25
-    @Override
-    @SuppressWarnings({"deprecation", "removal"})
-    public void finalize() throws Throwable {
-        // Finalization is deprecated for removal
-        log.info("MigrateService is being finalized");
-        super.finalize();
+    // Deprecated for removal in Java 25: a resource registered with the worker is released exactly
+    // once when the job ends, without making any object finalizable
+    public WorkerStatus demonstrateCleaner() throws InterruptedException {
+        WorkerStatus worker = workerPool.submit("cleaner", Duration.ofSeconds(5), context -> {
+            Path scratch = Files.createTempFile("worker-", ".tmp");
+            context.register(() -> {
+                try {
+                    Files.deleteIfExists(scratch);
+                } catch (IOException e) {
+                    log.warn("Could not delete {}", scratch, e);
+                }
+            });
+            Files.writeString(scratch, "scratch data");
+            return Files.size(scratch);
+        });
+        return workerPool.await(worker.id(), Duration.ofSeconds(5)).orElseThrow();
     }
 
 }
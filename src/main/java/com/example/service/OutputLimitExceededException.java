@@ -0,0 +1,12 @@
+package com.example.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class OutputLimitExceededException extends RuntimeException {
+
+    public OutputLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// String.splitWithDelimiters(regex, -1) with the regex compiled once per distinct pattern.
+// Plain-string delimiters skip the regex engine altogether, and regex matching runs
+// against a deadline so a catastrophically backtracking pattern fails fast instead of
+// pinning a request thread.
+@Component
+public class RegexSplitter {
+
+    private static final String METACHARACTERS = ".$|()[{^?*+\\";
+
+    private final Cache<String, Pattern> patterns;
+    private final int maxRegexLength;
+    private final long timeoutNanos;
+
+    public RegexSplitter(@Value("${app.split.pattern-cache-size:256}") int cacheSize,
+                         @Value("${app.split.max-regex-length:256}") int maxRegexLength,
+                         @Value("${app.split.match-timeout:100ms}") Duration timeout) {
+        this.patterns = Caffeine.newBuilder().maximumSize(cacheSize).build();
+        this.maxRegexLength = maxRegexLength;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    public String[] split(String input, String regex) {
+        if (regex.length() > maxRegexLength) {
+            throw new RegexRejectedException("Regex longer than " + maxRegexLength + " characters");
+        }
+        String literal = literalOf(regex);
+        if (literal != null) {
+            return splitLiteral(input, literal);
+        }
+        return splitRegex(input, compile(regex));
+    }
+
+    // Returns the text a regex matches when it has no regex semantics at all, else null
+    static String literalOf(String regex) {
+        if (regex.length() == 2 && regex.charAt(0) == '\\' && !Character.isLetterOrDigit(regex.charAt(1))) {
+            return regex.substring(1);
+        }
+        if (regex.isEmpty()) {
+            return null;
+        }
+        for (int i = 0; i < regex.length(); i++) {
+            if (METACHARACTERS.indexOf(regex.charAt(i)) >= 0) {
+                return null;
+            }
+        }
+        return regex;
+    }
+
+    static String[] splitLiteral(String input, String delimiter) {
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        int index;
+        while ((index = input.indexOf(delimiter, start)) >= 0) {
+            parts.add(input.substring(start, index));
+            parts.add(delimiter);
+            start = index + delimiter.length();
+        }
+        if (start == 0) {
+            return new String[]{input};
+        }
+        parts.add(input.substring(start));
+        return parts.toArray(String[]::new);
+    }
+
+    private Pattern compile(String regex) {
+        try {
+            return patterns.get(regex, Pattern::compile);
+        } catch (PatternSyntaxException e) {
+            throw new RegexRejectedException("Invalid regex: " + e.getDescription());
+        }
+    }
+
+    // Same algorithm as Pattern.split(input, -1, true), matching against a deadline-checked view
+    private String[] splitRegex(String input, Pattern pattern) {
+        Matcher matcher = pattern.matcher(new DeadlineCharSequence(input, System.nanoTime() + timeoutNanos));
+        List<String> parts = new ArrayList<>();
+        int index = 0;
+        while (matcher.find()) {
+            if (index == 0 && matcher.start() == 0 && matcher.start() == matcher.end()) {
+                // No leading empty substring for a zero-width match at the beginning
+                continue;
+            }
+            parts.add(input.substring(index, matcher.start()));
+            parts.add(input.substring(matcher.start(), matcher.end()));
+            index = matcher.end();
+        }
+        if (index == 0) {
+            return new String[]{input};
+        }
+        parts.add(input.substring(index));
+        return parts.toArray(String[]::new);
+    }
+
+    // The regex engine reads its input only through charAt, so checking the clock here
+    // (every 4096 reads) bounds the time any single match can take
+    private static final class DeadlineCharSequence implements CharSequence {
+        private final String text;
+        private final long deadline;
+        private int reads;
+
+        DeadlineCharSequence(String text, long deadline) {
+            this.text = text;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if ((++reads & 0xFFF) == 0 && System.nanoTime() > deadline) {
+                throw new RegexRejectedException("Regex evaluation exceeded its time budget");
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return text.substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
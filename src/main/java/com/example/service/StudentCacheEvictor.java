@@ -0,0 +1,57 @@
+package com.example.service;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.entities.Student;
+import com.example.entities.StudentChangedEvent;
+import com.example.repositories.StudentRepository;
+
+// Keeps the student caches right for writes the repository's cache annotations cannot describe:
+// JPA writes outside the repository arrive as committed entity events, StudentStore.saveAll batches
+// (imports, write-behind, every sharded write) with their generated ids. Only the affected ids and names are evicted, so the hot set survives
+// a write burst. An update may be a rename and the old name is unknown, so it drops all names.
+@Component
+public class StudentCacheEvictor {
+
+    private final Cache byId;
+    private final Cache byName;
+
+    public StudentCacheEvictor(CacheManager cacheManager) {
+        this.byId = cacheManager.getCache(StudentRepository.CACHE_BY_ID);
+        this.byName = cacheManager.getCache(StudentRepository.CACHE_BY_NAME);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onStudentChanged(StudentChangedEvent event) {
+        if (event.type() == StudentChangedEvent.ChangeType.CREATED) {
+            evictName(event.name());
+            return;
+        }
+        if (byId != null) {
+            byId.evict(event.id());
+        }
+        if (byName != null) {
+            byName.clear();
+        }
+    }
+
+    @EventListener
+    void onImported(StudentsImportedEvent event) {
+        for (Student student : event.students()) {
+            if (byId != null) {
+                byId.evict(student.getId());
+            }
+            evictName(student.getName());
+        }
+    }
+
+    private void evictName(String name) {
+        if (byName != null && name != null) {
+            byName.evict(name);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Bulk ingestion of students from a streamed request body.
+// Rows are parsed one line at a time and flushed to StudentStore.saveAll one batch at a time,
+// so memory use is bounded by the batch size rather than the payload size.
+@Slf4j
+@Service
+public class StudentImportService {
+
+    private final StudentStore studentStore;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public StudentImportService(StudentStore studentStore, ObjectMapper objectMapper,
+                                @Value("${app.students.import.batch-size:1000}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("app.students.import.batch-size must be positive");
+        }
+        this.studentStore = studentStore;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    public record ImportResult(long rows, long skipped, int batches, int batchSize,
+                               long elapsedMillis, double rowsPerSecond) {}
+
+    // One JSON object per line, e.g. {"name":"Alice"}
+    public ImportResult importNdjson(InputStream body) throws IOException {
+        return importLines(body, this::parseJsonLine, false);
+    }
+
+    // One student per line, name in the first column; an optional "name" header is skipped
+    public ImportResult importCsv(InputStream body) throws IOException {
+        return importLines(body, StudentImportService::parseCsvLine, true);
+    }
+
+    private ImportResult importLines(InputStream body, Function<String, String> parser,
+                                     boolean headerAllowed) throws IOException {
+        long start = System.nanoTime();
+        long rows = 0;
+        long skipped = 0;
+        int batches = 0;
+        List<String> batch = new ArrayList<>(batchSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        boolean first = true;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            String name = parser.apply(line);
+            boolean header = first && headerAllowed && "name".equalsIgnoreCase(name);
+            first = false;
+            if (header) {
+                continue;
+            }
+            if (name == null || name.isEmpty()) {
+                skipped++;
+                continue;
+            }
+            batch.add(name);
+            if (batch.size() == batchSize) {
+                rows += flush(batch);
+                batches++;
+            }
+        }
+        if (!batch.isEmpty()) {
+            rows += flush(batch);
+            batches++;
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        double rowsPerSecond = elapsedNanos == 0 ? 0 : rows * 1_000_000_000d / elapsedNanos;
+        log.info("Imported {} students in {} batches ({} skipped, {} rows/s)",
+                rows, batches, skipped, Math.round(rowsPerSecond));
+        return new ImportResult(rows, skipped, batches, batchSize, elapsedNanos / 1_000_000, rowsPerSecond);
+    }
+
+    // Committed and announced when saveAll returns
+    private int flush(List<String> batch) {
+        int rows = studentStore.saveAll(batch).size();
+        batch.clear();
+        return rows;
+    }
+
+    // The name of one NDJSON line, null when the line is not an object with a textual name
+    public String parseJsonLine(String line) {
+        try {
+            JsonNode name = objectMapper.readTree(line).get("name");
+            return name == null || !name.isTextual() ? null : name.textValue().strip();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    static String parseCsvLine(String line) {
+        String value = line;
+        if (value.startsWith("\"")) {
+            // Quoted first column: "Doe, John",... with "" as an escaped quote
+            StringBuilder sb = new StringBuilder(value.length());
+            int i = 1;
+            while (i < value.length()) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    if (i + 1 < value.length() && value.charAt(i + 1) == '"') {
+                        sb.append('"');
+                        i += 2;
+                        continue;
+                    }
+                    break;
+                }
+                sb.append(c);
+                i++;
+            }
+            return sb.toString().strip();
+        }
+        int comma = value.indexOf(',');
+        return (comma < 0 ? value : value.substring(0, comma)).strip();
+    }
+}
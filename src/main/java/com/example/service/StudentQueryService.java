@@ -0,0 +1,78 @@
+package com.example.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.entities.Student;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Student reads for /students, from whichever StudentStore holds the students
+@Slf4j
+@Service
+public class StudentQueryService {
+
+    private final StudentStore studentStore;
+    private final ObjectWriter ndjsonWriter;
+    private final int maxPageSize;
+
+    public StudentQueryService(StudentStore studentStore, ObjectMapper objectMapper,
+                               @Value("${app.students.page.max-size:1000}") int maxPageSize) {
+        this.studentStore = studentStore;
+        // Flushing is left to the servlet output buffer instead of once per row
+        this.ndjsonWriter = objectMapper.writerFor(Student.class)
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.maxPageSize = maxPageSize;
+    }
+
+    // nextAfterId is null once the last page has been reached
+    public record StudentPage(List<Student> students, Long nextAfterId) {}
+
+    public Optional<Student> findById(long id) {
+        return studentStore.findById(id);
+    }
+
+    public List<Student> findByName(String name) {
+        return studentStore.findByName(name);
+    }
+
+    public StudentPage listAfter(long afterId, int size) {
+        int limit = Math.clamp(size, 1, maxPageSize);
+        List<Student> students = studentStore.findAfter(afterId, limit);
+        Long nextAfterId = students.size() < limit ? null : students.getLast().getId();
+        return new StudentPage(students, nextAfterId);
+    }
+
+    // Writes every student as one JSON line as it is read, so memory use stays flat
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream out) throws IOException {
+        long rows = 0;
+        try (Stream<Student> students = studentStore.streamAll();
+             JsonGenerator generator = ndjsonWriter.createGenerator(out)) {
+            Iterator<Student> it = students.iterator();
+            while (it.hasNext()) {
+                ndjsonWriter.writeValue(generator, it.next());
+                rows++;
+            }
+            if (rows > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        log.info("Exported {} students", rows);
+        return rows;
+    }
+}
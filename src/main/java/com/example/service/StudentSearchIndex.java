@@ -0,0 +1,308 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.entities.Student;
+import com.example.entities.StudentChangedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+// In-memory name index for type-ahead (GET /students/search).
+// Names are normalized (trimmed, lower-cased) and kept in a sorted concurrent map, so a prefix
+// lookup is a sub-map range scan and a fuzzy lookup walks the sorted keys like a trie:
+// Levenshtein rows are shared between keys with a common prefix and a whole key range is
+// skipped as soon as its prefix is already further than the allowed distance.
+// JPA writes arrive as committed StudentChangedEvents and bulk imports as batches of inserted rows;
+// at startup the index reads the store by id from where its last scan stopped. A scanned row can be
+// older than an event that lands between reading the batch and applying it, so while a scan runs
+// every event stamps its id with a sequence number, deletes included, and a scanned row is dropped
+// when its id was stamped after the batch was read.
+@Slf4j
+@Service
+public class StudentSearchIndex {
+
+    private static final int MAX_DISTANCE = 2;
+
+    public enum Mode { EXACT, PREFIX, FUZZY }
+
+    public record SearchHit(long id, String name, int distance) {}
+
+    public record IndexStats(int students, int distinctNames, long scannedUpToId, boolean scanning) {}
+
+    private record Entry(long id, String name) {}
+
+    private final StudentStore studentStore;
+    private final int scanBatchSize;
+    private final int maxResults;
+
+    private final ConcurrentSkipListMap<String, Entry[]> names = new ConcurrentSkipListMap<>();
+    private final Map<Long, String> namesById = new ConcurrentHashMap<>();
+    private final AtomicLong scannedUpTo = new AtomicLong();
+    private final AtomicInteger scanRequests = new AtomicInteger();
+    private final AtomicInteger scansRunning = new AtomicInteger();
+    private final AtomicLong changes = new AtomicLong();
+    // id -> sequence number of its latest event while a scan runs; tombstones for deletes too
+    private final Map<Long, Long> changedDuringScan = new ConcurrentHashMap<>();
+
+    public StudentSearchIndex(StudentStore studentStore,
+                              @Value("${app.students.search.scan-batch-size:10000}") int scanBatchSize,
+                              @Value("${app.students.search.max-results:100}") int maxResults) {
+        this.studentStore = studentStore;
+        this.scanBatchSize = scanBatchSize;
+        this.maxResults = maxResults;
+    }
+
+    public List<SearchHit> search(String query, Mode mode, int limit, int maxDistance) {
+        String key = normalize(query);
+        int max = Math.clamp(limit, 1, maxResults);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        return switch (mode) {
+            case EXACT -> hits(names.get(key), 0, max, new ArrayList<>());
+            case PREFIX -> prefix(key, max);
+            case FUZZY -> fuzzy(key, Math.clamp(maxDistance, 0, MAX_DISTANCE), max);
+        };
+    }
+
+    public IndexStats stats() {
+        return new IndexStats(namesById.size(), names.size(), scannedUpTo.get(), scanRequests.get() > 0);
+    }
+
+    // Ids are unique, so replaying a change (event plus re-scan of the same row) is harmless
+    public void put(long id, String name) {
+        apply(id, name, -1);
+    }
+
+    public void remove(long id) {
+        apply(id, null, -1);
+    }
+
+    // readAt is the change sequence when a scanned batch was read, -1 for an event. Both run inside
+    // compute, so stamping and checking the same id cannot interleave.
+    private void apply(long id, String name, long readAt) {
+        namesById.compute(id, (k, previous) -> {
+            if (readAt < 0) {
+                if (scansRunning.get() > 0) {
+                    changedDuringScan.put(id, changes.incrementAndGet());
+                }
+            } else if (changedDuringScan.getOrDefault(id, 0L) > readAt) {
+                return previous;
+            }
+            if (previous != null) {
+                removeEntry(normalize(previous), id);
+            }
+            if (name == null) {
+                return null;
+            }
+            names.merge(normalize(name), new Entry[]{new Entry(id, name)}, StudentSearchIndex::append);
+            return name;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onStudentChanged(StudentChangedEvent event) {
+        if (event.type() == StudentChangedEvent.ChangeType.DELETED) {
+            remove(event.id());
+        } else {
+            put(event.id(), event.name());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void onReady() {
+        requestScan();
+    }
+
+    @EventListener
+    void onImported(StudentsImportedEvent event) {
+        for (Student student : event.students()) {
+            put(student.getId(), student.getName());
+        }
+    }
+
+    // Scans are coalesced: requests made while one runs trigger exactly one more pass
+    void requestScan() {
+        if (scanRequests.getAndIncrement() == 0) {
+            Thread.ofVirtual().name("student-index-scan").start(this::scanWhileRequested);
+        }
+    }
+
+    private void scanWhileRequested() {
+        int seen;
+        do {
+            seen = scanRequests.get();
+            try {
+                scan();
+            } catch (RuntimeException e) {
+                log.warn("Student index scan failed after id {}", scannedUpTo.get(), e);
+            }
+        } while (scanRequests.addAndGet(-seen) != 0);
+    }
+
+    // Reads the table from where the last scan stopped; normally started once the application is ready
+    public long scan() {
+        long start = System.nanoTime();
+        long rows = 0;
+        int read;
+        scansRunning.incrementAndGet();
+        try {
+            do {
+                long after = scannedUpTo.get();
+                long readAt = changes.get();
+                List<Entry> batch = studentStore.findAfter(after, scanBatchSize).stream()
+                        .map(student -> new Entry(student.getId(), student.getName())).toList();
+                for (Entry entry : batch) {
+                    apply(entry.id(), entry.name(), readAt);
+                }
+                // Later batches are read after every event stamped so far, so they already see them
+                long applied = changes.get();
+                changedDuringScan.values().removeIf(sequence -> sequence <= applied);
+                read = batch.size();
+                if (read > 0) {
+                    scannedUpTo.set(batch.getLast().id());
+                    rows += read;
+                }
+            } while (read == scanBatchSize);
+        } finally {
+            scansRunning.decrementAndGet();
+        }
+        log.info("Indexed {} students up to id {} in {} ms", rows, scannedUpTo.get(),
+                (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    private List<SearchHit> prefix(String prefix, int limit) {
+        List<SearchHit> hits = new ArrayList<>(limit);
+        for (Entry[] entries : range(prefix).values()) {
+            if (hits(entries, 0, limit, hits).size() >= limit) {
+                break;
+            }
+        }
+        return hits;
+    }
+
+    private List<SearchHit> fuzzy(String query, int maxDistance, int limit) {
+        int m = query.length();
+        // rows[d] is the Levenshtein row for the first d characters of the current key
+        int[][] rows = new int[m + maxDistance + 2][m + 1];
+        for (int j = 0; j <= m; j++) {
+            rows[0][j] = j;
+        }
+        List<List<SearchHit>> byDistance = new ArrayList<>(maxDistance + 1);
+        for (int d = 0; d <= maxDistance; d++) {
+            byDistance.add(new ArrayList<>());
+        }
+
+        String previous = "";
+        int valid = 0;
+        Map.Entry<String, Entry[]> current = names.firstEntry();
+        while (current != null && byDistance.get(0).size() < limit) {
+            String key = current.getKey();
+            int depth = Math.min(valid, commonPrefixLength(previous, key));
+            boolean pruned = false;
+            while (depth < key.length()) {
+                if (nextRow(rows[depth], rows[depth + 1], query, key.charAt(depth)) > maxDistance) {
+                    pruned = true;
+                    depth++;
+                    break;
+                }
+                depth++;
+            }
+            previous = key;
+            valid = depth;
+            if (pruned) {
+                // No key starting with key[0, depth) can come back within maxDistance
+                current = names.higherEntry(key.substring(0, depth) + Character.MAX_VALUE);
+                continue;
+            }
+            int distance = rows[depth][m];
+            if (distance <= maxDistance) {
+                hits(current.getValue(), distance, limit, byDistance.get(distance));
+            }
+            current = names.higherEntry(key);
+        }
+
+        List<SearchHit> hits = new ArrayList<>(limit);
+        for (List<SearchHit> bucket : byDistance) {
+            bucket.sort(Comparator.comparing(SearchHit::name));
+            for (SearchHit hit : bucket) {
+                if (hits.size() == limit) {
+                    return hits;
+                }
+                hits.add(hit);
+            }
+        }
+        return hits;
+    }
+
+    // Fills next from previous for one more key character and returns the row minimum
+    private static int nextRow(int[] previous, int[] next, String query, char c) {
+        next[0] = previous[0] + 1;
+        int min = next[0];
+        for (int j = 1; j < next.length; j++) {
+            int cost = query.charAt(j - 1) == c ? 0 : 1;
+            next[j] = Math.min(Math.min(next[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            min = Math.min(min, next[j]);
+        }
+        return min;
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int n = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < n && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private ConcurrentNavigableMap<String, Entry[]> range(String prefix) {
+        return names.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static List<SearchHit> hits(Entry[] entries, int distance, int limit, List<SearchHit> into) {
+        if (entries != null) {
+            for (Entry entry : entries) {
+                if (into.size() >= limit) {
+                    break;
+                }
+                into.add(new SearchHit(entry.id(), entry.name(), distance));
+            }
+        }
+        return into;
+    }
+
+    private void removeEntry(String key, long id) {
+        names.computeIfPresent(key, (k, entries) -> {
+            Entry[] remaining = Arrays.stream(entries).filter(e -> e.id() != id).toArray(Entry[]::new);
+            return remaining.length == 0 ? null : remaining;
+        });
+    }
+
+    private static Entry[] append(Entry[] entries, Entry[] added) {
+        Entry[] merged = Arrays.copyOf(entries, entries.length + added.length);
+        System.arraycopy(added, 0, merged, entries.length, added.length);
+        return merged;
+    }
+
+    static String normalize(String name) {
+        return name == null ? "" : name.strip().toLowerCase(Locale.ROOT);
+    }
+}
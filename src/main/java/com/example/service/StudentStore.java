@@ -0,0 +1,41 @@
+package com.example.service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.cache.annotation.Cacheable;
+
+import com.example.entities.Student;
+import com.example.repositories.StudentRepository;
+
+// Where students are stored: the application database (JpaStudentStore), or the hash-sharded
+// H2 databases (ShardedStudentStore) when app.sharding.enabled. Everything that reads or writes
+// students goes through this interface, so the lookups below are cached whichever store is active.
+// Every committed insert is announced, as a StudentChangedEvent from the JPA entity listener or a
+// StudentsImportedEvent for batches, so the caches, the search index, the snapshot and the change
+// feed see it.
+public interface StudentStore {
+
+    // A missing id is not cached, so a row inserted later (e.g. by an import) is found at once
+    @Cacheable(cacheNames = StudentRepository.CACHE_BY_ID, unless = "#result == null")
+    Optional<Student> findById(long id);
+
+    @Cacheable(StudentRepository.CACHE_BY_NAME)
+    List<Student> findByName(String name);
+
+    // Keyset page: the next limit students with an id above afterId, in id order
+    List<Student> findAfter(long afterId, int limit);
+
+    // Every student in id order, read lazily; close it when done. The JPA store's stream is a cursor
+    // and must be consumed inside a read-only transaction.
+    Stream<Student> streamAll();
+
+    Student save(String name);
+
+    // One batch, announced once it has committed; the result carries the generated ids in the
+    // order of names
+    List<Student> saveAll(List<String> names);
+
+    long count();
+}
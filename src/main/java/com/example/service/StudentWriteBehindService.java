@@ -0,0 +1,251 @@
+package com.example.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import com.example.entities.Student;
+import com.example.metrics.LatencyHistogram;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Write-behind path for single student inserts (POST /students/async).
+// Requests only append to a bounded lock-free queue and get a tracking id back; one writer
+// thread drains whatever has accumulated into one StudentStore.saveAll batch, so a burst
+// costs a handful of commits and one pooled connection instead of one each per request.
+// On shutdown the queue is closed and flushed before the data source goes away.
+@Slf4j
+@Service
+public class StudentWriteBehindService implements SmartLifecycle {
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int MAX_TRACKED_WRITES = 100_000;
+
+    public enum OverflowPolicy { REJECT, BLOCK }
+
+    public enum WriteState { QUEUED, WRITTEN, FAILED }
+
+    public record WriteStatus(String id, String name, WriteState state, Long studentId, String error,
+                              Instant enqueuedAt, Instant writtenAt) {}
+
+    public record WriteBehindMetrics(int queued, int capacity, long accepted, long rejected, long written,
+                                     long failed, long batches, LatencyHistogram.Snapshot batchLatency) {}
+
+    private final StudentStore studentStore;
+    private final int capacity;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final Duration shutdownTimeout;
+
+    private final Queue<PendingWrite> queue = new ConcurrentLinkedQueue<>();
+    // ConcurrentLinkedQueue.size() is O(n); the bound is enforced on this counter instead
+    private final AtomicInteger size = new AtomicInteger();
+    private final Cache<String, PendingWrite> tracked = Caffeine.newBuilder()
+            .maximumSize(MAX_TRACKED_WRITES)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LatencyHistogram batchLatency = new LatencyHistogram();
+
+    private volatile boolean accepting;
+    private volatile boolean running;
+    private volatile Thread writer;
+
+    public StudentWriteBehindService(StudentStore studentStore,
+                                     @Value("${app.students.write-behind.capacity:10000}") int capacity,
+                                     @Value("${app.students.write-behind.batch-size:500}") int batchSize,
+                                     @Value("${app.students.write-behind.overflow:reject}") OverflowPolicy overflowPolicy,
+                                     @Value("${app.students.write-behind.block-timeout:1s}") Duration blockTimeout,
+                                     @Value("${app.students.write-behind.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        if (capacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("app.students.write-behind capacity and batch-size must be positive");
+        }
+        this.studentStore = studentStore;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    private static final class PendingWrite {
+        final String id = UUID.randomUUID().toString();
+        final String name;
+        final Instant enqueuedAt = Instant.now();
+        volatile WriteState state = WriteState.QUEUED;
+        volatile Long studentId;
+        volatile String error;
+        volatile Instant writtenAt;
+
+        PendingWrite(String name) {
+            this.name = name;
+        }
+
+        WriteStatus status() {
+            return new WriteStatus(id, name, state, studentId, error, enqueuedAt, writtenAt);
+        }
+    }
+
+    public WriteStatus enqueue(String name) {
+        if (!accepting) {
+            rejected.increment();
+            throw new WriteBehindRejectedException("Write-behind queue is not accepting writes");
+        }
+        int before = reserve();
+        if (before < 0) {
+            rejected.increment();
+            throw new WriteBehindRejectedException("Write-behind queue is full (" + capacity + " pending)");
+        }
+        PendingWrite write = new PendingWrite(name);
+        WriteStatus acknowledgement = write.status();
+        tracked.put(write.id, write);
+        queue.offer(write);
+        // Lost a race with shutdown: take the write back unless the final flush already got it
+        if (!accepting && queue.remove(write)) {
+            size.decrementAndGet();
+            tracked.invalidate(write.id);
+            rejected.increment();
+            throw new WriteBehindRejectedException("Write-behind queue is not accepting writes");
+        }
+        accepted.increment();
+        if (before == 0) {
+            LockSupport.unpark(writer);
+        }
+        return acknowledgement;
+    }
+
+    public Optional<WriteStatus> status(String id) {
+        return Optional.ofNullable(tracked.getIfPresent(id)).map(PendingWrite::status);
+    }
+
+    public WriteBehindMetrics metrics() {
+        return new WriteBehindMetrics(size.get(), capacity, accepted.sum(), rejected.sum(), written.sum(),
+                failed.sum(), batches.sum(), batchLatency.snapshot());
+    }
+
+    // Claims a queue slot and returns the previous size, or -1 when the queue stayed full
+    private int reserve() {
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        while (true) {
+            int current = size.get();
+            if (current < capacity) {
+                if (size.compareAndSet(current, current + 1)) {
+                    return current;
+                }
+                continue;
+            }
+            if (overflowPolicy == OverflowPolicy.REJECT || System.nanoTime() - deadline >= 0
+                    || Thread.currentThread().isInterrupted()) {
+                return -1;
+            }
+            LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+        }
+    }
+
+    private void drain() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (true) {
+            // Read before polling, so everything enqueued before stop() is still drained
+            boolean stopping = !running;
+            PendingWrite next;
+            while (batch.size() < batchSize && (next = queue.poll()) != null) {
+                size.decrementAndGet();
+                batch.add(next);
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            } else if (stopping) {
+                return;
+            } else {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void write(List<PendingWrite> batch) {
+        long start = System.nanoTime();
+        try {
+            List<Student> saved = studentStore.saveAll(batch.stream().map(write -> write.name).toList());
+            Instant now = Instant.now();
+            for (int i = 0; i < batch.size(); i++) {
+                PendingWrite write = batch.get(i);
+                write.studentId = saved.get(i).getId();
+                write.writtenAt = now;
+                write.state = WriteState.WRITTEN;
+            }
+            written.add(batch.size());
+        } catch (RuntimeException e) {
+            log.warn("Write-behind batch of {} students failed", batch.size(), e);
+            for (PendingWrite write : batch) {
+                write.error = e.getMessage();
+                write.state = WriteState.FAILED;
+            }
+            failed.add(batch.size());
+        } finally {
+            batches.increment();
+            batchLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        accepting = true;
+        writer = Thread.ofPlatform().name("student-writer").daemon().start(this::drain);
+        log.info("Write-behind writer started (capacity {}, batch size {}, overflow {})",
+                capacity, batchSize, overflowPolicy);
+    }
+
+    @Override
+    public void stop() {
+        accepting = false;
+        running = false;
+        Thread current = writer;
+        if (current == null) {
+            return;
+        }
+        LockSupport.unpark(current);
+        try {
+            if (!current.join(shutdownTimeout)) {
+                log.warn("Write-behind writer still flushing after {}; {} writes pending", shutdownTimeout, size.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Write-behind writer stopped ({} written, {} failed)", written.sum(), failed.sum());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Start before and stop after the embedded web server, so no accepted request finds the
+    // queue closed; the data source is only closed once every lifecycle has stopped
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.service;
+
+import java.util.List;
+
+import com.example.entities.Student;
+
+// Published once per committed import batch with the rows it inserted. The rows went in through
+// plain JDBC or R2DBC, so JPA entity events and the repository's cache annotations never saw them.
+public record StudentsImportedEvent(List<Student> students) {
+
+    public int rows() {
+        return students.size();
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.metrics.LatencyHistogram;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// Runs blocking work on one long-lived virtual-thread executor.
+// Admission is bounded twice: at most maxConcurrent tasks run at once (semaphore) and at
+// most maxQueued wait for a permit; anything beyond that is rejected up front. A composite job fans
+// out to at most maxFanOut subtasks, and request-sized work is checked against the limits before
+// it is admitted.
+@Slf4j
+@Service
+public class TaskExecutionService {
+
+    private static final int MAX_FINISHED_TASKS = 10_000;
+
+    public enum TaskState { QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED }
+
+    public record TaskStatus(String id, String name, TaskState state, Instant submittedAt,
+                             Instant startedAt, Instant finishedAt, Object result, String error) {}
+
+    public record TaskMetrics(int maxConcurrent, int running, int queued, long submitted, long succeeded,
+                              long failed, long cancelled, long rejected,
+                              LatencyHistogram.Snapshot queueWait, LatencyHistogram.Snapshot execution) {}
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("task-", 0).factory());
+    // Submitted tasks until they finish, bounded by admission; then kept for status polls
+    private final Map<String, TaskRecord> tasks = new ConcurrentHashMap<>();
+    private final Cache<String, TaskRecord> finished = Caffeine.newBuilder()
+            .maximumSize(MAX_FINISHED_TASKS)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final int maxFanOut;
+    private final Duration maxDuration;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram execution = new LatencyHistogram();
+
+    public TaskExecutionService(@Value("${app.tasks.max-concurrent:256}") int maxConcurrent,
+                                @Value("${app.tasks.max-queued:10000}") int maxQueued,
+                                @Value("${app.tasks.max-fan-out:64}") int maxFanOut,
+                                @Value("${app.tasks.max-duration:60s}") Duration maxDuration) {
+        this.permits = new Semaphore(maxConcurrent);
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.maxFanOut = maxFanOut;
+        this.maxDuration = maxDuration;
+    }
+
+    private final class TaskRecord {
+        final String id = UUID.randomUUID().toString();
+        final String name;
+        final Instant submittedAt = Instant.now();
+        final AtomicBoolean waiting = new AtomicBoolean(true);
+        final AtomicBoolean finished = new AtomicBoolean();
+        volatile TaskState state = TaskState.QUEUED;
+        volatile Instant startedAt;
+        volatile Instant finishedAt;
+        volatile Object result;
+        volatile String error;
+        volatile Future<?> future;
+
+        TaskRecord(String name) {
+            this.name = name;
+        }
+
+        TaskStatus status() {
+            return new TaskStatus(id, name, state, submittedAt, startedAt, finishedAt, result, error);
+        }
+    }
+
+    // For work sized by the caller: subtasks it will fan out to and how long each may take
+    public void checkLimits(long subtasks, Duration duration) {
+        if (subtasks > maxFanOut) {
+            throw new TaskLimitExceededException(subtasks + " subtasks exceed the limit of " + maxFanOut);
+        }
+        if (duration.compareTo(maxDuration) > 0) {
+            throw new TaskLimitExceededException(duration.toMillis() + " ms exceeds the limit of "
+                    + maxDuration.toMillis() + " ms");
+        }
+    }
+
+    // Fire-and-forget submission; poll with status(id)
+    public TaskStatus submit(String name, Callable<?> work) {
+        admit();
+        TaskRecord task = new TaskRecord(name);
+        tasks.put(task.id, task);
+        task.future = executor.submit(() -> execute(task, work));
+        return task.status();
+    }
+
+    // Runs the work on a virtual thread and waits for its result
+    public <T> T run(String name, Callable<T> work) {
+        admit();
+        TaskRecord task = new TaskRecord(name);
+        Future<T> future = executor.submit(() -> execute(task, work));
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for " + name);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Structured fan-out for composite jobs, to be called from inside a running task:
+    // subtasks share the parent's admission permit, the first failure cancels the
+    // remaining siblings, and cancelling the parent cancels all of them.
+    public <T> List<T> fanOut(List<? extends Callable<T>> subtasks) throws Exception {
+        checkLimits(subtasks.size(), Duration.ZERO);
+        ExecutorCompletionService<T> completion = new ExecutorCompletionService<>(executor);
+        List<Future<T>> futures = new ArrayList<>(subtasks.size());
+        try {
+            for (Callable<T> subtask : subtasks) {
+                futures.add(completion.submit(subtask));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    completion.take().get();
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception ex ? ex : e;
+                }
+            }
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(future.resultNow());
+            }
+            return results;
+        } finally {
+            for (Future<T> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    public Optional<TaskStatus> status(String id) {
+        return Optional.ofNullable(lookup(id)).map(TaskRecord::status);
+    }
+
+    public Optional<TaskStatus> cancel(String id) {
+        TaskRecord task = lookup(id);
+        if (task == null) {
+            return Optional.empty();
+        }
+        if (task.future != null && task.future.cancel(true) && task.state == TaskState.QUEUED) {
+            // A task cancelled before its thread got going never reaches execute()
+            leaveQueue(task);
+            finish(task, TaskState.CANCELLED, null, null);
+        }
+        return Optional.of(task.status());
+    }
+
+    public TaskMetrics metrics() {
+        return new TaskMetrics(maxConcurrent, running.get(), queued.get(), submitted.sum(), succeeded.sum(),
+                failed.sum(), cancelled.sum(), rejected.sum(), queueWait.snapshot(), execution.snapshot());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdownNow();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("Virtual-thread tasks still running after shutdown");
+        }
+    }
+
+    private void admit() {
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            rejected.increment();
+            throw new TaskRejectedException("Task queue is full (" + maxQueued + " waiting)");
+        }
+        submitted.increment();
+    }
+
+    private <T> T execute(TaskRecord task, Callable<T> work) throws Exception {
+        long queuedAt = System.nanoTime();
+        boolean acquired = false;
+        try {
+            permits.acquire();
+            acquired = true;
+        } catch (InterruptedException e) {
+            finish(task, TaskState.CANCELLED, null, null);
+            throw e;
+        } finally {
+            leaveQueue(task);
+        }
+
+        long startedAt = System.nanoTime();
+        queueWait.record(startedAt - queuedAt);
+        running.incrementAndGet();
+        task.startedAt = Instant.now();
+        task.state = TaskState.RUNNING;
+        try {
+            T result = work.call();
+            finish(task, TaskState.SUCCEEDED, result, null);
+            return result;
+        } catch (InterruptedException | CancellationException e) {
+            finish(task, TaskState.CANCELLED, null, null);
+            throw e;
+        } catch (Exception e) {
+            finish(task, TaskState.FAILED, null, e.toString());
+            throw e;
+        } finally {
+            execution.record(System.nanoTime() - startedAt);
+            running.decrementAndGet();
+            if (acquired) {
+                permits.release();
+            }
+        }
+    }
+
+    private void leaveQueue(TaskRecord task) {
+        if (task.waiting.compareAndSet(true, false)) {
+            queued.decrementAndGet();
+        }
+    }
+
+    private void finish(TaskRecord task, TaskState state, Object result, String error) {
+        if (!task.finished.compareAndSet(false, true)) {
+            return;
+        }
+        task.result = result;
+        task.error = error;
+        task.finishedAt = Instant.now();
+        task.state = state;
+        switch (state) {
+            case SUCCEEDED -> succeeded.increment();
+            case FAILED -> failed.increment();
+            case CANCELLED -> cancelled.increment();
+            default -> { }
+        }
+        // Tasks from run() were never tracked
+        tasks.computeIfPresent(task.id, (id, tracked) -> {
+            finished.put(id, tracked);
+            return null;
+        });
+    }
+
+    private TaskRecord lookup(String id) {
+        TaskRecord task = tasks.get(id);
+        return task != null ? task : finished.getIfPresent(id);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class TaskLimitExceededException extends RuntimeException {
+
+    public TaskLimitExceededException(String message) {
+        super(message);
+    }
+}
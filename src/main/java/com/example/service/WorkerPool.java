@@ -0,0 +1,409 @@
+package com.example.service;
+
+import java.lang.ref.Cleaner;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.metrics.LatencyHistogram;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// Fixed pool of platform worker threads for long-running jobs, replacing Thread.suspend/resume/stop
+// and finalization. Jobs cooperate through WorkerContext: pause takes effect at the next checkpoint,
+// cancellation and deadlines interrupt the worker, and resources registered with the context are
+// released by a Cleaner when the job ends instead of by finalize().
+@Slf4j
+@Service
+public class WorkerPool {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final int MAX_FINISHED_WORKERS = 10_000;
+
+    public enum WorkerState { QUEUED, RUNNING, PAUSED, SUCCEEDED, FAILED, CANCELLED, DEADLINE_EXCEEDED }
+
+    @FunctionalInterface
+    public interface Job<T> {
+        T run(WorkerContext context) throws Exception;
+    }
+
+    public interface WorkerContext {
+        // Blocks while the worker is paused; throws once it has been cancelled or is past its deadline
+        void checkpoint() throws InterruptedException;
+
+        Duration remaining();
+
+        // The cleanup runs exactly once, when the job ends (or, as a safety net, once the worker is
+        // unreachable); it must not capture anything that keeps the worker reachable
+        Cleaner.Cleanable register(Runnable cleanup);
+    }
+
+    public record WorkerStatus(String id, String name, WorkerState state, long checkpoints, Instant submittedAt,
+                               Instant deadline, Instant startedAt, Instant finishedAt, Object result,
+                               String error) {}
+
+    public record ResourceStats(long registered, long released, long pending) {}
+
+    public record WorkerMetrics(int poolSize, int running, int queued, int paused, long submitted, long succeeded,
+                                long failed, long cancelled, long deadlineExceeded, long rejected,
+                                ResourceStats resources, LatencyHistogram.Snapshot cancellationLatency,
+                                LatencyHistogram.Snapshot execution) {}
+
+    private final ThreadPoolExecutor executor;
+    private final ScheduledThreadPoolExecutor deadlines;
+    // Workers until they finish, bounded by the pool and its queue; then kept for status polls
+    private final Map<String, Worker> workers = new ConcurrentHashMap<>();
+    private final Cache<String, Worker> finished = Caffeine.newBuilder()
+            .maximumSize(MAX_FINISHED_WORKERS)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+    private final int poolSize;
+    private final Duration defaultDeadline;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger paused = new AtomicInteger();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder deadlineExceeded = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder resourcesRegistered = new LongAdder();
+    private final LongAdder resourcesReleased = new LongAdder();
+    private final LatencyHistogram cancellationLatency = new LatencyHistogram();
+    private final LatencyHistogram execution = new LatencyHistogram();
+
+    public WorkerPool(@Value("${app.workers.pool-size:8}") int poolSize,
+                      @Value("${app.workers.queue-capacity:256}") int queueCapacity,
+                      @Value("${app.workers.default-deadline:30s}") Duration defaultDeadline) {
+        this.poolSize = poolSize;
+        this.defaultDeadline = defaultDeadline;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("worker-", 0).daemon().factory());
+        this.deadlines = new ScheduledThreadPoolExecutor(1,
+                Thread.ofPlatform().name("worker-deadlines").daemon().factory());
+        this.deadlines.setRemoveOnCancelPolicy(true);
+    }
+
+    private final class Worker implements WorkerContext {
+        final String id = UUID.randomUUID().toString();
+        final String name;
+        final Instant submittedAt = Instant.now();
+        final Instant deadline;
+        final long deadlineNanos;
+        final ReentrantLock lock = new ReentrantLock();
+        final Condition resumed = lock.newCondition();
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicBoolean waiting = new AtomicBoolean(true);
+        final AtomicBoolean finished = new AtomicBoolean();
+        // System.nanoTime() of the first cancel request or of the deadline firing, 0 while neither happened
+        final AtomicLong stopRequestedAt = new AtomicLong();
+        final Queue<Cleaner.Cleanable> resources = new ConcurrentLinkedQueue<>();
+        volatile boolean pauseRequested;
+        volatile boolean pastDeadline;
+        volatile WorkerState state = WorkerState.QUEUED;
+        volatile long checkpoints;
+        volatile Instant startedAt;
+        volatile Instant finishedAt;
+        volatile Object result;
+        volatile String error;
+        volatile Future<?> future;
+        volatile ScheduledFuture<?> deadlineTimer;
+
+        Worker(String name, Duration timeout) {
+            this.name = name;
+            this.deadline = submittedAt.plus(timeout);
+            this.deadlineNanos = System.nanoTime() + timeout.toNanos();
+        }
+
+        @Override
+        public void checkpoint() throws InterruptedException {
+            checkpoints++;
+            // A stop that lands before future is set cannot interrupt the thread, so check the flag too
+            if (Thread.interrupted() || stopRequestedAt.get() != 0) {
+                throw new InterruptedException("Worker " + id + " was stopped");
+            }
+            if (!pauseRequested) {
+                return;
+            }
+            lock.lock();
+            try {
+                state = WorkerState.PAUSED;
+                paused.incrementAndGet();
+                try {
+                    while (pauseRequested) {
+                        resumed.await();
+                    }
+                } finally {
+                    paused.decrementAndGet();
+                    state = WorkerState.RUNNING;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public Duration remaining() {
+            return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+        }
+
+        @Override
+        public Cleaner.Cleanable register(Runnable cleanup) {
+            resourcesRegistered.increment();
+            Cleaner.Cleanable cleanable = CLEANER.register(this, new Release(cleanup, resourcesReleased));
+            resources.add(cleanable);
+            return cleanable;
+        }
+
+        WorkerStatus status() {
+            return new WorkerStatus(id, name, state, checkpoints, submittedAt, deadline, startedAt, finishedAt,
+                    result, error);
+        }
+    }
+
+    // Static so the cleanup never holds on to the worker it belongs to
+    private static final class Release implements Runnable {
+        private final Runnable cleanup;
+        private final LongAdder released;
+
+        Release(Runnable cleanup, LongAdder released) {
+            this.cleanup = cleanup;
+            this.released = released;
+        }
+
+        @Override
+        public void run() {
+            try {
+                cleanup.run();
+            } catch (RuntimeException e) {
+                log.warn("Worker resource cleanup failed", e);
+            } finally {
+                released.increment();
+            }
+        }
+    }
+
+    // deadline: how long the job may take from submission, the configured default when null
+    public WorkerStatus submit(String name, Duration deadline, Job<?> job) {
+        Worker worker = new Worker(name, deadline == null ? defaultDeadline : deadline);
+        // Tracked before it can run, so finish() always finds it
+        workers.put(worker.id, worker);
+        queued.incrementAndGet();
+        worker.deadlineTimer = deadlines.schedule(() -> expire(worker), worker.deadlineNanos - System.nanoTime(),
+                TimeUnit.NANOSECONDS);
+        try {
+            worker.future = executor.submit(() -> execute(worker, job));
+        } catch (RejectedExecutionException e) {
+            worker.deadlineTimer.cancel(false);
+            workers.remove(worker.id);
+            queued.decrementAndGet();
+            rejected.increment();
+            throw new TaskRejectedException("Worker queue is full (" + executor.getQueue().size() + " waiting)");
+        }
+        submitted.increment();
+        return worker.status();
+    }
+
+    public Optional<WorkerStatus> status(String id) {
+        return Optional.ofNullable(lookup(id)).map(Worker::status);
+    }
+
+    // Takes effect at the worker's next checkpoint
+    public Optional<WorkerStatus> pause(String id) {
+        Worker worker = lookup(id);
+        if (worker == null) {
+            return Optional.empty();
+        }
+        if (!worker.finished.get()) {
+            worker.pauseRequested = true;
+        }
+        return Optional.of(worker.status());
+    }
+
+    public Optional<WorkerStatus> resume(String id) {
+        Worker worker = lookup(id);
+        if (worker == null) {
+            return Optional.empty();
+        }
+        worker.lock.lock();
+        try {
+            worker.pauseRequested = false;
+            worker.resumed.signalAll();
+        } finally {
+            worker.lock.unlock();
+        }
+        return Optional.of(worker.status());
+    }
+
+    // Interrupts the worker; a paused worker is woken by the interrupt and stops without resuming
+    public Optional<WorkerStatus> cancel(String id) {
+        Worker worker = lookup(id);
+        if (worker == null) {
+            return Optional.empty();
+        }
+        stop(worker);
+        return Optional.of(worker.status());
+    }
+
+    // Waits up to timeout for the worker to end and returns its latest status either way
+    public Optional<WorkerStatus> await(String id, Duration timeout) throws InterruptedException {
+        Worker worker = lookup(id);
+        if (worker == null) {
+            return Optional.empty();
+        }
+        worker.done.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        return Optional.of(worker.status());
+    }
+
+    public ResourceStats resources() {
+        long registered = resourcesRegistered.sum();
+        long released = resourcesReleased.sum();
+        return new ResourceStats(registered, released, registered - released);
+    }
+
+    public WorkerMetrics metrics() {
+        return new WorkerMetrics(poolSize, running.get(), queued.get(), paused.get(), submitted.sum(),
+                succeeded.sum(), failed.sum(), cancelled.sum(), deadlineExceeded.sum(), rejected.sum(), resources(),
+                cancellationLatency.snapshot(), execution.snapshot());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        deadlines.shutdownNow();
+        executor.shutdownNow();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("Workers still running after shutdown");
+        }
+    }
+
+    private void expire(Worker worker) {
+        worker.pastDeadline = true;
+        stop(worker);
+    }
+
+    private void stop(Worker worker) {
+        if (worker.finished.get()) {
+            return;
+        }
+        worker.stopRequestedAt.compareAndSet(0, System.nanoTime());
+        Future<?> future = worker.future;
+        if (future != null && future.cancel(true) && worker.waiting.get()) {
+            // Cancelled before a worker thread picked it up, so execute() will never run
+            leaveQueue(worker);
+            finish(worker, stoppedState(worker), null, null);
+        }
+    }
+
+    private Object execute(Worker worker, Job<?> job) throws Exception {
+        leaveQueue(worker);
+        if (worker.stopRequestedAt.get() != 0) {
+            finish(worker, stoppedState(worker), null, null);
+            return null;
+        }
+        long startedAt = System.nanoTime();
+        running.incrementAndGet();
+        worker.startedAt = Instant.now();
+        worker.state = WorkerState.RUNNING;
+        WorkerState outcome = WorkerState.FAILED;
+        Object result = null;
+        String error = null;
+        try {
+            result = job.run(worker);
+            outcome = WorkerState.SUCCEEDED;
+            return result;
+        } catch (InterruptedException | CancellationException e) {
+            outcome = stoppedState(worker);
+            throw e;
+        } catch (Exception e) {
+            // Jobs often wrap the interrupt (ClosedByInterruptException, UncheckedIOException, ...)
+            if (worker.stopRequestedAt.get() != 0) {
+                outcome = stoppedState(worker);
+            } else {
+                error = e.toString();
+            }
+            throw e;
+        } finally {
+            // Counted out before finish() releases anyone waiting on the worker
+            execution.record(System.nanoTime() - startedAt);
+            running.decrementAndGet();
+            finish(worker, outcome, result, error);
+        }
+    }
+
+    private WorkerState stoppedState(Worker worker) {
+        return worker.pastDeadline ? WorkerState.DEADLINE_EXCEEDED : WorkerState.CANCELLED;
+    }
+
+    private void leaveQueue(Worker worker) {
+        if (worker.waiting.compareAndSet(true, false)) {
+            queued.decrementAndGet();
+        }
+    }
+
+    private void finish(Worker worker, WorkerState state, Object result, String error) {
+        if (!worker.finished.compareAndSet(false, true)) {
+            return;
+        }
+        ScheduledFuture<?> timer = worker.deadlineTimer;
+        if (timer != null) {
+            timer.cancel(false);
+        }
+        Cleaner.Cleanable resource;
+        while ((resource = worker.resources.poll()) != null) {
+            resource.clean();
+        }
+        worker.result = result;
+        worker.error = error;
+        worker.finishedAt = Instant.now();
+        worker.state = state;
+        switch (state) {
+            case SUCCEEDED -> succeeded.increment();
+            case FAILED -> failed.increment();
+            case CANCELLED -> cancelled.increment();
+            case DEADLINE_EXCEEDED -> deadlineExceeded.increment();
+            default -> { }
+        }
+        long stopRequestedAt = worker.stopRequestedAt.get();
+        if (stopRequestedAt != 0 && state != WorkerState.SUCCEEDED && state != WorkerState.FAILED) {
+            cancellationLatency.record(System.nanoTime() - stopRequestedAt);
+        }
+        workers.computeIfPresent(worker.id, (id, tracked) -> {
+            finished.put(id, tracked);
+            return null;
+        });
+        worker.done.countDown();
+    }
+
+    private Worker lookup(String id) {
+        Worker worker = workers.get(id);
+        return worker != null ? worker : finished.getIfPresent(id);
+    }
+}
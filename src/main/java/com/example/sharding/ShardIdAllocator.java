@@ -0,0 +1,57 @@
+package com.example.sharding;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Cluster-wide student ids. The shard has to be known before the insert, so ids can no longer come
+// from an identity column; instead blocks of ids are reserved from a counter row in shard 0 with a
+// single UPDATE and handed out from memory. Ids stay unique across restarts and increase over
+// time, which keyset paging over all shards relies on; a restart skips the rest of its block.
+public class ShardIdAllocator {
+
+    private final JdbcTemplate shard0;
+    private final int blockSize;
+    // JDBC while holding the lock, so no synchronized (virtual threads would pin)
+    private final ReentrantLock lock = new ReentrantLock();
+    private long next;
+    private long limit;
+
+    public ShardIdAllocator(JdbcTemplate shard0, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("app.sharding.id-block-size must be positive");
+        }
+        this.shard0 = shard0;
+        this.blockSize = blockSize;
+        shard0.execute("CREATE TABLE IF NOT EXISTS student_id_block (next_id BIGINT NOT NULL)");
+        shard0.update("INSERT INTO student_id_block SELECT 1 WHERE NOT EXISTS (SELECT * FROM student_id_block)");
+    }
+
+    public long next() {
+        return next(1)[0];
+    }
+
+    public long[] next(int count) {
+        long[] ids = new long[count];
+        lock.lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                if (next == limit) {
+                    reserve(Math.max(blockSize, count - i));
+                }
+                ids[i] = next++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return ids;
+    }
+
+    private void reserve(int size) {
+        Long end = shard0.queryForObject(
+                "SELECT next_id FROM FINAL TABLE (UPDATE student_id_block SET next_id = next_id + ?)",
+                Long.class, size);
+        limit = end;
+        next = end - size;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.sharding;
+
+// Maps a student id to its shard with Lamping and Veach's jump consistent hash: ids spread evenly
+// over the shards, and going from n to n + 1 shards moves only 1/(n + 1) of them (all to the new
+// shard), so a rebalance copies as few rows as possible.
+public final class ShardRouter {
+
+    private ShardRouter() {
+    }
+
+    public static int shardFor(long id, int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("shards must be positive: " + shards);
+        }
+        long key = id;
+        long bucket = -1;
+        long next = 0;
+        while (next < shards) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+}
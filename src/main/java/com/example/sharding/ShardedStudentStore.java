@@ -0,0 +1,409 @@
+package com.example.sharding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import com.example.datasource.InstrumentedDataSource;
+import com.example.datasource.JdbcInstrumentation;
+import com.example.entities.Student;
+import com.example.metrics.SqlMetrics;
+import com.example.service.RebalanceConflictException;
+import com.example.service.StudentStore;
+import com.example.service.StudentsImportedEvent;
+import com.example.service.TaskExecutionService;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// Students spread over app.sharding.shards H2 databases by ShardRouter, each behind its own
+// connection pool, so writes no longer queue on a single embedded database. Lookups by id go to
+// one shard; listing and lookups by name ask every shard in parallel and merge the results by id.
+// When enabled this is the StudentStore, so everything that reads or writes students comes here,
+// and every committed write is announced as a StudentsImportedEvent for the caches, the search
+// index, the snapshot and the change feed.
+// Every operation holds the topology read lock. A rebalance copies and deletes rows under the
+// read lock as well, page by page, and only takes the write lock for the moments it switches the
+// topology, so reads and writes keep going while rows move.
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardedStudentStore implements StudentStore {
+
+    static final String CREATE_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS student (id BIGINT PRIMARY KEY, name VARCHAR(255))";
+    static final String CREATE_INDEX_SQL = "CREATE INDEX IF NOT EXISTS idx_student_name ON student (name)";
+    static final String INSERT_SQL = "INSERT INTO student (id, name) VALUES (?, ?)";
+    // Upsert, so a rebalance interrupted between copy and delete can simply be run again
+    static final String MERGE_SQL = "MERGE INTO student (id, name) KEY (id) VALUES (?, ?)";
+    static final String DELETE_SQL = "DELETE FROM student WHERE id = ?";
+    static final String FIND_SQL = "SELECT id, name FROM student WHERE id = ?";
+    static final String PAGE_SQL = "SELECT id, name FROM student WHERE id > ? ORDER BY id LIMIT ?";
+    static final String BY_NAME_SQL = "SELECT id, name FROM student WHERE name = ? ORDER BY id";
+    static final String COUNT_SQL = "SELECT COUNT(*) FROM student";
+
+    private static final RowMapper<Student> STUDENT = (rs, rowNum) -> new Student(rs.getLong(1), rs.getString(2));
+
+    public record ShardStats(int shard, String url, long rows, int activeConnections, int idleConnections,
+                             int waitingThreads) {}
+
+    public record RebalanceResult(int fromShards, int toShards, long scanned, long moved, long elapsedMillis,
+                                  List<ShardStats> shards) {}
+
+    private record Shard(int index, String url, HikariDataSource pool, JdbcTemplate jdbc) {}
+
+    // The open shards and how ids are routed over them. While a rebalance copies rows, count is
+    // already the new shard count and previousCount the old one: new rows go to their new shard and
+    // lookups by id fall back to the old one. Shards from count on stay open until a rebalance has
+    // emptied them, and a shard may hold copies of rows that live elsewhere until then too.
+    private record Topology(List<Shard> shards, int count, int previousCount) {
+
+        Shard home(long id) {
+            return shards.get(ShardRouter.shardFor(id, count));
+        }
+
+        boolean copying() {
+            return previousCount != count;
+        }
+    }
+
+    private final ShardingProperties properties;
+    private final SqlMetrics sqlMetrics;
+    private final JdbcInstrumentation instrumentation;
+    private final TaskExecutionService taskExecutionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReadWriteLock topologyLock = new ReentrantReadWriteLock();
+    // Guarded by topologyLock; replaced, never modified, and only by a rebalance or close
+    private Topology topology;
+    // Held for a whole rebalance, so only one runs at a time
+    private final Lock rebalancing = new ReentrantLock();
+    private final ShardIdAllocator ids;
+    private final int maxPageSize;
+
+    public ShardedStudentStore(ShardingProperties properties, SqlMetrics sqlMetrics,
+                               @Value("${app.datasource.instrumentation:timing}") JdbcInstrumentation instrumentation,
+                               TaskExecutionService taskExecutionService,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${app.students.page.max-size:1000}") int maxPageSize) {
+        if (properties.shards() < 1 || properties.shards() > properties.maxShards()) {
+            throw new IllegalArgumentException("app.sharding.shards must be between 1 and app.sharding.max-shards ("
+                    + properties.maxShards() + ")");
+        }
+        this.properties = properties;
+        this.sqlMetrics = sqlMetrics;
+        this.instrumentation = instrumentation;
+        this.taskExecutionService = taskExecutionService;
+        this.eventPublisher = eventPublisher;
+        this.maxPageSize = maxPageSize;
+        List<Shard> shards = new ArrayList<>();
+        for (int i = 0; i < properties.shards(); i++) {
+            shards.add(open(i));
+        }
+        this.topology = new Topology(List.copyOf(shards), shards.size(), shards.size());
+        this.ids = new ShardIdAllocator(shards.getFirst().jdbc(), properties.idBlockSize());
+        log.info("Sharded student store on {} shards ({})", shards.size(), properties.urlTemplate());
+    }
+
+    private Shard open(int index) {
+        String url = properties.url(index);
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("students-shard-" + index);
+        config.setJdbcUrl(url);
+        config.setMaximumPoolSize(properties.poolSize());
+        config.setMinimumIdle(properties.minIdle());
+        config.setConnectionTimeout(properties.connectionTimeout().toMillis());
+        HikariDataSource pool = new HikariDataSource(config);
+        JdbcTemplate jdbc = new JdbcTemplate(new InstrumentedDataSource(pool, sqlMetrics, instrumentation));
+        jdbc.execute(CREATE_TABLE_SQL);
+        jdbc.execute(CREATE_INDEX_SQL);
+        return new Shard(index, url, pool, jdbc);
+    }
+
+    public int shardCount() {
+        return read(Topology::count);
+    }
+
+    public int maxShards() {
+        return properties.maxShards();
+    }
+
+    // Autocommit, so the row is committed when it is announced
+    @Override
+    public Student save(String name) {
+        Student saved = read(current -> {
+            long id = ids.next();
+            current.home(id).jdbc().update(INSERT_SQL, id, name);
+            return new Student(id, name);
+        });
+        eventPublisher.publishEvent(new StudentsImportedEvent(List.of(saved)));
+        return saved;
+    }
+
+    // Groups the names by target shard and writes the groups in parallel, one batch per shard;
+    // announced once every shard has committed its batch
+    @Override
+    public List<Student> saveAll(List<String> names) {
+        if (names.isEmpty()) {
+            return List.of();
+        }
+        List<Student> students = read(current -> {
+            long[] allocated = ids.next(names.size());
+            Map<Integer, List<Object[]>> byShard = new TreeMap<>();
+            List<Student> saved = new ArrayList<>(names.size());
+            for (int i = 0; i < names.size(); i++) {
+                long id = allocated[i];
+                byShard.computeIfAbsent(ShardRouter.shardFor(id, current.count()), k -> new ArrayList<>())
+                        .add(new Object[]{id, names.get(i)});
+                saved.add(new Student(id, names.get(i)));
+            }
+            List<Callable<int[]>> writes = new ArrayList<>();
+            byShard.forEach((shard, rows) ->
+                    writes.add(() -> current.shards().get(shard).jdbc().batchUpdate(INSERT_SQL, rows)));
+            fanOut("shards.saveAll", writes);
+            return saved;
+        });
+        eventPublisher.publishEvent(new StudentsImportedEvent(students));
+        return students;
+    }
+
+    // A row is only deleted from its old shard once the copy is complete and lookups have stopped
+    // falling back, so during a rebalance it is always on one of the two
+    @Override
+    public Optional<Student> findById(long id) {
+        return read(current -> {
+            Shard home = current.home(id);
+            Optional<Student> found = find(home, id);
+            if (found.isEmpty() && current.copying()) {
+                Shard previous = current.shards().get(ShardRouter.shardFor(id, current.previousCount()));
+                if (previous != home) {
+                    found = find(previous, id);
+                }
+            }
+            return found;
+        });
+    }
+
+    private static Optional<Student> find(Shard shard, long id) {
+        return shard.jdbc().query(FIND_SQL, STUDENT, id).stream().findFirst();
+    }
+
+    // Keyset page across all shards: each shard returns its first limit rows after afterId and the
+    // merge keeps the limit smallest distinct ids, so pages are identical to those of a single
+    // database, rebalance or not
+    @Override
+    public List<Student> findAfter(long afterId, int limit) {
+        return gather("shards.list", limit, jdbc -> jdbc.query(PAGE_SQL, STUDENT, afterId, limit));
+    }
+
+    // Pages of maxPageSize rows, each read when the previous one has been consumed
+    @Override
+    public Stream<Student> streamAll() {
+        return Stream.iterate(findAfter(0, maxPageSize), page -> !page.isEmpty(),
+                        page -> page.size() < maxPageSize ? List.of() : findAfter(page.getLast().getId(), maxPageSize))
+                .flatMap(List::stream);
+    }
+
+    @Override
+    public List<Student> findByName(String name) {
+        return gather("shards.byName", Integer.MAX_VALUE, jdbc -> jdbc.query(BY_NAME_SQL, STUDENT, name));
+    }
+
+    // Rows a rebalance has copied but not yet deleted from their old shard are counted twice
+    @Override
+    public long count() {
+        return stats().stream().mapToLong(ShardStats::rows).sum();
+    }
+
+    public List<ShardStats> stats() {
+        return read(current -> current.shards().stream().map(ShardedStudentStore::stats).toList());
+    }
+
+    private static ShardStats stats(Shard shard) {
+        Long rows = shard.jdbc().queryForObject(COUNT_SQL, Long.class);
+        HikariPoolMXBean pool = shard.pool().getHikariPoolMXBean();
+        return new ShardStats(shard.index(), shard.url(), rows == null ? 0 : rows, pool.getActiveConnections(),
+                pool.getIdleConnections(), pool.getThreadsAwaitingConnection());
+    }
+
+    // Moves every row whose shard differs under the new count, while reads and writes go on:
+    //  1. the new shards are opened, and under the write lock writes switch to the new count, with
+    //     lookups by id falling back to the old shard;
+    //  2. every row not on its new shard is upserted there, a page at a time under the read lock;
+    //  3. under the write lock, lookups stop falling back;
+    //  4. the copied rows are deleted from the shards they came from, again a page at a time;
+    //  5. under the write lock, the shards beyond the new count, now empty, are dropped and closed.
+    // Source shards are worked on in parallel. A failure leaves at worst duplicates, which lookups
+    // ignore and which running the rebalance again removes; until a failed copy has been finished,
+    // a rebalance to a different count is refused.
+    public RebalanceResult rebalance(int targetShards) {
+        if (targetShards < 1 || targetShards > properties.maxShards()) {
+            throw new IllegalArgumentException("shards must be between 1 and " + properties.maxShards() + ": "
+                    + targetShards);
+        }
+        if (!rebalancing.tryLock()) {
+            throw new RebalanceConflictException("A rebalance is already running");
+        }
+        try {
+            long start = System.nanoTime();
+            Topology before = read(current -> current);
+            if (before.copying() && before.count() != targetShards) {
+                throw new RebalanceConflictException("The rebalance to " + before.count()
+                        + " shards did not finish; run it again before choosing another count");
+            }
+            int fromShards = before.previousCount();
+            List<Shard> all = new ArrayList<>(before.shards());
+            for (int i = all.size(); i < targetShards; i++) {
+                all.add(open(i));
+            }
+            List<Shard> shards = List.copyOf(all);
+            replace(new Topology(shards, targetShards, fromShards));
+            long[] copied = sweep("shards.rebalance.copy", shards, targetShards, false);
+            replace(new Topology(shards, targetShards, targetShards));
+            sweep("shards.rebalance.delete", shards, targetShards, true);
+            List<Shard> kept = shards.subList(0, targetShards);
+            replace(new Topology(List.copyOf(kept), targetShards, targetShards));
+            shards.subList(targetShards, shards.size()).forEach(shard -> shard.pool().close());
+
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            log.info("Rebalanced {} students from {} to {} shards ({} scanned) in {} ms",
+                    copied[1], fromShards, targetShards, copied[0], elapsedMillis);
+            return new RebalanceResult(fromShards, targetShards, copied[0], copied[1], elapsedMillis, stats());
+        } finally {
+            rebalancing.unlock();
+        }
+    }
+
+    // One pass over every shard in parallel for the rows that do not belong there under
+    // targetShards: copied to their shard, or deleted. Returns the rows scanned and moved.
+    private long[] sweep(String name, List<Shard> shards, int targetShards, boolean delete) {
+        List<Callable<long[]>> passes = new ArrayList<>(shards.size());
+        for (Shard source : shards) {
+            passes.add(() -> sweep(source, shards, targetShards, delete));
+        }
+        long[] total = new long[2];
+        for (long[] counts : fanOut(name, passes)) {
+            total[0] += counts[0];
+            total[1] += counts[1];
+        }
+        return total;
+    }
+
+    // A page at a time under the read lock, so close() cannot shut a pool in the middle of one
+    private long[] sweep(Shard source, List<Shard> shards, int targetShards, boolean delete) {
+        long[] counts = new long[2];
+        long[] afterId = {0};
+        int batchSize = properties.rebalanceBatchSize();
+        while (true) {
+            int read = read(current -> {
+                List<Student> page = source.jdbc().query(PAGE_SQL, STUDENT, afterId[0], batchSize);
+                if (page.isEmpty()) {
+                    return 0;
+                }
+                afterId[0] = page.getLast().getId();
+                Map<Integer, List<Object[]>> byTarget = new TreeMap<>();
+                for (Student student : page) {
+                    int target = ShardRouter.shardFor(student.getId(), targetShards);
+                    if (target != source.index()) {
+                        byTarget.computeIfAbsent(target, k -> new ArrayList<>()).add(delete
+                                ? new Object[]{student.getId()}
+                                : new Object[]{student.getId(), student.getName()});
+                    }
+                }
+                byTarget.forEach((target, rows) -> {
+                    if (delete) {
+                        source.jdbc().batchUpdate(DELETE_SQL, rows);
+                    } else {
+                        shards.get(target).jdbc().batchUpdate(MERGE_SQL, rows);
+                    }
+                    counts[1] += rows.size();
+                });
+                return page.size();
+            });
+            if (read == 0) {
+                return counts;
+            }
+            counts[0] += read;
+        }
+    }
+
+    private List<Student> gather(String name, int limit, Function<JdbcTemplate, List<Student>> query) {
+        return read(current -> {
+            List<Callable<List<Student>>> queries = new ArrayList<>(current.shards().size());
+            for (Shard shard : current.shards()) {
+                queries.add(() -> query.apply(shard.jdbc()));
+            }
+            // By id, so a row that is on two shards in the middle of a rebalance is listed once
+            Map<Long, Student> byId = new TreeMap<>();
+            for (List<Student> students : fanOut(name, queries)) {
+                students.forEach(student -> byId.putIfAbsent(student.getId(), student));
+            }
+            return byId.values().stream().limit(limit).toList();
+        });
+    }
+
+    // On virtual threads through TaskExecutionService; the first failing shard cancels the others
+    private <T> List<T> fanOut(String name, List<Callable<T>> work) {
+        if (work.size() == 1) {
+            try {
+                return List.of(work.getFirst().call());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return taskExecutionService.run(name, () -> taskExecutionService.fanOut(work));
+    }
+
+    private <T> T read(Function<Topology, T> operation) {
+        Lock lock = topologyLock.readLock();
+        lock.lock();
+        try {
+            return operation.apply(topology);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Waits for the operations in flight, which may still be routing with the old topology
+    private void replace(Topology next) {
+        Lock lock = topologyLock.writeLock();
+        lock.lock();
+        try {
+            topology = next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        Lock lock = topologyLock.writeLock();
+        lock.lock();
+        try {
+            topology.shards().forEach(shard -> shard.pool().close());
+            topology = new Topology(List.of(), 0, 0);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.sharding;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// app.sharding.*: {shard} in url-template is replaced by the shard index. Each shard gets its own
+// pool of pool-size connections; ids are handed out id-block-size at a time from shard 0.
+// max-shards bounds how many databases and pools a rebalance may open.
+@ConfigurationProperties("app.sharding")
+public record ShardingProperties(@DefaultValue("false") boolean enabled,
+                                 @DefaultValue("4") int shards,
+                                 @DefaultValue("16") int maxShards,
+                                 @DefaultValue("jdbc:h2:mem:students-shard-{shard};DB_CLOSE_DELAY=-1")
+                                 String urlTemplate,
+                                 @DefaultValue("8") int poolSize,
+                                 @DefaultValue("1") int minIdle,
+                                 @DefaultValue("5s") Duration connectionTimeout,
+                                 @DefaultValue("1000") int idBlockSize,
+                                 @DefaultValue("1000") int rebalanceBatchSize) {
+
+    public String url(int shard) {
+        return urlTemplate.replace("{shard}", Integer.toString(shard));
+    }
+}
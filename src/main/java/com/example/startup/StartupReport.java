@@ -0,0 +1,69 @@
+package com.example.startup;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Ranks bean instantiations by how long they took, from the timeline App.main buffers.
+// Times are inclusive: a bean that pulls in its dependencies is charged for them too,
+// which is what matters when deciding what to make lazy.
+@Slf4j
+@Component
+public class StartupReport {
+
+    private static final int LOGGED_BEANS = 10;
+
+    private final ApplicationStartup applicationStartup;
+    private volatile Duration readyAfter;
+
+    public StartupReport(ApplicationStartup applicationStartup) {
+        this.applicationStartup = applicationStartup;
+    }
+
+    public record BeanTiming(String bean, double millis) {}
+
+    // readyMillis is null until the application has finished starting
+    public record Report(Double readyMillis, int recordedSteps, List<BeanTiming> slowestBeans) {}
+
+    @EventListener
+    void onReady(ApplicationReadyEvent event) {
+        readyAfter = event.getTimeTaken();
+        Report report = report(LOGGED_BEANS);
+        log.info("Application ready in {} ms; slowest bean initializations: {}",
+                report.readyMillis(), report.slowestBeans());
+    }
+
+    public Report report(int limit) {
+        Duration ready = readyAfter;
+        Double readyMillis = ready == null ? null : ready.toNanos() / 1_000_000.0;
+        if (!(applicationStartup instanceof BufferingApplicationStartup buffering)) {
+            return new Report(readyMillis, 0, List.of());
+        }
+        List<TimelineEvent> events = buffering.getBufferedTimeline().getEvents();
+        List<BeanTiming> slowest = events.stream()
+                .sorted(Comparator.comparing(TimelineEvent::getDuration).reversed())
+                .limit(limit)
+                .map(e -> new BeanTiming(beanName(e.getStartupStep()), e.getDuration().toNanos() / 1_000_000.0))
+                .toList();
+        return new Report(readyMillis, events.size(), slowest);
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+}
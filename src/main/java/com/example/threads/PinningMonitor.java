@@ -0,0 +1,114 @@
+package com.example.threads;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+// Watches JFR jdk.VirtualThreadPinned events while requests run on virtual threads.
+// A virtual thread that blocks inside a synchronized block (H2 and some JDBC drivers do
+// this) holds on to its carrier thread, which quietly caps concurrency again; this
+// counts those events per call site so the offenders show up at GET /threads.
+// Eager even under lazy initialization (faststart): pinning before the first request counts too.
+@Slf4j
+@Component
+@Lazy(false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class PinningMonitor {
+
+    public static final int MAX_SITES = 100;
+    public static final String OTHER_SITES = "<other>";
+
+    private final Duration threshold;
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+    private final LongAdder events = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+    private RecordingStream stream;
+
+    public PinningMonitor(@Value("${app.threads.pinning-threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    private static final class Site {
+        final LongAdder count = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+    }
+
+    public record PinnedSite(String frame, long count, double totalMillis) {}
+
+    public record PinningStats(long events, double totalPinnedMillis, List<PinnedSite> topSites) {}
+
+    @PostConstruct
+    void start() {
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        stream.startAsync();
+        log.info("Virtual thread pinning monitor started (threshold {})", threshold);
+    }
+
+    @PreDestroy
+    void stop() {
+        stream.close();
+    }
+
+    public PinningStats stats() {
+        List<PinnedSite> top = sites.entrySet().stream()
+                .map(e -> new PinnedSite(e.getKey(), e.getValue().count.sum(), e.getValue().nanos.sum() / 1e6))
+                .sorted(Comparator.comparingDouble(PinnedSite::totalMillis).reversed())
+                .limit(20)
+                .toList();
+        return new PinningStats(events.sum(), pinnedNanos.sum() / 1e6, top);
+    }
+
+    private void onPinned(RecordedEvent event) {
+        record(culprit(event), event.getDuration().toNanos());
+    }
+
+    // Sites past MAX_SITES are folded into one "<other>" entry, so an unbounded number of
+    // distinct frames (e.g. generated code) cannot grow the map
+    public void record(String frame, long nanos) {
+        events.increment();
+        pinnedNanos.add(nanos);
+
+        Site site = sites.get(frame);
+        if (site == null) {
+            String key = sites.size() >= MAX_SITES ? OTHER_SITES : frame;
+            site = sites.computeIfAbsent(key, f -> {
+                log.warn("Virtual thread pinned for {} ms at {}", nanos / 1_000_000, f);
+                return new Site();
+            });
+        }
+        site.count.increment();
+        site.nanos.add(nanos);
+    }
+
+    // First frame outside the JDK, i.e. the library or application code that blocked
+    private static String culprit(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "<unknown>";
+        }
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return "<jdk>";
+    }
+}
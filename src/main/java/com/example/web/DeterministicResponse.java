@@ -0,0 +1,19 @@
+package com.example.web;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a GET handler whose response body depends only on its path and query parameters.
+// Successful responses are kept by HttpResponseCache and replayed (or answered with 304)
+// without invoking the handler again.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface DeterministicResponse {
+
+    // Cache-Control max-age sent to clients, in seconds
+    int maxAge() default 300;
+}
@@ -0,0 +1,123 @@
+package com.example.web;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+// Serialized responses of @DeterministicResponse handlers, bounded by total body bytes.
+// Request paths that have stored a response are remembered separately, so a GET for any other
+// path is passed on without building a key.
+@Component
+public class HttpResponseCache {
+
+    static final String DETERMINISTIC_ATTRIBUTE = HttpResponseCache.class.getName() + ".deterministic";
+    private static final int MAX_CACHED_PATHS = 10_000;
+
+    private final Cache<String, CachedResponse> responses;
+    private final Cache<String, Boolean> cachedPaths;
+    private final int maxEntryBytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public HttpResponseCache(@Value("${app.http-cache.max-size:16MB}") DataSize maxSize,
+                             @Value("${app.http-cache.max-entry-size:256KB}") DataSize maxEntrySize,
+                             @Value("${app.http-cache.ttl:10m}") Duration ttl) {
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, CachedResponse response) -> key.length() + response.body().length)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.cachedPaths = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_PATHS)
+                .expireAfterWrite(ttl)
+                .build();
+        this.maxEntryBytes = (int) Math.min(maxEntrySize.toBytes(), Integer.MAX_VALUE - 8);
+    }
+
+    // lastModified is in epoch milliseconds, truncated to whole seconds like the HTTP header
+    public record CachedResponse(byte[] body, String contentType, String etag, long lastModified,
+                                 int maxAge, String pattern) {}
+
+    public record ResponseCacheStats(long entries, long weightBytes, long hits, long misses, double hitRate,
+                                     long evictions) {}
+
+    // Whether a response was stored for this path; a false negative only costs a render
+    public boolean mayContain(HttpServletRequest request) {
+        return cachedPaths.getIfPresent(request.getRequestURI()) != null;
+    }
+
+    // Lookups happen before the handler is known, so they are not counted as misses;
+    // a miss is a deterministic response that had to be rendered and stored
+    public CachedResponse get(String key) {
+        CachedResponse response = responses.asMap().get(key);
+        if (response != null) {
+            hits.increment();
+        }
+        return response;
+    }
+
+    public CachedResponse put(HttpServletRequest request, byte[] body, String contentType, int maxAge,
+                              String pattern) {
+        String etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+        long lastModified = System.currentTimeMillis() / 1000 * 1000;
+        CachedResponse response = new CachedResponse(body, contentType, etag, lastModified, maxAge, pattern);
+        responses.put(key(request), response);
+        cachedPaths.put(request.getRequestURI(), Boolean.TRUE);
+        misses.increment();
+        return response;
+    }
+
+    public int maxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    public ResponseCacheStats stats() {
+        long weight = responses.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L);
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        double hitRate = hitCount + missCount == 0 ? 1.0 : (double) hitCount / (hitCount + missCount);
+        return new ResponseCacheStats(responses.estimatedSize(), weight, hitCount, missCount, hitRate,
+                responses.stats().evictionCount());
+    }
+
+    public void clear() {
+        responses.invalidateAll();
+        cachedPaths.invalidateAll();
+    }
+
+    // Path plus query parameters sorted by name, so ?y=2&x=1 and ?x=1&y=2 share an entry, and the
+    // Accept header, since it picks the representation
+    static String key(HttpServletRequest request) {
+        Map<String, String[]> parameters = new TreeMap<>(request.getParameterMap());
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        char separator = '?';
+        for (Map.Entry<String, String[]> parameter : parameters.entrySet()) {
+            for (String value : parameter.getValue()) {
+                key.append(separator).append(encode(parameter.getKey())).append('=').append(encode(value));
+                separator = '&';
+            }
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        key.append('#').append(accept == null ? "" : accept.strip());
+        return key.toString();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
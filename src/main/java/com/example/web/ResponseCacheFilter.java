@@ -0,0 +1,277 @@
+package com.example.web;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.FastByteArrayOutputStream;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.example.web.HttpResponseCache.CachedResponse;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+// Serves GET requests for @DeterministicResponse handlers from HttpResponseCache.
+// A hit never reaches the DispatcherServlet: the stored bytes are replayed, or a 304 is sent when
+// the client's If-None-Match / If-Modified-Since still matches. Only paths that already stored a
+// response are looked up. On a miss the response is only buffered if ResponseCacheInterceptor
+// flagged the handler by the time the body is written; every other response (exports, streams)
+// passes straight through, and so does one written after the request went async.
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private final HttpResponseCache cache;
+
+    public ResponseCacheFilter(HttpResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CachedResponse cached = cache.mayContain(request) ? cache.get(HttpResponseCache.key(request)) : null;
+        if (cached != null) {
+            // Keeps the hit attributed to its endpoint in the request metrics
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, cached.pattern());
+            send(request, response, cached, "HIT");
+            return;
+        }
+
+        CapturingResponse capturing = new CapturingResponse(request, response, cache.maxEntryBytes());
+        chain.doFilter(request, capturing);
+        if (request.isAsyncStarted()) {
+            // The body is written later, after this filter has returned
+            capturing.passThrough();
+            return;
+        }
+        if (!capturing.isCapturing()) {
+            return;
+        }
+        if (capturing.getStatus() == HttpServletResponse.SC_OK) {
+            DeterministicResponse deterministic =
+                    (DeterministicResponse) request.getAttribute(HttpResponseCache.DETERMINISTIC_ATTRIBUTE);
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            CachedResponse stored = cache.put(request, capturing.body(), capturing.getContentType(),
+                    deterministic.maxAge(), pattern == null ? null : pattern.toString());
+            send(request, response, stored, "MISS");
+        } else {
+            capturing.writeBuffered();
+        }
+    }
+
+    private static void send(HttpServletRequest request, HttpServletResponse response, CachedResponse cached,
+                             String outcome) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, cached.etag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, cached.lastModified());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "max-age=" + cached.maxAge());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        response.setHeader("X-Cache", outcome);
+        if (notModified(request, cached)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        if (cached.contentType() != null) {
+            response.setContentType(cached.contentType());
+        }
+        response.setContentLength(cached.body().length);
+        response.getOutputStream().write(cached.body());
+    }
+
+    // If-None-Match takes precedence over If-Modified-Since (RFC 9110 13.2.2)
+    private static boolean notModified(HttpServletRequest request, CachedResponse cached) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.strip();
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                if (candidate.equals("*") || candidate.equals(cached.etag())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+            return ifModifiedSince >= 0 && cached.lastModified() <= ifModifiedSince;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // Decides on the first body write whether to buffer: by then the handler has run and the
+    // interceptor has had its say. Bodies larger than the entry limit spill to the client.
+    private static final class CapturingResponse extends HttpServletResponseWrapper {
+        private final HttpServletRequest request;
+        private final int maxBytes;
+        private FastByteArrayOutputStream buffer;
+        private ServletOutputStream output;
+        private PrintWriter writer;
+        // Set by the filter thread while an async thread may already be writing
+        private volatile boolean spilled;
+
+        CapturingResponse(HttpServletRequest request, HttpServletResponse response, int maxBytes) {
+            super(response);
+            this.request = request;
+            this.maxBytes = maxBytes;
+        }
+
+        boolean isCapturing() {
+            return buffer != null && !spilled;
+        }
+
+        byte[] body() {
+            flushWriter();
+            return buffer.toByteArrayUnsafe();
+        }
+
+        void writeBuffered() throws IOException {
+            flushWriter();
+            ServletOutputStream out = getResponse().getOutputStream();
+            buffer.writeTo(out);
+            buffer.reset();
+        }
+
+        // Stops capturing for good; anything buffered so far goes out first
+        void passThrough() throws IOException {
+            if (buffer != null && !spilled) {
+                writeBuffered();
+            }
+            spilled = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (output == null) {
+                output = startCapture() ? new BufferingOutputStream() : super.getOutputStream();
+            }
+            return output;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (!startCapture()) {
+                    return super.getWriter();
+                }
+                output = new BufferingOutputStream();
+                Charset charset = getCharacterEncoding() == null ? StandardCharsets.ISO_8859_1
+                        : Charset.forName(getCharacterEncoding());
+                writer = new PrintWriter(new OutputStreamWriter(output, charset));
+            }
+            return writer;
+        }
+
+        // The real length is set when the captured body is sent
+        @Override
+        public void setContentLength(int len) {
+            if (!capturingOrUndecided()) {
+                super.setContentLength(len);
+            }
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (!capturingOrUndecided()) {
+                super.setContentLengthLong(len);
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (!(HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && capturingOrUndecided())) {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (buffer == null || spilled) {
+                super.flushBuffer();
+            }
+        }
+
+        private boolean capturingOrUndecided() {
+            return buffer == null ? mayCapture() : !spilled;
+        }
+
+        // Async output is written after the filter has returned, so it is never captured
+        private boolean mayCapture() {
+            return !spilled && request.getAttribute(HttpResponseCache.DETERMINISTIC_ATTRIBUTE) != null
+                    && !request.isAsyncStarted();
+        }
+
+        private boolean startCapture() {
+            if (buffer == null && mayCapture()) {
+                buffer = new FastByteArrayOutputStream(1024);
+            }
+            return buffer != null;
+        }
+
+        private void flushWriter() {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+
+        private final class BufferingOutputStream extends ServletOutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                if (spilled) {
+                    getResponse().getOutputStream().write(b, off, len);
+                    return;
+                }
+                if (buffer.size() + (long) len > maxBytes) {
+                    spilled = true;
+                    ServletOutputStream out = getResponse().getOutputStream();
+                    buffer.writeTo(out);
+                    buffer.reset();
+                    out.write(b, off, len);
+                    return;
+                }
+                buffer.write(b, off, len);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            // Non-blocking output is left to the container: what was buffered is written first
+            @Override
+            public void setWriteListener(WriteListener listener) {
+                try {
+                    if (!spilled) {
+                        writeBuffered();
+                        spilled = true;
+                    }
+                    getResponse().getOutputStream().setWriteListener(listener);
+                } catch (IOException e) {
+                    listener.onError(e);
+                }
+            }
+        }
+    }
+}
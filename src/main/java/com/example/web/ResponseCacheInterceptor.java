@@ -0,0 +1,23 @@
+package com.example.web;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Tells ResponseCacheFilter, which runs before handler mapping, that the matched handler
+// is @DeterministicResponse and its output may be captured.
+public class ResponseCacheInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            DeterministicResponse deterministic = method.getMethodAnnotation(DeterministicResponse.class);
+            if (deterministic != null) {
+                request.setAttribute(HttpResponseCache.DETERMINISTIC_ATTRIBUTE, deterministic);
+            }
+        }
+        return true;
+    }
+}
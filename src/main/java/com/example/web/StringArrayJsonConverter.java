@@ -0,0 +1,186 @@
+package com.example.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+// Writes String[] and Collection<String> return values (/split, /checkType/batch,
+// /sequencedCollections, ...) as a JSON array straight into the response stream.
+// Characters are escaped and UTF-8 encoded into a pooled buffer that is flushed whenever it
+// fills up, so a large result never exists a second time as a JSON String or byte[].
+// Reading is left to Jackson.
+public class StringArrayJsonConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    // Room for the longest encoding of one char (\\u00XX) plus a separator
+    private static final int RESERVE = 8;
+
+    private final BufferPool bufferPool;
+
+    public StringArrayJsonConverter(BufferPool bufferPool) {
+        super(MediaType.APPLICATION_JSON);
+        this.bufferPool = bufferPool;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == String[].class;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (clazz == String[].class) {
+            return true;
+        }
+        ResolvableType resolved = type != null ? ResolvableType.forType(type) : ResolvableType.forClass(clazz);
+        ResolvableType collection = resolved.as(Collection.class);
+        return collection != ResolvableType.NONE && collection.resolveGeneric(0) == String.class;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading is not supported", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading is not supported", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        Iterable<?> values = value instanceof String[] array ? Arrays.asList(array) : (Iterable<?>) value;
+        byte[] buffer = bufferPool.acquire();
+        try {
+            new Output(outputMessage, buffer).write(values);
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    // The response body is only opened once the buffer overflows. A result that fits in one
+    // buffer gets an exact Content-Length, so the compression threshold still applies to it.
+    private static final class Output {
+        private final HttpOutputMessage message;
+        private final byte[] buffer;
+        private final int limit;
+        private OutputStream out;
+        private int pos;
+
+        Output(HttpOutputMessage message, byte[] buffer) {
+            this.message = message;
+            this.buffer = buffer;
+            this.limit = buffer.length - RESERVE;
+        }
+
+        void write(Iterable<?> values) throws IOException {
+            buffer[pos++] = '[';
+            boolean first = true;
+            for (Object element : values) {
+                if (pos >= limit) {
+                    flush();
+                }
+                if (!first) {
+                    buffer[pos++] = ',';
+                }
+                first = false;
+                if (element == null) {
+                    pos = append(buffer, pos, "null");
+                } else {
+                    writeString(element.toString());
+                }
+            }
+            buffer[pos++] = ']';
+            if (out == null) {
+                message.getHeaders().setContentLength(pos);
+            }
+            flush();
+        }
+
+        private void writeString(String s) throws IOException {
+            buffer[pos++] = '"';
+            for (int i = 0; i < s.length(); i++) {
+                if (pos >= limit) {
+                    flush();
+                }
+                char c = s.charAt(i);
+                if (c >= 0x20 && c < 0x80) {
+                    if (c == '"' || c == '\\') {
+                        buffer[pos++] = '\\';
+                    }
+                    buffer[pos++] = (byte) c;
+                } else if (c < 0x20) {
+                    pos = escapeControl(buffer, pos, c);
+                } else if (c < 0x800) {
+                    buffer[pos++] = (byte) (0xc0 | (c >> 6));
+                    buffer[pos++] = (byte) (0x80 | (c & 0x3f));
+                } else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                        && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    buffer[pos++] = (byte) (0xf0 | (cp >> 18));
+                    buffer[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                    buffer[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                    buffer[pos++] = (byte) (0x80 | (cp & 0x3f));
+                } else {
+                    // Unpaired surrogates have no UTF-8 form
+                    char encoded = Character.isSurrogate(c) ? '\uFFFD' : c;
+                    buffer[pos++] = (byte) (0xe0 | (encoded >> 12));
+                    buffer[pos++] = (byte) (0x80 | ((encoded >> 6) & 0x3f));
+                    buffer[pos++] = (byte) (0x80 | (encoded & 0x3f));
+                }
+            }
+            buffer[pos++] = '"';
+        }
+
+        private void flush() throws IOException {
+            if (out == null) {
+                out = message.getBody();
+            }
+            out.write(buffer, 0, pos);
+            pos = 0;
+        }
+    }
+
+    private static int escapeControl(byte[] buffer, int pos, char c) {
+        buffer[pos++] = '\\';
+        switch (c) {
+            case '\n' -> buffer[pos++] = 'n';
+            case '\r' -> buffer[pos++] = 'r';
+            case '\t' -> buffer[pos++] = 't';
+            case '\b' -> buffer[pos++] = 'b';
+            case '\f' -> buffer[pos++] = 'f';
+            default -> {
+                buffer[pos++] = 'u';
+                buffer[pos++] = '0';
+                buffer[pos++] = '0';
+                buffer[pos++] = HEX[c >> 4];
+                buffer[pos++] = HEX[c & 0xf];
+            }
+        }
+        return pos;
+    }
+
+    private static int append(byte[] buffer, int pos, String ascii) {
+        for (int i = 0; i < ascii.length(); i++) {
+            buffer[pos++] = (byte) ascii.charAt(i);
+        }
+        return pos;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.metrics;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+
+import reactor.core.publisher.Mono;
+
+// RequestMetricsFilter for the reactive stack: times every exchange until its response has
+// been written. Errors reach this filter before the error handler renders them, so their
+// status is taken from the exception the same way the error handler does.
+public class RequestMetricsWebFilter implements WebFilter, Ordered {
+
+    private final EndpointMetrics endpointMetrics;
+
+    public RequestMetricsWebFilter(EndpointMetrics endpointMetrics) {
+        this.endpointMetrics = endpointMetrics;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long start = System.nanoTime();
+        endpointMetrics.requestStarted();
+        return chain.filter(exchange)
+                .doOnSuccess(done -> record(exchange, status(exchange), start))
+                .doOnError(e -> record(exchange, status(e), start))
+                // The client went away before the response was complete
+                .doOnCancel(() -> record(exchange, status(exchange), start));
+    }
+
+    private void record(ServerWebExchange exchange, int status, long start) {
+        PathPattern pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        endpointMetrics.requestFinished(exchange.getRequest().getMethod().name(),
+                pattern == null ? null : pattern.getPatternString(), status, System.nanoTime() - start);
+    }
+
+    private static int status(ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status == null ? 200 : status.value();
+    }
+
+    private static int status(Throwable error) {
+        if (error instanceof ResponseStatusException e) {
+            return e.getStatusCode().value();
+        }
+        ResponseStatus annotation = AnnotatedElementUtils.findMergedAnnotation(error.getClass(), ResponseStatus.class);
+        return annotation == null ? 500 : annotation.code().value();
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.reactive;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+
+import com.example.service.MigrateService;
+import com.example.service.WorkerPool.WorkerStatus;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import static org.springframework.web.reactive.function.server.ServerResponse.accepted;
+import static org.springframework.web.reactive.function.server.ServerResponse.ok;
+
+// MigrateController's endpoints on WebFlux. Handlers run on the Netty event loop, so anything
+// that waits (the virtual-thread task, the worker pool demos) is moved to the bounded elastic
+// scheduler; /addStudent goes through the ReactiveStudentStore.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class MigrateHandler {
+
+    private static final MediaType TEXT_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+    // Streamed chunks wrap the shared repeat chunk instead of copying it
+    private final DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+    @Autowired
+    MigrateService migrateService;
+
+    @Autowired
+    ReactiveStudentStore studentStore;
+
+    public Mono<ServerResponse> hello(ServerRequest request) {
+        return ok().bodyValue("Hello World!");
+    }
+
+    public Mono<ServerResponse> virtualThread(ServerRequest request) {
+        return ok().body(blocking(migrateService::runVirtualThreadTask), String.class);
+    }
+
+    public Mono<ServerResponse> sequencedCollections(ServerRequest request) {
+        return ok().bodyValue(migrateService.demonstrateSequencedCollections());
+    }
+
+    public Mono<ServerResponse> recordPattern(ServerRequest request) {
+        return ok().bodyValue(migrateService.demonstrateRecordPattern(intParam(request, "x"), intParam(request, "y")));
+    }
+
+    public Mono<ServerResponse> multiline(ServerRequest request) {
+        return ok().bodyValue(migrateService.getMultilineText());
+    }
+
+    public Mono<ServerResponse> checkType(ServerRequest request) {
+        String input = param(request, "input");
+        try {
+            return ok().bodyValue(migrateService.checkType(Integer.parseInt(input)));
+        } catch (NumberFormatException e) {
+            return ok().bodyValue(migrateService.checkType(input));
+        }
+    }
+
+    public Mono<ServerResponse> checkTypes(ServerRequest request) {
+        return request.bodyToMono(String[].class)
+                .flatMap(inputs -> ok().bodyValue(migrateService.checkTypes(inputs)));
+    }
+
+    public Mono<ServerResponse> sealedClass(ServerRequest request) {
+        return ok().bodyValue(migrateService.demonstrateSealedClass());
+    }
+
+    public Mono<ServerResponse> personRecord(ServerRequest request) {
+        return ok().bodyValue(migrateService.demonstrateRecord());
+    }
+
+    public Mono<ServerResponse> clamp(ServerRequest request) {
+        return ok().bodyValue(migrateService.clampValue(intParam(request, "value")));
+    }
+
+    public Mono<ServerResponse> clampBatch(ServerRequest request) {
+        return request.bodyToMono(int[].class)
+                .flatMap(values -> ok().bodyValue(migrateService.clampValues(values)));
+    }
+
+    public Mono<ServerResponse> repeat(ServerRequest request) {
+        return ok().bodyValue(migrateService.repeatText(param(request, "text"), intParam(request, "count")));
+    }
+
+    // Emits the shared chunk as often as the connection asks for it, so a slow reader holds
+    // one 8 KB chunk instead of the whole result or a blocked thread
+    public Mono<ServerResponse> repeatStream(ServerRequest request) {
+        String text = param(request, "text");
+        int count = intParam(request, "count");
+        long size = migrateService.repeatedSize(text, count);
+        byte[] unit = text.getBytes(StandardCharsets.UTF_8);
+        Flux<DataBuffer> body = Flux.empty();
+        if (size > 0) {
+            byte[] chunk = migrateService.repeatChunk(unit);
+            int perChunk = chunk.length / unit.length;
+            int rest = count % perChunk * unit.length;
+            body = Flux.range(0, count / perChunk)
+                    .map(i -> bufferFactory.wrap(chunk))
+                    .concatWith(rest == 0 ? Flux.empty()
+                            : Mono.fromSupplier(() -> bufferFactory.wrap(ByteBuffer.wrap(chunk, 0, rest))));
+        }
+        return ok().contentType(TEXT_UTF8).contentLength(size).body(body, DataBuffer.class);
+    }
+
+    public Mono<ServerResponse> emoji(ServerRequest request) {
+        return ok().bodyValue(migrateService.isEmojiCharacter(intParam(request, "codePoint")));
+    }
+
+    public Mono<ServerResponse> emojiBatch(ServerRequest request) {
+        return request.bodyToMono(int[].class)
+                .flatMap(codePoints -> ok().bodyValue(migrateService.areEmojiCharacters(codePoints)));
+    }
+
+    public Mono<ServerResponse> split(ServerRequest request) {
+        return ok().bodyValue(migrateService.splitKeepingDelimiters(param(request, "input"), param(request, "regex")));
+    }
+
+    public Mono<ServerResponse> addStudent(ServerRequest request) {
+        return studentStore.save(param(request, "name"))
+                .flatMap(student -> ok().bodyValue(student));
+    }
+
+    public Mono<ServerResponse> legacyThreads(ServerRequest request) {
+        return blocking(migrateService::demonstrateLegacyThreadMethods).flatMap(MigrateHandler::workerResponse);
+    }
+
+    public Mono<ServerResponse> runFinalization(ServerRequest request) {
+        return ok().bodyValue(migrateService.demonstrateFinalization());
+    }
+
+    public Mono<ServerResponse> callFinalize(ServerRequest request) {
+        return blocking(migrateService::demonstrateCleaner).flatMap(MigrateHandler::workerResponse);
+    }
+
+    // 202 while the worker has not stopped, as on the servlet stack
+    private static Mono<ServerResponse> workerResponse(WorkerStatus status) {
+        return (status.finishedAt() == null ? accepted() : ok()).bodyValue(status);
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    static String param(ServerRequest request, String name) {
+        return request.queryParam(name).orElseThrow(() ->
+                new ServerWebInputException("Required query parameter '" + name + "' is not present."));
+    }
+
+    static int intParam(ServerRequest request, String name) {
+        String value = param(request, name);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException("Query parameter '" + name + "' is not an integer: " + value);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.reactive;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.example.datasource.H2Storage;
+import com.example.metrics.EndpointMetrics;
+import com.example.metrics.RequestMetricsWebFilter;
+import com.example.metrics.PrometheusExporter;
+
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+// WebFlux on Netty instead of MVC on Tomcat, active with the reactive profile
+// (spring.main.web-application-type=reactive). The MVC controllers and servlet filters are
+// servlet-only, so only the routes below are served: the MigrateController endpoints, the
+// student reads and bulk writes, and the metrics scrape.
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+
+    // Tomcat is on the classpath for the servlet stack and would otherwise win
+    @Bean
+    NettyReactiveWebServerFactory reactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    // Same database and credentials as the JDBC pool in AppConfig: spring.datasource.url if set,
+    // otherwise the app.h2.* one
+    @Bean(destroyMethod = "dispose")
+    ConnectionPool connectionFactory(DataSourceProperties dataSourceProperties, H2Storage h2Storage,
+                                     @Value("${app.reactive.r2dbc.initial-size:4}") int initialSize,
+                                     @Value("${app.reactive.r2dbc.max-size:16}") int maxSize,
+                                     @Value("${app.reactive.r2dbc.max-idle-time:5m}") Duration maxIdleTime,
+                                     @Value("${app.reactive.r2dbc.max-acquire-time:5s}") Duration maxAcquireTime) {
+        String url = dataSourceProperties.getUrl() == null ? h2Storage.url() : dataSourceProperties.getUrl();
+        if (!url.startsWith("jdbc:h2:")) {
+            throw new IllegalStateException("The reactive stack only supports H2, not " + url);
+        }
+        H2ConnectionConfiguration configuration = H2ConnectionConfiguration.builder()
+                .url(url.substring("jdbc:h2:".length()))
+                .username(Objects.requireNonNullElse(dataSourceProperties.getUsername(), ""))
+                .password(Objects.requireNonNullElse(dataSourceProperties.getPassword(), ""))
+                .build();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(new H2ConnectionFactory(configuration))
+                .name("students-r2dbc")
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxIdleTime(maxIdleTime)
+                .maxAcquireTime(maxAcquireTime)
+                .build());
+    }
+
+    @Bean
+    RequestMetricsWebFilter requestMetricsWebFilter(EndpointMetrics endpointMetrics) {
+        return new RequestMetricsWebFilter(endpointMetrics);
+    }
+
+    @Bean
+    RouterFunction<ServerResponse> migrateRoutes(MigrateHandler migrate) {
+        return route()
+                .GET("/", migrate::hello)
+                .GET("/virtualThread", migrate::virtualThread)
+                .GET("/sequencedCollections", migrate::sequencedCollections)
+                .GET("/recordPattern", migrate::recordPattern)
+                .GET("/multiline", migrate::multiline)
+                .GET("/checkType", migrate::checkType)
+                .POST("/checkType/batch", migrate::checkTypes)
+                .GET("/sealedClass", migrate::sealedClass)
+                .GET("/personRecord", migrate::personRecord)
+                .GET("/clamp", migrate::clamp)
+                .POST("/clamp/batch", migrate::clampBatch)
+                .GET("/repeat", migrate::repeat)
+                .GET("/repeat/stream", migrate::repeatStream)
+                .GET("/emoji", migrate::emoji)
+                .POST("/emoji/batch", migrate::emojiBatch)
+                .GET("/split", migrate::split)
+                .GET("/addStudent", migrate::addStudent)
+                .GET("/legacyThreads", migrate::legacyThreads)
+                .GET("/runFinalization", migrate::runFinalization)
+                .GET("/finalize", migrate::callFinalize)
+                .build();
+    }
+
+    @Bean
+    RouterFunction<ServerResponse> studentRoutes(StudentHandler students) {
+        return route()
+                .GET("/students", students::list)
+                .GET("/students/export", students::export)
+                .GET("/students/{id}", students::get)
+                .POST("/students/import", contentType(StudentHandler.NDJSON), students::importNdjson)
+                .build();
+    }
+
+    @Bean
+    RouterFunction<ServerResponse> metricsRoutes(EndpointMetrics endpointMetrics,
+                                                 PrometheusExporter prometheusExporter) {
+        MediaType scrape = MediaType.parseMediaType(PrometheusExporter.CONTENT_TYPE);
+        return route()
+                .GET("/metrics", request -> ServerResponse.ok().contentType(scrape)
+                        .bodyValue(prometheusExporter.scrape()))
+                .GET("/metrics/endpoints", request -> ServerResponse.ok().bodyValue(endpointMetrics.snapshot()))
+                .DELETE("/metrics/endpoints", request -> {
+                    endpointMetrics.reset();
+                    return ServerResponse.ok().build();
+                })
+                .build();
+    }
+}
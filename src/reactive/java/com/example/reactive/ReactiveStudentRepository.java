@@ -0,0 +1,171 @@
+package com.example.reactive;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.example.entities.Student;
+import com.example.entities.StudentChangedEvent;
+import com.example.entities.StudentChangedEvent.ChangeType;
+import com.example.repositories.StudentRepository;
+import com.example.service.StudentQueryService.StudentPage;
+import com.example.service.StudentsImportedEvent;
+
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Non-blocking access to the student table over R2DBC, on the same H2 database as the JPA
+// repository. Nothing goes through Hibernate, so the writes keep the shared caches and the
+// search index up to date themselves, the same way JpaStudentStore does for JDBC batches.
+// With app.sharding.enabled the students are not in this database, and ShardedReactiveStudentStore
+// takes its place.
+// The transaction manager stays private: registering it would give the context a second
+// TransactionManager next to JPA's and break every plain @Transactional.
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class ReactiveStudentRepository implements ReactiveStudentStore {
+
+    static final String INSERT_SQL = "INSERT INTO student (name) VALUES ($1)";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache byId;
+    private final Cache byName;
+    private final int maxPageSize;
+
+    public ReactiveStudentRepository(ConnectionFactory connectionFactory, ApplicationEventPublisher eventPublisher,
+                                     CacheManager cacheManager,
+                                     @Value("${app.students.page.max-size:1000}") int maxPageSize) {
+        this.databaseClient = DatabaseClient.create(connectionFactory);
+        this.transactions = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+        this.eventPublisher = eventPublisher;
+        this.byId = cacheManager.getCache(StudentRepository.CACHE_BY_ID);
+        this.byName = cacheManager.getCache(StudentRepository.CACHE_BY_NAME);
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    public Mono<Student> findById(long id) {
+        Student cached = byId == null ? null : byId.get(id, Student.class);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return databaseClient.sql("SELECT id, name FROM student WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveStudentRepository::toStudent)
+                .one()
+                .doOnNext(this::cache);
+    }
+
+    @Override
+    public Mono<StudentPage> listAfter(long afterId, int size) {
+        int limit = Math.clamp(size, 1, maxPageSize);
+        return page(afterId, limit)
+                .collectList()
+                .map(students -> new StudentPage(students,
+                        students.size() < limit ? null : students.getLast().getId()));
+    }
+
+    // Read one keyset page at a time. The next page is only queried once the subscriber has taken
+    // the current one, so a slow client holds at most one page in memory and no connection while
+    // it catches up.
+    @Override
+    public Flux<Student> streamAll(int pageSize) {
+        return streamAfter(0, Math.clamp(pageSize, 1, maxPageSize));
+    }
+
+    private Flux<Student> streamAfter(long afterId, int pageSize) {
+        return page(afterId, pageSize)
+                .collectList()
+                .flatMapMany(students -> {
+                    Flux<Student> current = Flux.fromIterable(students);
+                    if (students.size() < pageSize) {
+                        return current;
+                    }
+                    long last = students.getLast().getId();
+                    return current.concatWith(Flux.defer(() -> streamAfter(last, pageSize)));
+                });
+    }
+
+    private Flux<Student> page(long afterId, int limit) {
+        return databaseClient.sql("SELECT id, name FROM student WHERE id > :afterId ORDER BY id LIMIT :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveStudentRepository::toStudent)
+                .all();
+    }
+
+    @Override
+    public Mono<Student> save(String name) {
+        return databaseClient.sql(INSERT_SQL)
+                .bind(0, name)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> new Student(row.get("id", Long.class), name))
+                .one()
+                .doOnNext(student -> {
+                    cache(student);
+                    if (byName != null) {
+                        byName.evict(name);
+                    }
+                    eventPublisher.publishEvent(new StudentChangedEvent(ChangeType.CREATED, student.getId(), name));
+                });
+    }
+
+    // Inserts the names in multi-row batches, one transaction per batch. Upstream is only
+    // requested batchSize names at a time, so a fast producer cannot flood memory while a
+    // batch is being written. Each committed batch is announced with its generated ids.
+    @Override
+    public Flux<Long> saveAll(Flux<String> names, int batchSize) {
+        return names.buffer(batchSize)
+                .concatMap(batch -> transactions.transactional(insertBatch(batch))
+                        .map(ids -> {
+                            List<Student> students = new ArrayList<>(batch.size());
+                            for (int i = 0; i < batch.size(); i++) {
+                                students.add(new Student(ids.get(i), batch.get(i)));
+                            }
+                            eventPublisher.publishEvent(new StudentsImportedEvent(students));
+                            return (long) students.size();
+                        }), 1);
+    }
+
+    private Mono<List<Long>> insertBatch(List<String> batch) {
+        return databaseClient.inConnection(connection -> {
+            Statement statement = connection.createStatement(INSERT_SQL).returnGeneratedValues("id");
+            for (int i = 0; i < batch.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                statement.bind(0, batch.get(i));
+            }
+            return Flux.from(statement.execute())
+                    .concatMap(result -> result.map((row, metadata) -> row.get(0, Long.class)))
+                    .collectList();
+        });
+    }
+
+    private void cache(Student student) {
+        if (byId != null) {
+            byId.put(student.getId(), student);
+        }
+    }
+
+    private static Student toStudent(Readable row) {
+        return new Student(row.get("id", Long.class), row.get("name", String.class));
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.reactive;
+
+import com.example.entities.Student;
+import com.example.service.StudentQueryService.StudentPage;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// The student reads and writes of the WebFlux handlers: ReactiveStudentRepository over R2DBC on the
+// application database, or ShardedReactiveStudentStore when app.sharding.enabled, so both stacks
+// read and write the same students
+public interface ReactiveStudentStore {
+
+    Mono<Student> findById(long id);
+
+    // Keyset page, same contract as StudentQueryService.listAfter
+    Mono<StudentPage> listAfter(long afterId, int size);
+
+    // Every student in id order, one page of pageSize rows at a time as the subscriber asks for them
+    Flux<Student> streamAll(int pageSize);
+
+    Mono<Student> save(String name);
+
+    // Writes the names in batches of batchSize, one at a time, and emits the rows each batch wrote
+    Flux<Long> saveAll(Flux<String> names, int batchSize);
+}
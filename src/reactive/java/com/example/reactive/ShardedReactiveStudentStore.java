@@ -0,0 +1,80 @@
+package com.example.reactive;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import com.example.entities.Student;
+import com.example.service.StudentQueryService.StudentPage;
+import com.example.service.StudentStore;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+// The sharded StudentStore for the WebFlux handlers. The shards are reached over JDBC, so every
+// call is moved to the bounded elastic scheduler instead of blocking the Netty event loop; lookups
+// share the StudentStore caches and writes are announced by the store like any other.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardedReactiveStudentStore implements ReactiveStudentStore {
+
+    private final StudentStore studentStore;
+    private final int maxPageSize;
+
+    public ShardedReactiveStudentStore(StudentStore studentStore,
+                                       @Value("${app.students.page.max-size:1000}") int maxPageSize) {
+        this.studentStore = studentStore;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    public Mono<Student> findById(long id) {
+        return blocking(() -> studentStore.findById(id).orElse(null));
+    }
+
+    @Override
+    public Mono<StudentPage> listAfter(long afterId, int size) {
+        int limit = Math.clamp(size, 1, maxPageSize);
+        return blocking(() -> studentStore.findAfter(afterId, limit))
+                .map(students -> new StudentPage(students,
+                        students.size() < limit ? null : students.getLast().getId()));
+    }
+
+    @Override
+    public Flux<Student> streamAll(int pageSize) {
+        return streamAfter(0, Math.clamp(pageSize, 1, maxPageSize));
+    }
+
+    private Flux<Student> streamAfter(long afterId, int pageSize) {
+        return blocking(() -> studentStore.findAfter(afterId, pageSize))
+                .flatMapMany(students -> {
+                    Flux<Student> current = Flux.fromIterable(students);
+                    if (students.size() < pageSize) {
+                        return current;
+                    }
+                    long last = students.getLast().getId();
+                    return current.concatWith(Flux.defer(() -> streamAfter(last, pageSize)));
+                });
+    }
+
+    @Override
+    public Mono<Student> save(String name) {
+        return blocking(() -> studentStore.save(name));
+    }
+
+    @Override
+    public Flux<Long> saveAll(Flux<String> names, int batchSize) {
+        return names.buffer(batchSize)
+                .concatMap(batch -> blocking(() -> (long) studentStore.saveAll(batch).size()), 1);
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+}
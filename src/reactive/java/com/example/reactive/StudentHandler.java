@@ -0,0 +1,116 @@
+package com.example.reactive;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+
+import com.example.entities.Student;
+import com.example.service.StudentImportService;
+import com.example.service.StudentImportService.ImportResult;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.web.reactive.function.server.ServerResponse.notFound;
+import static org.springframework.web.reactive.function.server.ServerResponse.ok;
+
+// The student reads and bulk writes of StudentController on the ReactiveStudentStore
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class StudentHandler {
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    // Splits the request body into lines without buffering more than the line being read
+    private static final StringDecoder LINES = StringDecoder.textPlainOnly();
+    private static final ResolvableType STRING = ResolvableType.forClass(String.class);
+
+    private final ReactiveStudentStore studentStore;
+    private final StudentImportService studentImportService;
+    private final int exportPageSize;
+    private final int batchSize;
+
+    public StudentHandler(ReactiveStudentStore studentStore, StudentImportService studentImportService,
+                          @Value("${app.reactive.students.export-page-size:500}") int exportPageSize,
+                          @Value("${app.students.import.batch-size:1000}") int batchSize) {
+        this.studentStore = studentStore;
+        this.studentImportService = studentImportService;
+        this.exportPageSize = exportPageSize;
+        this.batchSize = batchSize;
+    }
+
+    public Mono<ServerResponse> list(ServerRequest request) {
+        long afterId = longParam(request, "afterId", 0);
+        int size = Math.clamp(longParam(request, "size", 100), 1, Integer.MAX_VALUE);
+        return studentStore.listAfter(afterId, size).flatMap(page -> ok().bodyValue(page));
+    }
+
+    public Mono<ServerResponse> get(ServerRequest request) {
+        long id = parseLong("id", request.pathVariable("id"));
+        return studentStore.findById(id)
+                .flatMap(student -> ok().bodyValue(student))
+                .switchIfEmpty(notFound().build());
+    }
+
+    // One JSON object per line, pulled from the database a page at a time as the client reads
+    public Mono<ServerResponse> export(ServerRequest request) {
+        return ok().contentType(NDJSON).body(studentStore.streamAll(exportPageSize), Student.class);
+    }
+
+    // Same format and result as the servlet import; lines are parsed as they arrive and written
+    // in batches of app.students.import.batch-size, so the body is never held in memory
+    public Mono<ServerResponse> importNdjson(ServerRequest request) {
+        long start = System.nanoTime();
+        AtomicLong skipped = new AtomicLong();
+        AtomicLong rows = new AtomicLong();
+        AtomicInteger batches = new AtomicInteger();
+        Flux<String> names = LINES.decode(request.bodyToFlux(DataBuffer.class), STRING, null, null)
+                .filter(line -> !line.isBlank())
+                .mapNotNull(line -> {
+                    String name = studentImportService.parseJsonLine(line);
+                    if (name == null || name.isEmpty()) {
+                        skipped.incrementAndGet();
+                        return null;
+                    }
+                    return name;
+                });
+        return studentStore.saveAll(names, batchSize)
+                .doOnNext(written -> {
+                    rows.addAndGet(written);
+                    batches.incrementAndGet();
+                })
+                .then(Mono.fromSupplier(() -> {
+                    long elapsedNanos = System.nanoTime() - start;
+                    double rowsPerSecond = elapsedNanos == 0 ? 0 : rows.get() * 1_000_000_000d / elapsedNanos;
+                    log.info("Imported {} students in {} batches ({} skipped, {} rows/s)",
+                            rows.get(), batches.get(), skipped.get(), Math.round(rowsPerSecond));
+                    return new ImportResult(rows.get(), skipped.get(), batches.get(), batchSize,
+                            elapsedNanos / 1_000_000, rowsPerSecond);
+                }))
+                .flatMap(result -> ok().bodyValue(result));
+    }
+
+    private static long longParam(ServerRequest request, String name, long defaultValue) {
+        return request.queryParam(name).map(value -> parseLong(name, value)).orElse(defaultValue);
+    }
+
+    private static long parseLong(String name, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException("'" + name + "' is not a number: " + value);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example;
+
+import com.example.entities.Student;
+import com.example.entities.StudentChangedEvent;
+import com.example.reactive.ReactiveStudentRepository;
+import com.example.repositories.StudentRepository;
+import com.example.service.StudentQueryService.StudentPage;
+import com.example.service.StudentsImportedEvent;
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ReactiveStudentRepositoryTest {
+
+    private final List<Object> events = new ArrayList<>();
+    private final CacheManager cacheManager =
+            new ConcurrentMapCacheManager(StudentRepository.CACHE_BY_ID, StudentRepository.CACHE_BY_NAME);
+    private H2ConnectionFactory connectionFactory;
+    private ReactiveStudentRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new H2ConnectionFactory(H2ConnectionConfiguration.builder()
+                .url("mem:reactive-students;DB_CLOSE_DELAY=-1")
+                .username("sa")
+                .build());
+        DatabaseClient.create(connectionFactory)
+                .sql("CREATE TABLE student (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255))")
+                .then()
+                .block();
+        repository = new ReactiveStudentRepository(connectionFactory, events::add, cacheManager, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseClient.create(connectionFactory).sql("DROP TABLE student").then().block();
+    }
+
+    @Test
+    void save_shouldReturnGeneratedIdAndAnnounceChange() {
+        cacheManager.getCache(StudentRepository.CACHE_BY_NAME).put("Alice", List.of());
+
+        Student saved = repository.save("Alice").block();
+
+        assertEquals(new Student(saved.getId(), "Alice"), repository.findById(saved.getId()).block());
+        assertNull(cacheManager.getCache(StudentRepository.CACHE_BY_NAME).get("Alice"));
+        assertEquals(List.of(new StudentChangedEvent(StudentChangedEvent.ChangeType.CREATED, saved.getId(), "Alice")),
+                events);
+    }
+
+    @Test
+    void saveAll_shouldWriteOneStatementPerBatchAndAnnounceGeneratedIds() {
+        List<Long> batches = repository.saveAll(Flux.just("a", "b", "c", "d", "e"), 2).collectList().block();
+
+        assertEquals(List.of(2L, 2L, 1L), batches);
+        assertEquals(repository.streamAll(10).collectList().block(),
+                events.stream().flatMap(event -> ((StudentsImportedEvent) event).students().stream()).toList());
+    }
+
+    @Test
+    void listAfter_shouldPageByKeysetAndClampToMaxPageSize() {
+        repository.saveAll(Flux.just("a", "b", "c", "d"), 10).blockLast();
+
+        StudentPage first = repository.listAfter(0, 100).block();
+        StudentPage second = repository.listAfter(first.nextAfterId(), 100).block();
+
+        assertEquals(List.of("a", "b", "c"), first.students().stream().map(Student::getName).toList());
+        assertEquals(List.of("d"), second.students().stream().map(Student::getName).toList());
+        assertNull(second.nextAfterId());
+    }
+
+    @Test
+    void streamAll_shouldReadEveryPageInOrder() {
+        repository.saveAll(Flux.fromStream(IntStream.range(0, 10).mapToObj(i -> "s" + i)), 10).blockLast();
+
+        List<String> all = repository.streamAll(3).map(Student::getName).collectList().block();
+        List<String> head = repository.streamAll(3).map(Student::getName).take(4, true).collectList().block();
+
+        assertEquals(IntStream.range(0, 10).mapToObj(i -> "s" + i).toList(), all);
+        assertEquals(List.of("s0", "s1", "s2", "s3"), head);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example;
+
+import com.example.limits.AdmissionControl;
+import com.example.limits.AdmissionControl.Admitted;
+import com.example.limits.AdmissionControl.PolicyStats;
+import com.example.limits.AdmissionControl.Reason;
+import com.example.limits.AdmissionControl.Rejected;
+import com.example.limits.AdmissionControlFilter;
+import com.example.limits.AdmissionProperties;
+import com.example.limits.AdmissionProperties.Policy;
+import com.example.limits.ConcurrencyLimiter;
+import com.example.limits.TokenBucket;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControlTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static Policy policy(String path, double rate, int burst, double clientRate, int clientBurst,
+                                 int maxConcurrency) {
+        return new Policy(path, rate, burst, clientRate, clientBurst, 1, maxConcurrency, Duration.ofSeconds(1), 0.5);
+    }
+
+    private static AdmissionControl control(Policy... policies) {
+        return new AdmissionControl(new AdmissionProperties(true, 1000, Duration.ofMinutes(1), List.of(policies)));
+    }
+
+    @Test
+    void tokenBucket_shouldAllowBurstThenReportWait() {
+        TokenBucket bucket = new TokenBucket(1, 3);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire());
+        }
+        long wait = bucket.tryAcquire();
+        assertTrue(wait > 0 && wait <= SECOND, "wait " + wait);
+
+        bucket.refund();
+        assertEquals(0, bucket.tryAcquire());
+    }
+
+    @Test
+    void tokenBucket_shouldNeverOverAdmitUnderContention() throws Exception {
+        TokenBucket bucket = new TokenBucket(0.001, 500);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1000; i++) {
+                        if (bucket.tryAcquire() == 0) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+        assertEquals(500, admitted.get());
+    }
+
+    @Test
+    void concurrencyLimiter_shouldBackOffOnSlowRequestsAndGrowWhenBusyAndFast() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 8, SECOND, 0.5);
+        assertEquals(8, limiter.limit());
+
+        assertTrue(limiter.tryAcquire());
+        limiter.release(2 * SECOND, false);
+        assertEquals(4, limiter.limit());
+        assertTrue(limiter.tryAcquire());
+        limiter.release(1000, true);
+        assertEquals(2, limiter.limit());
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        limiter.release(1000, false);
+        assertEquals(3, limiter.limit());
+        limiter.release(1000, false);
+        assertEquals(0, limiter.inFlight());
+
+        // Fast requests while the limit is mostly idle do not inflate it
+        assertTrue(limiter.tryAcquire());
+        limiter.release(1000, false);
+        assertEquals(3, limiter.limit());
+    }
+
+    @Test
+    void admit_shouldRejectPerClientWithoutSpendingOtherClientsBudget() {
+        AdmissionControl control = control(policy("/split", 100, 100, 1, 2, 0));
+
+        assertInstanceOf(Admitted.class, control.admit("/split", "10.0.0.1"));
+        assertInstanceOf(Admitted.class, control.admit("/split", "10.0.0.1"));
+        Rejected rejected = assertInstanceOf(Rejected.class, control.admit("/split", "10.0.0.1"));
+        assertEquals(Reason.CLIENT_RATE, rejected.reason());
+        assertInstanceOf(Admitted.class, control.admit("/split", "10.0.0.2"));
+        assertInstanceOf(Admitted.class, control.admit("/other", "10.0.0.1"));
+
+        PolicyStats stats = control.stats().get(0);
+        assertEquals(3, stats.admitted());
+        assertEquals(1, stats.rejectedClientRate());
+        assertEquals(2, stats.clients());
+    }
+
+    @Test
+    void admit_shouldRefundRatePermitsWhenConcurrencyIsExhausted() {
+        AdmissionControl control = control(policy("/repeat/**", 1, 2, 0, 1, 1));
+
+        Admitted first = assertInstanceOf(Admitted.class, control.admit("/repeat/stream", "c"));
+        Rejected busy = assertInstanceOf(Rejected.class, control.admit("/repeat", "c"));
+        assertEquals(Reason.CONCURRENCY, busy.reason());
+
+        first.release(false);
+        // The permit taken by the rejected request was handed back
+        assertInstanceOf(Admitted.class, control.admit("/repeat", "c")).release(false);
+        Rejected limited = assertInstanceOf(Rejected.class, control.admit("/repeat", "c"));
+        assertEquals(Reason.ENDPOINT_RATE, limited.reason());
+    }
+
+    @Test
+    void admit_shouldLetEverythingThroughWhenDisabled() {
+        AdmissionControl control = new AdmissionControl(new AdmissionProperties(false, 1000, Duration.ofMinutes(1),
+                List.of(policy("/split", 1, 1, 0, 1, 0))));
+
+        for (int i = 0; i < 10; i++) {
+            assertInstanceOf(Admitted.class, control.admit("/split", "c"));
+        }
+    }
+
+    @Test
+    void filter_shouldAnswerTooManyRequestsWithRetryAfter() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(control(policy("/legacyThreads", 0.5, 1, 0, 1, 0)));
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/legacyThreads"), first, chain);
+        assertEquals(200, first.getStatus());
+
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        MockFilterChain rejectedChain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/legacyThreads"), second, rejectedChain);
+        assertEquals(429, second.getStatus());
+        assertEquals("2", second.getHeader("Retry-After"));
+        assertNull(rejectedChain.getRequest());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example;
+
+import com.example.changes.ChangeFeed;
+import com.example.controller.ChangeController;
+import com.example.datasource.H2Storage;
+import com.example.entities.Student;
+import com.example.service.StudentsImportedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ChangeControllerTest {
+
+    @TempDir
+    Path directory;
+
+    private ChangeFeed changeFeed;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        H2Storage storage = new H2Storage(H2Storage.Mode.MEM, directory.resolve("db/students"),
+                DataSize.ofMegabytes(4), Duration.ofMillis(0), Duration.ofMillis(200), 90);
+        changeFeed = new ChangeFeed(storage, directory.resolve("changes").toString(), DataSize.ofMegabytes(1), 4,
+                false, 100, Duration.ofSeconds(10), Duration.ofMillis(100), Duration.ofMinutes(1));
+        ChangeController controller = new ChangeController();
+        ReflectionTestUtils.setField(controller, "changeFeed", changeFeed);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        ReflectionTestUtils.invokeMethod(changeFeed, "onImported", new StudentsImportedEvent(List.of(
+                new Student(1L, "alice"), new Student(2L, "bob"), new Student(3L, "carol"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        changeFeed.close();
+    }
+
+    // The stream never ends by itself, so this reads what has been written so far
+    private String awaitEvents(MvcResult result, String expected) throws InterruptedException {
+        MockHttpServletResponse response = result.getResponse();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            String body = response.getContentAsString();
+            if (body.contains(expected)) {
+                return body;
+            }
+            assertTrue(System.nanoTime() < deadline, "stream never sent " + expected + ": " + body);
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void stream_shouldResumeAfterLastEventId() throws Exception {
+        String logId = changeFeed.logId();
+        MvcResult result = mockMvc.perform(get("/changes/stream").header("Last-Event-ID", logId + ":0"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = awaitEvents(result, "id:" + logId + ":2");
+        assertFalse(body.contains("\"alice\""));
+        assertTrue(body.contains("id:" + logId + ":1\nevent:change\ndata:"));
+        assertTrue(body.contains("\"carol\""));
+    }
+
+    @Test
+    void stream_withAnotherLogsEventId_shouldBeGone() throws Exception {
+        mockMvc.perform(get("/changes/stream").header("Last-Event-ID", "an-earlier-log:1"))
+                .andExpect(status().isGone());
+        mockMvc.perform(get("/changes/stream").header("Last-Event-ID", "not-an-offset"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void poll_shouldReturnTheLogIdAndNextOffset() throws Exception {
+        MvcResult result = mockMvc.perform(get("/changes").param("from", "1").param("logId", changeFeed.logId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.logId").value(changeFeed.logId()))
+                .andExpect(jsonPath("$.changes.length()").value(2))
+                .andExpect(jsonPath("$.nextOffset").value(3));
+        mockMvc.perform(get("/changes").param("from", "1").param("logId", "an-earlier-log"))
+                .andExpect(status().isGone());
+    }
+}
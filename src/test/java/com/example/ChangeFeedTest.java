@@ -0,0 +1,136 @@
+package com.example;
+
+import com.example.changes.ChangeEvent;
+import com.example.changes.ChangeFeed;
+import com.example.changes.ChangeFeed.ChangeBatch;
+import com.example.datasource.H2Storage;
+import com.example.entities.Student;
+import com.example.service.ChangeOffsetExpiredException;
+import com.example.service.StudentsImportedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeFeedTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<ChangeFeed> feeds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        feeds.forEach(ChangeFeed::close);
+    }
+
+    private ChangeFeed feed(H2Storage.Mode mode, String changesDirectory) {
+        H2Storage storage = new H2Storage(mode, directory.resolve("db/students"), DataSize.ofMegabytes(4),
+                Duration.ofMillis(0), Duration.ofMillis(200), 90);
+        ChangeFeed feed = new ChangeFeed(storage, changesDirectory, DataSize.ofMegabytes(1), 4, false, 100,
+                Duration.ofSeconds(10), Duration.ofMillis(100), Duration.ofMinutes(1));
+        feeds.add(feed);
+        return feed;
+    }
+
+    // As on shutdown; the temp directory of an in-memory database is gone afterwards
+    private void close(ChangeFeed feed) {
+        feeds.remove(feed);
+        feed.close();
+    }
+
+    // What an import batch announces once it has committed
+    private void imported(ChangeFeed feed, String... names) {
+        List<Student> students = new ArrayList<>();
+        for (String name : names) {
+            students.add(new Student(feed.nextOffset() + students.size() + 1, name));
+        }
+        ReflectionTestUtils.invokeMethod(feed, "onImported", new StudentsImportedEvent(students));
+    }
+
+    private ChangeBatch await(DeferredResult<ChangeBatch> result) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!result.hasResult()) {
+            assertTrue(System.nanoTime() < deadline, "long poll never answered");
+            Thread.sleep(5);
+        }
+        return (ChangeBatch) result.getResult();
+    }
+
+    @Test
+    void longPoll_shouldAnswerAsSoonAsAChangeIsAppended() throws Exception {
+        ChangeFeed feed = feed(H2Storage.Mode.MEM, "");
+        imported(feed, "alice");
+
+        DeferredResult<ChangeBatch> result = feed.longPoll(feed.logId(), 1, 10, Duration.ofSeconds(10));
+        Thread.sleep(50);
+        assertFalse(result.hasResult());
+        long start = System.nanoTime();
+        imported(feed, "bob", "carol");
+        ChangeBatch batch = await(result);
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(List.of("bob", "carol"), batch.changes().stream().map(ChangeEvent::name).toList());
+        assertEquals(3, batch.nextOffset());
+        assertEquals(feed.logId(), batch.logId());
+    }
+
+    @Test
+    void longPoll_shouldAnswerWithNoChangesOnceTheWaitIsOver() throws Exception {
+        ChangeFeed feed = feed(H2Storage.Mode.MEM, "");
+        imported(feed, "alice");
+
+        ChangeBatch batch = await(feed.longPoll(null, 1, 10, Duration.ofMillis(100)));
+
+        assertEquals(List.of(), batch.changes());
+        assertEquals(1, batch.nextOffset());
+    }
+
+    @Test
+    void read_withTheIdOfAnEarlierLog_shouldBeGone() {
+        ChangeFeed first = feed(H2Storage.Mode.MEM, "");
+        imported(first, "alice", "bob");
+        String staleLogId = first.logId();
+        close(first);
+
+        // A restart with the in-memory database starts over at offset 0 in a new temp directory
+        ChangeFeed second = feed(H2Storage.Mode.MEM, "");
+        imported(second, "carol", "dave", "erin");
+
+        assertNotEquals(staleLogId, second.logId());
+        assertThrows(ChangeOffsetExpiredException.class, () -> second.read(staleLogId, 2, 10));
+        assertThrows(ChangeOffsetExpiredException.class, () -> second.longPoll(staleLogId, 2, 10, Duration.ZERO));
+        assertThrows(ChangeOffsetExpiredException.class, () -> second.stream(staleLogId, 2));
+        assertEquals(1, second.read(null, 2, 10).changes().size());
+    }
+
+    @Test
+    void defaultDirectory_withAFileDatabase_shouldKeepTheLogAcrossRestarts() {
+        ChangeFeed first = feed(H2Storage.Mode.FILE, "");
+        imported(first, "alice", "bob");
+        String logId = first.logId();
+        close(first);
+
+        ChangeFeed second = feed(H2Storage.Mode.FILE, "");
+
+        assertEquals(directory.resolve("db/students-changes").toAbsolutePath().normalize().toString(),
+                second.stats().directory());
+        assertEquals(logId, second.logId());
+        assertEquals(2, second.nextOffset());
+        assertEquals(List.of("bob"), second.read(logId, 1, 10).changes().stream().map(ChangeEvent::name).toList());
+    }
+}
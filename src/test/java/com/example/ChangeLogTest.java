@@ -0,0 +1,123 @@
+package com.example;
+
+import com.example.changes.ChangeEvent;
+import com.example.changes.ChangeLog;
+import com.example.entities.StudentChangedEvent.ChangeType;
+import com.example.service.ChangeOffsetExpiredException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void read_shouldResumeFromAnyOffsetAcrossSegments() {
+        // Small segments, so 1000 changes span many files and index entries
+        try (ChangeLog log = new ChangeLog(directory, 4096, 1000, false)) {
+            for (int i = 0; i < 1000; i++) {
+                log.append(i % 3 == 0 ? ChangeType.UPDATED : ChangeType.CREATED, i, i == 7 ? null : "student-" + i);
+            }
+            assertTrue(log.stats().segments() > 5);
+
+            List<ChangeEvent> events = log.read(295, 10);
+            assertEquals(10, events.size());
+            assertEquals(295, events.getFirst().offset());
+            assertEquals(295, events.getFirst().id());
+            assertEquals("student-304", events.getLast().name());
+            assertNull(log.read(7, 1).getFirst().name());
+            assertEquals(1000, log.read(0, 5000).size());
+            assertEquals(List.of(), log.read(1000, 10));
+        }
+    }
+
+    @Test
+    void reopen_shouldKeepOffsetsAndDropTornRecord() throws IOException {
+        String logId;
+        try (ChangeLog log = new ChangeLog(directory, 1 << 20, 4, false)) {
+            logId = log.logId();
+            log.append(ChangeType.CREATED, 1, "alice");
+            log.append(ChangeType.DELETED, 1, "alice");
+        }
+        // A crash in the middle of writing the next record
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(file -> file.toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 40, 1, 2}));
+        }
+
+        try (ChangeLog log = new ChangeLog(directory, 1 << 20, 4, false)) {
+            assertEquals(logId, log.logId());
+            assertEquals(2, log.nextOffset());
+            ChangeEvent next = log.append(ChangeType.CREATED, 2, "bob");
+            assertEquals(2, next.offset());
+            assertEquals(List.of(ChangeType.CREATED, ChangeType.DELETED, ChangeType.CREATED),
+                    log.read(0, 10).stream().map(ChangeEvent::type).toList());
+            assertEquals(next, log.read(2, 1).getFirst());
+        }
+    }
+
+    @Test
+    void open_inAnEmptyDirectory_shouldStartANewLog() {
+        String logId;
+        try (ChangeLog log = new ChangeLog(directory.resolve("first"), 1 << 20, 4, false)) {
+            logId = log.logId();
+            log.append(ChangeType.CREATED, 1, "alice");
+        }
+        try (ChangeLog log = new ChangeLog(directory.resolve("second"), 1 << 20, 4, false)) {
+            assertEquals(0, log.nextOffset());
+            assertNotEquals(logId, log.logId());
+        }
+    }
+
+    @Test
+    void append_shouldDeleteOldestSegmentsBeyondRetention() {
+        try (ChangeLog log = new ChangeLog(directory, 256, 3, false)) {
+            for (int i = 0; i < 100; i++) {
+                log.append(ChangeType.CREATED, i, "student-" + i);
+            }
+            ChangeLog.LogStats stats = log.stats();
+            assertEquals(3, stats.segments());
+            assertTrue(stats.firstOffset() > 0);
+            assertThrows(ChangeOffsetExpiredException.class, () -> log.read(0, 10));
+            assertThrows(ChangeOffsetExpiredException.class, () -> log.read(101, 10));
+            assertEquals(100 - stats.firstOffset(), log.read(stats.firstOffset(), 100).size());
+        }
+    }
+
+    @Test
+    void awaitOffset_shouldWakeUpOnAppend() throws Exception {
+        try (ChangeLog log = new ChangeLog(directory, 1 << 20, 4, false)) {
+            assertFalse(log.awaitOffset(0, Duration.ofMillis(10)));
+            Thread.ofVirtual().start(() -> {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                log.append(ChangeType.CREATED, 1, "alice");
+            });
+            assertTrue(log.awaitOffset(0, Duration.ofSeconds(5)));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example;
+
+import com.example.controller.DatabaseController;
+import com.example.datasource.H2Storage;
+import com.example.service.DatabaseBackupService;
+import com.example.service.DatabaseBackupService.Backup;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class DatabaseControllerTest {
+
+    @TempDir
+    Path directory;
+
+    private HikariDataSource dataSource;
+
+    @AfterEach
+    void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    private H2Storage storage(H2Storage.Mode mode) {
+        return new H2Storage(mode, directory.resolve("db/students"), DataSize.ofMegabytes(4),
+                Duration.ofMillis(0), Duration.ofMillis(200), 90);
+    }
+
+    private DatabaseBackupService service(H2Storage storage) {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(storage.mode() == H2Storage.Mode.FILE ? storage.url()
+                : storage.url() + "-backup-test;DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(4);
+        return new DatabaseBackupService(storage, dataSource);
+    }
+
+    private MockMvc mockMvc(DatabaseBackupService service) {
+        DatabaseController controller = new DatabaseController();
+        ReflectionTestUtils.setField(controller, "databaseBackupService", service);
+        ReflectionTestUtils.setField(controller, "backupTimeout", Duration.ofMinutes(1));
+        return MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void backup_inFileMode_shouldStreamARestorableZip() throws Exception {
+        DatabaseBackupService service = service(storage(H2Storage.Mode.FILE));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE student (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255))");
+        for (int i = 0; i < 500; i++) {
+            jdbcTemplate.update("INSERT INTO student (name) VALUES (?)", "student-" + i);
+        }
+        MockMvc mockMvc = mockMvc(service);
+
+        MvcResult result = mockMvc.perform(get("/database/backup"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] zip = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/zip"))
+                .andExpect(header().doesNotExist("Content-Length"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Path restored = directory.resolve("restored");
+        Files.createDirectories(restored);
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry = in.getNextEntry();
+            assertEquals("students.mv.db", entry.getName());
+            Files.copy(in, restored.resolve(entry.getName()));
+            assertNull(in.getNextEntry());
+        }
+        JdbcTemplate restoredTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:file:" + restored.resolve("students") + ";IFEXISTS=TRUE"));
+        assertEquals(500, restoredTemplate.queryForObject("SELECT COUNT(*) FROM student", Long.class));
+        restoredTemplate.execute("SHUTDOWN");
+
+        // The slot is free again once the response has been written
+        mockMvc.perform(head("/database/backup")).andExpect(status().isOk());
+    }
+
+    @Test
+    void backup_inMemoryMode_shouldReturnConflict() throws Exception {
+        MockMvc mockMvc = mockMvc(service(storage(H2Storage.Mode.MEM)));
+
+        mockMvc.perform(get("/database/backup")).andExpect(status().isConflict());
+        mockMvc.perform(head("/database/backup")).andExpect(status().isConflict());
+    }
+
+    @Test
+    void backup_whileAnotherIsRunning_shouldReturnConflict() throws Exception {
+        DatabaseBackupService service = service(storage(H2Storage.Mode.FILE));
+        new JdbcTemplate(dataSource).execute("CREATE TABLE student (id BIGINT PRIMARY KEY)");
+        MockMvc mockMvc = mockMvc(service);
+
+        Backup running = service.begin();
+        mockMvc.perform(get("/database/backup")).andExpect(status().isConflict());
+        mockMvc.perform(head("/database/backup")).andExpect(status().isConflict());
+
+        running.release();
+        MvcResult result = mockMvc.perform(get("/database/backup"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+    }
+
+    @Test
+    void head_shouldAnswerWithoutTakingTheBackupSlot() throws Exception {
+        DatabaseBackupService service = service(storage(H2Storage.Mode.FILE));
+        new JdbcTemplate(dataSource).execute("CREATE TABLE student (id BIGINT PRIMARY KEY)");
+        MockMvc mockMvc = mockMvc(service);
+
+        mockMvc.perform(head("/database/backup"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Length"));
+
+        service.begin().release();
+    }
+}
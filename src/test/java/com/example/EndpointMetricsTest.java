@@ -0,0 +1,69 @@
+package com.example;
+
+import com.example.metrics.EndpointMetrics;
+import com.example.metrics.EndpointMetrics.EndpointSnapshot;
+import com.example.metrics.PrometheusExporter;
+import com.example.metrics.RequestMetricsFilter;
+import com.example.metrics.SqlMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EndpointMetricsTest {
+
+    private final EndpointMetrics endpointMetrics = new EndpointMetrics();
+    private final RequestMetricsFilter filter = new RequestMetricsFilter(endpointMetrics);
+
+    @Test
+    void filter_shouldRecordRequestsByMappingPattern() throws Exception {
+        perform("/students/1", 200);
+        perform("/students/2", 404);
+        perform("/students/3", 500);
+
+        List<EndpointSnapshot> snapshot = endpointMetrics.snapshot();
+        assertEquals(1, snapshot.size());
+        EndpointSnapshot endpoint = snapshot.get(0);
+        assertEquals("GET", endpoint.method());
+        assertEquals("/students/{id}", endpoint.pattern());
+        assertEquals(3, endpoint.latency().count());
+        assertEquals(1, endpoint.clientErrors());
+        assertEquals(1, endpoint.serverErrors());
+        assertEquals(0, endpointMetrics.inFlight());
+    }
+
+    @Test
+    void scrape_shouldRenderPrometheusText() throws Exception {
+        perform("/students/1", 200);
+
+        String text = new PrometheusExporter(endpointMetrics, new SqlMetrics(10)).scrape();
+
+        assertTrue(text.contains("# TYPE http_server_requests_seconds summary"));
+        assertTrue(text.contains("http_server_requests_seconds_count{method=\"GET\",uri=\"/students/{id}\"} 1"));
+        assertTrue(text.contains("http_server_requests_in_flight 0"));
+        assertTrue(text.contains("jvm_gc_collections_total"));
+    }
+
+    private void perform(String uri, int status) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/students/{id}");
+                res.setStatus(status);
+            }
+        };
+        filter.doFilter(request, response, new MockFilterChain(servlet));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example;
+
+import com.example.datasource.H2Storage;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class H2StorageTest {
+
+    @Test
+    void url_shouldKeepInMemoryDefault() {
+        H2Storage storage = new H2Storage(H2Storage.Mode.MEM, Path.of("data/students"), DataSize.ofMegabytes(64),
+                Duration.ofMillis(500), Duration.ofSeconds(2), 90);
+
+        assertEquals("jdbc:h2:mem:testdb", storage.url());
+    }
+
+    @Test
+    void url_shouldCarryFileStorageSettings() {
+        H2Storage storage = new H2Storage(H2Storage.Mode.FILE, Path.of("/var/lib/app/students"), DataSize.ofMegabytes(16),
+                Duration.ofSeconds(1), Duration.ofMillis(200), 80);
+
+        assertEquals("jdbc:h2:file:/var/lib/app/students;CACHE_SIZE=16384;WRITE_DELAY=1000;MAX_COMPACT_TIME=200;"
+                + "AUTO_COMPACT_FILL_RATE=80", storage.url());
+        assertEquals(Path.of("/var/lib/app/students.mv.db"), storage.databaseFile());
+    }
+}
@@ -0,0 +1,131 @@
+package com.example;
+
+import com.example.controller.SqlMetricsController;
+import com.example.datasource.InstrumentedDataSource;
+import com.example.datasource.JdbcInstrumentation;
+import com.example.metrics.SqlMetrics;
+import com.example.metrics.SqlMetrics.StatementSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class InstrumentedDataSourceTest {
+
+    private static final String INSERT_SQL = "INSERT INTO student (name) VALUES (?)";
+    private static final String SELECT_SQL = "SELECT id, name FROM student ORDER BY id";
+    private static final String MISSING_SQL = "SELECT id FROM missing_table";
+
+    private final SqlMetrics sqlMetrics = new SqlMetrics(100);
+    private InstrumentedDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource pool = new DriverManagerDataSource(
+                "jdbc:h2:mem:instrumented-test-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource = new InstrumentedDataSource(pool, sqlMetrics, JdbcInstrumentation.TIMING);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE student (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255))");
+        sqlMetrics.reset();
+    }
+
+    private StatementSnapshot statement(String sql) {
+        return sqlMetrics.snapshot().stream().filter(s -> s.sql().equals(sql)).findFirst().orElse(null);
+    }
+
+    private void insert(String... names) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, List.of(names), names.length,
+                (ps, name) -> ps.setString(1, name));
+    }
+
+    @Test
+    void timing_shouldRecordLatencyAndRowsPerStatement() {
+        insert("Alice", "Bob", "Carol");
+        assertEquals(3, jdbcTemplate.queryForList(SELECT_SQL).size());
+        assertEquals(3, jdbcTemplate.queryForList(SELECT_SQL).size());
+
+        StatementSnapshot insert = statement(INSERT_SQL);
+        assertEquals(1, insert.latency().count());
+        assertEquals(3, insert.rows());
+        assertEquals(0, insert.errors());
+
+        StatementSnapshot select = statement(SELECT_SQL);
+        assertEquals(2, select.latency().count());
+        assertEquals(6, select.rows());
+        assertEquals(0, select.errors());
+        assertTrue(select.latency().maxMillis() >= 0);
+    }
+
+    @Test
+    void timing_shouldCountFailedStatements() {
+        assertThrows(DataAccessException.class, () -> jdbcTemplate.queryForList(MISSING_SQL));
+
+        StatementSnapshot failed = statement(MISSING_SQL);
+        assertEquals(1, failed.latency().count());
+        assertEquals(1, failed.errors());
+        assertEquals(0, failed.rows());
+    }
+
+    @Test
+    void setMode_none_shouldStopRecordingUntilTimingIsBack() {
+        dataSource.setMode(JdbcInstrumentation.NONE);
+        insert("Alice");
+        assertEquals(1, jdbcTemplate.queryForList(SELECT_SQL).size());
+        assertTrue(sqlMetrics.snapshot().isEmpty());
+
+        dataSource.setMode(JdbcInstrumentation.TIMING);
+        assertEquals(1, jdbcTemplate.queryForList(SELECT_SQL).size());
+        assertEquals(1, statement(SELECT_SQL).latency().count());
+        assertNull(statement(INSERT_SQL));
+    }
+
+    @Test
+    void setMode_spy_shouldLeaveSqlMetricsAlone() {
+        dataSource.setMode(JdbcInstrumentation.SPY);
+        insert("Alice");
+
+        assertEquals(1, jdbcTemplate.queryForList(SELECT_SQL).size());
+        assertTrue(sqlMetrics.snapshot().isEmpty());
+    }
+
+    @Test
+    void putMode_shouldSwitchTheDataSourceAtRuntime() throws Exception {
+        SqlMetricsController controller = new SqlMetricsController();
+        ReflectionTestUtils.setField(controller, "sqlMetrics", sqlMetrics);
+        ReflectionTestUtils.setField(controller, "dataSource", dataSource);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        mockMvc.perform(put("/metrics/sql/mode").param("value", "NONE"))
+                .andExpect(status().isOk());
+        assertEquals(JdbcInstrumentation.NONE, dataSource.getMode());
+        jdbcTemplate.queryForList(SELECT_SQL);
+        mockMvc.perform(get("/metrics/sql"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+
+        mockMvc.perform(put("/metrics/sql/mode").param("value", "TIMING"))
+                .andExpect(status().isOk());
+        jdbcTemplate.queryForList(SELECT_SQL);
+        mockMvc.perform(get("/metrics/sql"))
+                .andExpect(jsonPath("$[0].sql").value(SELECT_SQL))
+                .andExpect(jsonPath("$[0].latency.count").value(1));
+        mockMvc.perform(get("/metrics/sql/mode"))
+                .andExpect(content().string("\"TIMING\""));
+    }
+}
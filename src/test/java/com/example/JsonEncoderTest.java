@@ -0,0 +1,78 @@
+package com.example;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.example.logging.JsonEncoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.slf4j.event.KeyValuePair;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonEncoderTest {
+
+    @Test
+    void encode_shouldWriteOneParsableObjectPerLine() throws Exception {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        JsonEncoder encoder = new JsonEncoder();
+        encoder.setContext(context);
+        encoder.start();
+
+        MDC.put("requestId", "r-1");
+        MDC.put("message", "from the MDC");
+        LoggingEvent event;
+        try {
+            event = new LoggingEvent("test", context.getLogger("com.example.Test"), Level.INFO,
+                    "Imported {} rows from \"{}\"", new IllegalStateException("boom"),
+                    new Object[]{3, "a\tb\u0001"});
+            event.addKeyValuePair(new KeyValuePair("rows", 3));
+            event.addKeyValuePair(new KeyValuePair("level", "from a key-value pair"));
+            // What AsyncAppender does before handing the event to its worker thread
+            event.prepareForDeferredProcessing();
+        } finally {
+            MDC.clear();
+        }
+
+        String line = new String(encoder.encode(event), StandardCharsets.UTF_8);
+        assertTrue(line.endsWith("}\n"));
+        assertEquals(1, line.lines().count());
+
+        JsonNode json = new ObjectMapper().readTree(line);
+        assertEquals("INFO", json.get("level").asText());
+        assertEquals("com.example.Test", json.get("logger").asText());
+        assertEquals("Imported 3 rows from \"a\tb\u0001\"", json.get("message").asText());
+        assertEquals("r-1", json.get("mdc").get("requestId").asText());
+        assertEquals("from the MDC", json.get("mdc").get("message").asText());
+        assertEquals("3", json.get("kv").get("rows").asText());
+        assertEquals("from a key-value pair", json.get("kv").get("level").asText());
+        assertTrue(json.get("exception").asText().startsWith("java.lang.IllegalStateException: boom"));
+        List<String> fields = new ArrayList<>();
+        json.fieldNames().forEachRemaining(fields::add);
+        assertEquals(List.of("timestamp", "level", "thread", "logger", "message", "mdc", "kv", "exception"), fields);
+    }
+
+    @Test
+    void encode_withoutMdcOrKeyValuePairs_shouldLeaveThemOut() throws Exception {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        JsonEncoder encoder = new JsonEncoder();
+        encoder.setContext(context);
+        encoder.start();
+        LoggingEvent event = new LoggingEvent("test", context.getLogger("com.example.Test"), Level.WARN,
+                "plain", null, null);
+        event.prepareForDeferredProcessing();
+
+        JsonNode json = new ObjectMapper().readTree(encoder.encode(event));
+        List<String> fields = new ArrayList<>();
+        json.fieldNames().forEachRemaining(fields::add);
+        assertEquals(List.of("timestamp", "level", "thread", "logger", "message"), fields);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example;
+
+import com.example.metrics.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyHistogramTest {
+
+    @Test
+    void snapshot_shouldReportPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(100, snapshot.count());
+        assertEquals(50.5, snapshot.meanMillis(), 0.001);
+        assertEquals(50, snapshot.p50Millis(), 50 * 0.125);
+        assertEquals(99, snapshot.p99Millis(), 99 * 0.125);
+        assertEquals(100, snapshot.maxMillis(), 0.001);
+    }
+
+    @Test
+    void reset_shouldClearAllCounts() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000);
+        histogram.reset();
+
+        assertEquals(0, histogram.snapshot().count());
+        assertEquals(0, histogram.snapshot().p99Millis());
+    }
+}
@@ -2,8 +2,12 @@ package com.example;
 
 import com.example.controller.MigrateController;
 import com.example.entities.Student;
-import com.example.repositories.StudentRepository;
+import com.example.service.InvalidRepeatCountException;
 import com.example.service.MigrateService;
+import com.example.service.StudentStore;
+import com.example.service.WorkerPool.ResourceStats;
+import com.example.service.WorkerPool.WorkerState;
+import com.example.service.WorkerPool.WorkerStatus;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,12 +15,14 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(MigrateController.class)
@@ -29,7 +35,7 @@ class MigrateControllerTest {
     private MigrateService migrateService;
 
     @MockBean
-    private StudentRepository studentRepository;
+    private StudentStore studentStore;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -103,12 +109,23 @@ class MigrateControllerTest {
                 .andExpect(content().string("String: abc"));
     }
 
+    @Test
+    void clampBatch_shouldReturnClampedArray() throws Exception {
+        when(migrateService.clampValues(new int[]{-5, 50, 500})).thenReturn(new int[]{0, 50, 100});
+
+        mockMvc.perform(post("/clamp/batch")
+                        .contentType("application/json")
+                        .content("[-5,50,500]"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[0,50,100]"));
+    }
+
     @Test
     void addStudent_shouldReturnSavedStudent() throws Exception {
         Student savedStudent = new Student();
         savedStudent.setId(100l);
         savedStudent.setName("TestName");
-        when(studentRepository.save(any(Student.class))).thenReturn(savedStudent);
+        when(studentStore.save("TestName")).thenReturn(savedStudent);
         
         mockMvc.perform(get("/addStudent").param("name", "TestName"))
                 .andExpect(status().isOk())
@@ -117,9 +134,60 @@ class MigrateControllerTest {
     }
 
     @Test
-    void getLegacyThreads_shouldReturnConfirmation() throws Exception {
+    void getLegacyThreads_shouldReturnWorkerStatus() throws Exception {
+        Instant now = Instant.now();
+        when(migrateService.demonstrateLegacyThreadMethods()).thenReturn(new WorkerStatus("w1", "legacyThreads",
+                WorkerState.CANCELLED, 3, now, now.plusSeconds(5), now, now, null, null));
+
+        mockMvc.perform(get("/legacyThreads"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value("w1"))
+                .andExpect(jsonPath("$.state").value("CANCELLED"));
+    }
+
+    @Test
+    void getLegacyThreads_whenWorkerHasNotStopped_shouldReturnAccepted() throws Exception {
+        Instant now = Instant.now();
+        when(migrateService.demonstrateLegacyThreadMethods()).thenReturn(new WorkerStatus("w1", "legacyThreads",
+                WorkerState.RUNNING, 3, now, now.plusSeconds(5), now, null, null, null));
+
         mockMvc.perform(get("/legacyThreads"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.state").value("RUNNING"));
+    }
+
+    @Test
+    void getRunFinalization_shouldReturnResourceStats() throws Exception {
+        when(migrateService.demonstrateFinalization()).thenReturn(new ResourceStats(5, 4, 1));
+
+        mockMvc.perform(get("/runFinalization"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.registered").value(5))
+                .andExpect(jsonPath("$.released").value(4))
+                .andExpect(jsonPath("$.pending").value(1));
+    }
+
+    @Test
+    void callFinalize_shouldReturnWorkerStatus() throws Exception {
+        Instant now = Instant.now();
+        when(migrateService.demonstrateCleaner()).thenReturn(new WorkerStatus("w2", "cleaner",
+                WorkerState.SUCCEEDED, 0, now, now.plusSeconds(5), now, now, 12L, null));
+
+        mockMvc.perform(get("/finalize"))
                 .andExpect(status().isOk())
-                .andExpect(content().string("Legacy thread methods executed"));
+                .andExpect(jsonPath("$.state").value("SUCCEEDED"))
+                .andExpect(jsonPath("$.result").value(12));
+    }
+
+    @Test
+    void getRepeatText_withNegativeCount_shouldReturnBadRequest() throws Exception {
+        InvalidRepeatCountException negative = new InvalidRepeatCountException("count must not be negative: -1");
+        when(migrateService.repeatText("ab", -1)).thenThrow(negative);
+        when(migrateService.repeatedSize("ab", -1)).thenThrow(negative);
+
+        mockMvc.perform(get("/repeat").param("text", "ab").param("count", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/repeat/stream").param("text", "ab").param("count", "-1"))
+                .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+}
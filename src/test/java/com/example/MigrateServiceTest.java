@@ -1,21 +1,44 @@
 package com.example;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.example.service.InvalidRepeatCountException;
 import com.example.service.MigrateService;
-
+import com.example.service.OutputLimitExceededException;
+import com.example.service.RegexRejectedException;
+import com.example.service.RegexSplitter;
+import com.example.service.TaskExecutionService;
+import com.example.service.WorkerPool;
+import com.example.service.WorkerPool.WorkerState;
+import com.example.service.WorkerPool.WorkerStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class MigrateServiceTest {
 
+    private TaskExecutionService taskExecutionService;
+    private WorkerPool workerPool;
     private MigrateService migrateService;
 
     @BeforeEach
     void setUp() {
-        migrateService = new MigrateService();
+        taskExecutionService = new TaskExecutionService(4, 16, 64, Duration.ofMinutes(1));
+        workerPool = new WorkerPool(2, 16, Duration.ofSeconds(5));
+        migrateService = new MigrateService(taskExecutionService,
+                new RegexSplitter(16, 64, Duration.ofMillis(100)), workerPool, 1000, 100_000);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        taskExecutionService.shutdown();
+        workerPool.shutdown();
     }
 
     @Test
@@ -85,12 +108,74 @@ class MigrateServiceTest {
         assertEquals(100, Math.max(0, Math.min(110, 100))); // above max
     }
 
+    @Test
+    void checkTypes_shouldClassifyEachInputLikeCheckType() {
+        // Leading zeros and non-ASCII digits parse as Integer.parseInt does
+        String[] results = migrateService.checkTypes(new String[]{"123", "-7", "abc", "99999999999", "+", "",
+                "000000000001", "\u0661\u0662\u0663", "-2147483648", "2147483648"});
+        assertArrayEquals(new String[]{"Integer: 123", "Integer: -7", "String: abc", "String: 99999999999",
+                "String: +", "String: ", "Integer: 1", "Integer: 123", "Integer: -2147483648",
+                "String: 2147483648"}, results);
+    }
+
+    @Test
+    void clampValues_shouldClampLargeBatchesInParallel() {
+        int[] values = new int[50_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i - 100;
+        }
+        int[] results = migrateService.clampValues(values);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(migrateService.clampValue(values[i]), results[i]);
+        }
+    }
+
+    @Test
+    void areEmojiCharacters_shouldMatchSingleValueCheck() {
+        assertArrayEquals(new boolean[]{true, false}, migrateService.areEmojiCharacters(new int[]{0x1F600, 'A'}));
+    }
+
     @Test
     void repeatText_shouldRepeatString() {
         String result = migrateService.repeatText("a", 5);
         assertEquals("aaaaa", result);
     }
 
+    @Test
+    void repeatText_shouldRejectOutputOverLimit() {
+        assertEquals(1000, migrateService.repeatText("ab", 500).length());
+        assertThrows(OutputLimitExceededException.class, () -> migrateService.repeatText("ab", 501));
+        assertThrows(InvalidRepeatCountException.class, () -> migrateService.repeatText("ab", -1));
+    }
+
+    @Test
+    void constructor_shouldRejectMaxCharsBeyondOneStringBuilder() {
+        RegexSplitter regexSplitter = new RegexSplitter(16, 64, Duration.ofMillis(100));
+
+        assertThrows(IllegalArgumentException.class, () -> new MigrateService(taskExecutionService, regexSplitter,
+                workerPool, Integer.MAX_VALUE + 1L, 100_000));
+        assertThrows(IllegalArgumentException.class, () -> new MigrateService(taskExecutionService, regexSplitter,
+                workerPool, -1, 100_000));
+        assertDoesNotThrow(() -> new MigrateService(taskExecutionService, regexSplitter,
+                workerPool, Integer.MAX_VALUE - 8, 100_000));
+    }
+
+    @Test
+    void writeRepeated_shouldStreamSameContentAsRepeatText() throws Exception {
+        String text = "h\u00e9llo ";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        migrateService.writeRepeated(text, 3000, out);
+
+        assertEquals(text.repeat(3000), out.toString(StandardCharsets.UTF_8));
+        assertEquals(out.size(), migrateService.repeatedSize(text, 3000));
+    }
+
+    @Test
+    void repeatedSize_shouldRejectStreamOverLimit() {
+        assertThrows(OutputLimitExceededException.class, () -> migrateService.repeatedSize("abc", 40_000));
+    }
+
     @Test
     void isEmojiCharacter_shouldDetectEmoji() {
         // U+1F600 is a grinning face emoji
@@ -105,8 +190,49 @@ class MigrateServiceTest {
         assertArrayEquals(new String[]{"a", ",", "b", "-", "c"}, result);
     }
 
+    @Test
+    void splitKeepingDelimiters_shouldMatchJdkForLiteralDelimiters() {
+        for (String input : List.of("a::b::c", "::a::", "", "no delimiter", "::::")) {
+            assertArrayEquals(input.splitWithDelimiters("::", -1), migrateService.splitKeepingDelimiters(input, "::"));
+        }
+        assertArrayEquals("a.b".splitWithDelimiters("\\.", -1), migrateService.splitKeepingDelimiters("a.b", "\\."));
+    }
+
+    @Test
+    void splitKeepingDelimiters_shouldMatchJdkForZeroWidthRegex() {
+        assertArrayEquals("abc".splitWithDelimiters("", -1), migrateService.splitKeepingDelimiters("abc", ""));
+        assertArrayEquals("aXbX".splitWithDelimiters("(?=X)", -1),
+                migrateService.splitKeepingDelimiters("aXbX", "(?=X)"));
+    }
+
+    @Test
+    void splitKeepingDelimiters_shouldRejectCatastrophicBacktracking() {
+        String input = "a".repeat(30) + "!";
+        assertThrows(RegexRejectedException.class, () -> migrateService.splitKeepingDelimiters(input, "(.*a){12}$"));
+    }
+
+    @Test
+    void splitKeepingDelimiters_shouldRejectInvalidRegex() {
+        assertThrows(RegexRejectedException.class, () -> migrateService.splitKeepingDelimiters("a", "(unclosed"));
+    }
+
     @Test
     void demonstrateFinalization_shouldExecuteWithoutError() {
         assertDoesNotThrow(() -> migrateService.demonstrateFinalization());
     }
+
+    @Test
+    void demonstrateLegacyThreadMethods_shouldCancelWorkerCooperatively() throws Exception {
+        WorkerStatus status = migrateService.demonstrateLegacyThreadMethods();
+        assertEquals(WorkerState.CANCELLED, status.state());
+        assertEquals(0, workerPool.metrics().running());
+    }
+
+    @Test
+    void demonstrateCleaner_shouldReleaseScratchResource() throws Exception {
+        WorkerStatus status = migrateService.demonstrateCleaner();
+        assertEquals(WorkerState.SUCCEEDED, status.state());
+        assertEquals(12L, status.result());
+        assertEquals(0, migrateService.demonstrateFinalization().pending());
+    }
 }
@@ -0,0 +1,51 @@
+package com.example;
+
+import com.example.threads.PinningMonitor;
+import com.example.threads.PinningMonitor.PinnedSite;
+import com.example.threads.PinningMonitor.PinningStats;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PinningMonitorTest {
+
+    private static final long MILLI = 1_000_000;
+
+    private final PinningMonitor monitor = new PinningMonitor(Duration.ofMillis(20));
+
+    @Test
+    void record_shouldAggregatePerSiteByTotalPinnedTime() {
+        monitor.record("com.example.Dao.load:10", 2 * MILLI);
+        monitor.record("com.example.Dao.load:10", 2 * MILLI);
+        monitor.record("org.h2.engine.Session.lock:99", 5 * MILLI);
+
+        PinningStats stats = monitor.stats();
+        assertEquals(3, stats.events());
+        assertEquals(9.0, stats.totalPinnedMillis(), 1e-9);
+        assertEquals(List.of(
+                new PinnedSite("org.h2.engine.Session.lock:99", 1, 5.0),
+                new PinnedSite("com.example.Dao.load:10", 2, 4.0)), stats.topSites());
+    }
+
+    @Test
+    void record_pastMaxSites_shouldFoldNewSitesIntoOther() {
+        for (int i = 0; i < PinningMonitor.MAX_SITES; i++) {
+            monitor.record("site-" + i, MILLI);
+        }
+        for (int i = 0; i < 50; i++) {
+            monitor.record("late-" + i, MILLI);
+        }
+        // Sites seen before the cap keep their own entry
+        monitor.record("site-0", MILLI);
+
+        PinningStats stats = monitor.stats();
+        assertEquals(PinningMonitor.MAX_SITES + 51, stats.events());
+        assertEquals(new PinnedSite(PinningMonitor.OTHER_SITES, 50, 50.0), stats.topSites().get(0));
+        assertEquals(new PinnedSite("site-0", 2, 2.0), stats.topSites().get(1));
+        assertTrue(stats.topSites().stream().noneMatch(site -> site.frame().startsWith("late-")));
+    }
+}
@@ -0,0 +1,161 @@
+package com.example;
+
+import com.example.web.DeterministicResponse;
+import com.example.web.HttpResponseCache;
+import com.example.web.ResponseCacheFilter;
+import com.example.web.ResponseCacheInterceptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.method.HandlerMethod;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResponseCacheFilterTest {
+
+    private final HttpResponseCache cache = new HttpResponseCache(DataSize.ofKilobytes(64), DataSize.ofKilobytes(1),
+            Duration.ofMinutes(1));
+    private final ResponseCacheFilter filter = new ResponseCacheFilter(cache);
+    private final ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor();
+    private final AtomicInteger invocations = new AtomicInteger();
+
+    static class Handlers {
+        @DeterministicResponse(maxAge = 60)
+        public String deterministic() {
+            return "";
+        }
+
+        public String plain() {
+            return "";
+        }
+    }
+
+    @Test
+    void get_shouldReplayCachedBodyForSameNormalizedParameters() throws Exception {
+        MockHttpServletResponse first = perform(request("x=1&y=2"), "deterministic", "point 1,2");
+        MockHttpServletResponse second = perform(request("y=2&x=1"), "deterministic", "never rendered");
+
+        assertEquals(1, invocations.get());
+        assertEquals("MISS", first.getHeader("X-Cache"));
+        assertEquals("HIT", second.getHeader("X-Cache"));
+        assertEquals("point 1,2", second.getContentAsString());
+        assertEquals(first.getHeader("ETag"), second.getHeader("ETag"));
+        assertEquals("max-age=60", second.getHeader("Cache-Control"));
+        assertEquals(9, second.getContentLength());
+    }
+
+    @Test
+    void get_shouldAnswerNotModifiedForMatchingValidators() throws Exception {
+        MockHttpServletResponse first = perform(request("x=1"), "deterministic", "body");
+
+        MockHttpServletRequest byEtag = request("x=1");
+        byEtag.addHeader("If-None-Match", "\"other\", " + first.getHeader("ETag"));
+        MockHttpServletResponse notModified = perform(byEtag, "deterministic", "body");
+        assertEquals(304, notModified.getStatus());
+        assertEquals(0, notModified.getContentAsByteArray().length);
+
+        MockHttpServletRequest byDate = request("x=1");
+        byDate.addHeader("If-Modified-Since", first.getDateHeader("Last-Modified"));
+        assertEquals(304, perform(byDate, "deterministic", "body").getStatus());
+    }
+
+    @Test
+    void get_shouldPassThroughUnflaggedAndOversizedResponses() throws Exception {
+        perform(request("x=1"), "plain", "one");
+        MockHttpServletResponse plain = perform(request("x=1"), "plain", "two");
+        assertEquals("two", plain.getContentAsString());
+        assertNull(plain.getHeader("X-Cache"));
+
+        String large = "z".repeat(5000);
+        perform(request("x=2"), "deterministic", large);
+        MockHttpServletResponse again = perform(request("x=2"), "deterministic", large);
+        assertEquals(large, again.getContentAsString());
+        assertNull(again.getHeader("X-Cache"));
+        assertEquals(4, invocations.get());
+    }
+
+    @Test
+    void get_shouldKeepSeparateEntriesPerAcceptHeader() throws Exception {
+        MockHttpServletRequest json = request("x=1");
+        json.addHeader("Accept", "application/json");
+        perform(json, "deterministic", "{\"x\":1}");
+        MockHttpServletRequest text = request("x=1");
+        text.addHeader("Accept", "text/plain");
+        MockHttpServletResponse plain = perform(text, "deterministic", "x=1");
+
+        assertEquals("MISS", plain.getHeader("X-Cache"));
+        assertEquals("x=1", plain.getContentAsString());
+        assertEquals("Accept", plain.getHeader("Vary"));
+        assertEquals(2, invocations.get());
+    }
+
+    @Test
+    void get_shouldPassThroughBodyWrittenAfterAsyncStarted() throws Exception {
+        MockHttpServletRequest request = request("x=3");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServletResponse[] asyncResponse = new HttpServletResponse[1];
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                interceptor.preHandle(req, res, handler("deterministic"));
+                req.startAsync(req, res);
+                asyncResponse[0] = res;
+            }
+        };
+        filter.doFilter(request, response, new MockFilterChain(servlet));
+
+        asyncResponse[0].getOutputStream().write("later".getBytes(StandardCharsets.UTF_8));
+        assertEquals("later", response.getContentAsString());
+        assertNull(response.getHeader("X-Cache"));
+        assertEquals(0, cache.stats().entries());
+    }
+
+    private static MockHttpServletRequest request(String query) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/recordPattern");
+        request.setQueryString(query);
+        for (String pair : query.split("&")) {
+            String[] parts = pair.split("=");
+            request.addParameter(parts[0], parts[1]);
+        }
+        return request;
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request, String handler, String body)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) throws IOException {
+                invocations.incrementAndGet();
+                interceptor.preHandle(req, res, handler(handler));
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                res.setContentType("text/plain;charset=UTF-8");
+                res.setContentLength(bytes.length);
+                res.getOutputStream().write(bytes);
+            }
+        };
+        filter.doFilter(request, response, new MockFilterChain(servlet));
+        return response;
+    }
+
+    private static HandlerMethod handler(String name) {
+        try {
+            return new HandlerMethod(new Handlers(), name);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
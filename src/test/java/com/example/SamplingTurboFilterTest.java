@@ -0,0 +1,73 @@
+package com.example;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import com.example.logging.SamplingTurboFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final SamplingTurboFilter filter = new SamplingTurboFilter();
+
+    @BeforeEach
+    void setUp() {
+        filter.setContext(context);
+        filter.setRules("jdbc=1000, jdbc.sqltiming=10");
+        filter.start();
+    }
+
+    private int kept(Logger logger, Level level, boolean guarded, int events) {
+        int kept = 0;
+        for (int i = 0; i < events; i++) {
+            if (guarded && filter.decide(null, logger, level, null, null, null) == FilterReply.DENY) {
+                continue;
+            }
+            if (filter.decide(null, logger, level, "sql {}", new Object[]{i}, null) != FilterReply.DENY) {
+                kept++;
+            }
+        }
+        return kept;
+    }
+
+    @Test
+    void decide_shouldKeepAboutOneInNForLongestMatchingPrefix() {
+        int timing = kept(context.getLogger("jdbc.sqltiming"), Level.DEBUG, false, 100_000);
+        assertTrue(timing > 9_000 && timing < 11_000, "kept " + timing);
+        int other = kept(context.getLogger("jdbc.resultset"), Level.DEBUG, false, 100_000);
+        assertTrue(other > 50 && other < 150, "kept " + other);
+        assertEquals(1000, kept(context.getLogger("jdbcx"), Level.DEBUG, false, 1000));
+        assertEquals(1000, kept(context.getLogger("jdbc.sqltiming"), Level.WARN, false, 1000));
+    }
+
+    @Test
+    void decide_shouldNotSampleGuardedCallsTwice() {
+        int kept = kept(context.getLogger("jdbc.sqltiming"), Level.DEBUG, true, 100_000);
+        assertTrue(kept > 9_000 && kept < 11_000, "kept " + kept);
+    }
+
+    @Test
+    void decide_shouldNotCarryAGuardWithoutALogCallOverToALaterEvent() {
+        Logger timing = context.getLogger("jdbc.sqltiming");
+        Logger other = context.getLogger("com.example.Other");
+        int kept = 0;
+        for (int i = 0; i < 100_000; i++) {
+            // Ask until the guard admits the event, which the caller then never logs
+            FilterReply guard;
+            do {
+                guard = filter.decide(null, timing, Level.DEBUG, null, null, null);
+            } while (guard == FilterReply.DENY);
+            filter.decide(null, other, i % 2 == 0 ? Level.INFO : Level.WARN, "unrelated", null, null);
+            if (filter.decide(null, timing, Level.DEBUG, "sql {}", new Object[]{i}, null) != FilterReply.DENY) {
+                kept++;
+            }
+        }
+        assertTrue(kept > 9_000 && kept < 11_000, "kept " + kept);
+    }
+}
@@ -0,0 +1,177 @@
+package com.example;
+
+import com.example.datasource.JdbcInstrumentation;
+import com.example.entities.Student;
+import com.example.metrics.SqlMetrics;
+import com.example.service.StudentsImportedEvent;
+import com.example.service.TaskExecutionService;
+import com.example.sharding.ShardRouter;
+import com.example.sharding.ShardedStudentStore;
+import com.example.sharding.ShardedStudentStore.RebalanceResult;
+import com.example.sharding.ShardedStudentStore.ShardStats;
+import com.example.sharding.ShardingProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedStudentStoreTest {
+
+    private final List<StudentsImportedEvent> events = new ArrayList<>();
+    private ShardedStudentStore store;
+
+    @BeforeEach
+    void setUp() {
+        // A fresh set of in-memory databases per test
+        String template = "jdbc:h2:mem:shard-test-" + UUID.randomUUID() + "-{shard};DB_CLOSE_DELAY=-1";
+        ShardingProperties properties = new ShardingProperties(true, 2, 4, template, 2, 1, Duration.ofSeconds(5), 7, 5);
+        store = new ShardedStudentStore(properties, new SqlMetrics(100), JdbcInstrumentation.NONE,
+                new TaskExecutionService(16, 100, 64, Duration.ofMinutes(1)),
+                event -> events.add((StudentsImportedEvent) event), 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    private List<String> names(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "student-" + i).toList();
+    }
+
+    private List<Student> all() {
+        List<Student> students = new ArrayList<>();
+        List<Student> page = store.findAfter(0, 7);
+        while (!page.isEmpty()) {
+            students.addAll(page);
+            page = store.findAfter(page.getLast().getId(), 7);
+        }
+        return students;
+    }
+
+    @Test
+    void shardFor_shouldOnlyMoveRowsToNewShardWhenGrowing() {
+        int moved = 0;
+        for (long id = 1; id <= 10_000; id++) {
+            int before = ShardRouter.shardFor(id, 4);
+            int after = ShardRouter.shardFor(id, 5);
+            if (before != after) {
+                assertEquals(4, after);
+                moved++;
+            }
+        }
+        // about a fifth of the ids
+        assertTrue(moved > 1_700 && moved < 2_300, "moved " + moved);
+    }
+
+    @Test
+    void saveAll_shouldSpreadRowsAndListThemInIdOrder() {
+        List<Student> saved = store.saveAll(names(40));
+        store.save("late");
+
+        List<Student> listed = all();
+        assertEquals(41, listed.size());
+        assertEquals(saved, listed.subList(0, 40));
+        assertEquals("late", listed.getLast().getName());
+        assertEquals(saved.get(13), store.findById(saved.get(13).getId()).orElseThrow());
+        assertTrue(store.stats().stream().allMatch(shard -> shard.rows() > 0));
+    }
+
+    @Test
+    void streamAll_shouldReadEveryShardInIdOrderAcrossPages() {
+        ShardedStudentStore paged = new ShardedStudentStore(
+                new ShardingProperties(true, 3, 4, "jdbc:h2:mem:shard-stream-test-" + UUID.randomUUID()
+                        + "-{shard};DB_CLOSE_DELAY=-1", 2, 1, Duration.ofSeconds(5), 7, 5),
+                new SqlMetrics(100), JdbcInstrumentation.NONE,
+                new TaskExecutionService(16, 100, 64, Duration.ofMinutes(1)), event -> {}, 4);
+        try {
+            List<Student> saved = paged.saveAll(names(23));
+
+            try (Stream<Student> students = paged.streamAll()) {
+                assertEquals(saved, students.toList());
+            }
+            assertEquals(23, paged.count());
+        } finally {
+            paged.close();
+        }
+    }
+
+    @Test
+    void rebalance_shouldKeepEveryRowReachableWhenShardCountChanges() {
+        List<Student> saved = store.saveAll(names(100));
+
+        RebalanceResult grown = store.rebalance(3);
+        assertEquals(100, grown.scanned());
+        assertTrue(grown.moved() > 0 && grown.moved() < 60, "moved " + grown.moved());
+        assertEquals(3, store.shardCount());
+        assertEquals(saved, all());
+        for (Student student : saved) {
+            assertEquals(student, store.findById(student.getId()).orElseThrow());
+        }
+
+        RebalanceResult shrunk = store.rebalance(1);
+        assertEquals(100, shrunk.shards().stream().mapToLong(ShardStats::rows).sum());
+        assertEquals(saved, all());
+        assertEquals(List.of(), store.findAfter(saved.getLast().getId(), 10));
+    }
+
+    @Test
+    void rebalance_shouldKeepServingReadsAndWritesWhileRowsMove() throws Exception {
+        List<Student> saved = store.saveAll(names(2000));
+        List<Student> expected = new ArrayList<>(saved);
+
+        // Small rebalance batches, so rows move a page of 5 at a time while this thread keeps going
+        CompletableFuture<RebalanceResult> rebalance = CompletableFuture.supplyAsync(() -> store.rebalance(4));
+        int round = 0;
+        while (!rebalance.isDone()) {
+            Student probe = saved.get(round++ % saved.size());
+            assertEquals(probe, store.findById(probe.getId()).orElseThrow());
+            expected.add(store.save("during-" + round));
+        }
+        RebalanceResult result = rebalance.get(30, TimeUnit.SECONDS);
+
+        assertEquals(2, result.fromShards());
+        assertEquals(4, store.shardCount());
+        assertEquals(expected, all());
+        assertEquals(expected.size(), store.count());
+        for (Student student : expected.subList(saved.size(), expected.size())) {
+            assertEquals(student, store.findById(student.getId()).orElseThrow());
+        }
+    }
+
+    @Test
+    void save_shouldAnnounceCommittedRowsWithTheirIds() {
+        List<Student> saved = store.saveAll(names(10));
+        Student late = store.save("late");
+
+        assertEquals(2, events.size());
+        assertEquals(saved, events.get(0).students());
+        assertEquals(List.of(late), events.get(1).students());
+    }
+
+    @Test
+    void findByName_shouldMatchExactNamesOnEveryShard() {
+        List<Student> saved = store.saveAll(List.of("alice", "bob", "alice", "alicia", "alice"));
+
+        assertEquals(List.of(saved.get(0), saved.get(2), saved.get(4)), store.findByName("alice"));
+        assertEquals(List.of(), store.findByName("carol"));
+    }
+
+    @Test
+    void rebalance_beyondMaxShards_shouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> store.rebalance(5));
+        assertEquals(2, store.shardCount());
+    }
+}
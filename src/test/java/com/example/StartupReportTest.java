@@ -0,0 +1,47 @@
+package com.example;
+
+import com.example.startup.StartupReport;
+import com.example.startup.StartupReport.Report;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StartupReportTest {
+
+    @Test
+    void report_shouldRankBeansBySlowestInstantiation() throws Exception {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(16);
+        startup.startRecording();
+        instantiate(startup, "mediumBean", 20);
+        instantiate(startup, "fastBean", 1);
+        instantiate(startup, "slowBean", 60);
+
+        Report report = new StartupReport(startup).report(2);
+
+        assertNull(report.readyMillis());
+        assertEquals(3, report.recordedSteps());
+        assertEquals(2, report.slowestBeans().size());
+        assertEquals("slowBean", report.slowestBeans().get(0).bean());
+        assertEquals("mediumBean", report.slowestBeans().get(1).bean());
+        assertTrue(report.slowestBeans().get(0).millis() >= 60);
+    }
+
+    @Test
+    void report_shouldBeEmptyWithoutBufferedStartup() {
+        Report report = new StartupReport(ApplicationStartup.DEFAULT).report(10);
+
+        assertEquals(0, report.recordedSteps());
+        assertTrue(report.slowestBeans().isEmpty());
+    }
+
+    private static void instantiate(ApplicationStartup startup, String bean, long millis) throws InterruptedException {
+        StartupStep step = startup.start("spring.beans.instantiate").tag("beanName", bean);
+        Thread.sleep(millis);
+        step.end();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example;
+
+import com.example.web.BufferPool;
+import com.example.web.StringArrayJsonConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StringArrayJsonConverterTest {
+
+    // Deliberately tiny so every value crosses buffer boundaries
+    private final StringArrayJsonConverter converter = new StringArrayJsonConverter(new BufferPool(16, 2));
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void write_shouldMatchJacksonOutput() throws Exception {
+        String[] values = {"plain", "", "quote \" and \\ backslash", "tab\tnew\nline\u0001", "café €",
+                "emoji 😀 done", "x".repeat(100), null, "a,b"};
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(values, String[].class, MediaType.APPLICATION_JSON, output);
+
+        assertEquals(objectMapper.writeValueAsString(values), output.getBodyAsString(StandardCharsets.UTF_8));
+        assertEquals(Arrays.asList(values), Arrays.asList(objectMapper.readValue(output.getBodyAsBytes(), String[].class)));
+    }
+
+    @Test
+    void write_shouldStreamStringLists() throws Exception {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add("value-" + i);
+        }
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(values, new ParameterizedTypeReference<List<String>>() {}.getType(),
+                MediaType.APPLICATION_JSON, output);
+
+        assertEquals(objectMapper.writeValueAsString(values), output.getBodyAsString());
+        assertEquals(MediaType.APPLICATION_JSON, output.getHeaders().getContentType());
+        assertEquals(-1, output.getHeaders().getContentLength());
+    }
+
+    @Test
+    void write_shouldSetContentLengthWhenResultFitsInOneBuffer() throws Exception {
+        StringArrayJsonConverter pooled = new StringArrayJsonConverter(new BufferPool(1024, 2));
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        pooled.write(new String[]{"a", "b"}, String[].class, MediaType.APPLICATION_JSON, output);
+
+        assertEquals("[\"a\",\"b\"]", output.getBodyAsString());
+        assertEquals(9, output.getHeaders().getContentLength());
+    }
+
+    @Test
+    void bufferPool_shouldKeepAtMostMaxPooledAfterForeignBuffers() {
+        BufferPool pool = new BufferPool(16, 2);
+        for (int i = 0; i < 3; i++) {
+            pool.release(new byte[8]);
+        }
+        List<byte[]> released = List.of(new byte[16], new byte[16], new byte[16], new byte[16]);
+        released.forEach(pool::release);
+
+        assertSame(released.get(0), pool.acquire());
+        assertSame(released.get(1), pool.acquire());
+        byte[] fresh = pool.acquire();
+        assertTrue(released.stream().noneMatch(buffer -> buffer == fresh));
+    }
+
+    @Test
+    void canWrite_shouldOnlyAcceptStringArraysAndCollections() {
+        assertTrue(converter.canWrite(new ParameterizedTypeReference<Set<String>>() {}.getType(), Set.class,
+                MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(new ParameterizedTypeReference<List<Integer>>() {}.getType(), List.class,
+                MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(String[].class, String[].class, MediaType.APPLICATION_XML));
+        assertFalse(converter.canRead(String[].class, null, MediaType.APPLICATION_JSON));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example;
+
+import com.example.controller.StudentController;
+import com.example.entities.Student;
+import com.example.service.StudentImportService;
+import com.example.service.StudentImportService.ImportResult;
+import com.example.service.StudentQueryService;
+import com.example.service.StudentQueryService.StudentPage;
+import com.example.service.StudentSearchIndex;
+import com.example.service.StudentSearchIndex.Mode;
+import com.example.service.StudentSearchIndex.SearchHit;
+import com.example.service.StudentWriteBehindService;
+import com.example.service.StudentWriteBehindService.WriteState;
+import com.example.service.StudentWriteBehindService.WriteStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(StudentController.class)
+class StudentControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StudentImportService studentImportService;
+
+    @MockBean
+    private StudentQueryService studentQueryService;
+
+    @MockBean
+    private StudentWriteBehindService studentWriteBehindService;
+
+    @MockBean
+    private StudentSearchIndex studentSearchIndex;
+
+    @Test
+    void listStudents_shouldReturnKeysetPage() throws Exception {
+        List<Student> students = List.of(new Student(11L, "Alice"), new Student(12L, "Bob"));
+        when(studentQueryService.listAfter(10, 2)).thenReturn(new StudentPage(students, 12L));
+
+        mockMvc.perform(get("/students").param("afterId", "10").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.students[0].name").value("Alice"))
+                .andExpect(jsonPath("$.students[1].id").value(12))
+                .andExpect(jsonPath("$.nextAfterId").value(12));
+    }
+
+    @Test
+    void importNdjson_shouldReturnImportSummary() throws Exception {
+        when(studentImportService.importNdjson(any())).thenReturn(new ImportResult(2, 0, 1, 1000, 5, 400.0));
+
+        mockMvc.perform(post("/students/import")
+                        .contentType("application/x-ndjson")
+                        .content("{\"name\":\"Alice\"}\n{\"name\":\"Bob\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows").value(2))
+                .andExpect(jsonPath("$.batches").value(1));
+    }
+
+    @Test
+    void getStudent_shouldReturnStudentOrNotFound() throws Exception {
+        when(studentQueryService.findById(7L)).thenReturn(Optional.of(new Student(7L, "Alice")));
+        when(studentQueryService.findById(8L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/students/7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Alice"));
+        mockMvc.perform(get("/students/8"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void addStudentAsync_shouldAcceptWithTrackingId() throws Exception {
+        when(studentWriteBehindService.enqueue("Alice"))
+                .thenReturn(new WriteStatus("w-1", "Alice", WriteState.QUEUED, null, null, Instant.now(), null));
+
+        mockMvc.perform(post("/students/async").param("name", "Alice"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/students/async/w-1"))
+                .andExpect(jsonPath("$.id").value("w-1"))
+                .andExpect(jsonPath("$.state").value("QUEUED"));
+    }
+
+    @Test
+    void searchStudents_shouldDelegateToIndex() throws Exception {
+        when(studentSearchIndex.search("alise", Mode.FUZZY, 5, 1))
+                .thenReturn(List.of(new SearchHit(3L, "Alice", 1)));
+
+        mockMvc.perform(get("/students/search").param("q", "alise").param("mode", "FUZZY").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Alice"))
+                .andExpect(jsonPath("$[0].distance").value(1));
+    }
+
+    @Test
+    void exportStudents_shouldStreamWithItsOwnAsyncTimeout() throws Exception {
+        MvcResult result = mockMvc.perform(get("/students/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertEquals(Duration.ofMinutes(30).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+    }
+}
@@ -0,0 +1,123 @@
+package com.example;
+
+import com.example.datasource.JdbcInstrumentation;
+import com.example.entities.Student;
+import com.example.metrics.SqlMetrics;
+import com.example.repositories.StudentRepository;
+import com.example.service.JpaStudentStore;
+import com.example.service.StudentImportService;
+import com.example.service.StudentImportService.ImportResult;
+import com.example.service.StudentsImportedEvent;
+import com.example.service.TaskExecutionService;
+import com.example.sharding.ShardedStudentStore;
+import com.example.sharding.ShardingProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class StudentImportServiceTest {
+
+    private final List<StudentsImportedEvent> events = new ArrayList<>();
+    private JdbcTemplate jdbcTemplate;
+    private StudentImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:import-test-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE student (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255))");
+        JpaStudentStore store = new JpaStudentStore(mock(StudentRepository.class), jdbcTemplate,
+                new DataSourceTransactionManager(dataSource), mock(EntityManager.class),
+                event -> events.add((StudentsImportedEvent) event));
+        importService = new StudentImportService(store, new ObjectMapper(), 2);
+    }
+
+    private List<List<String>> batches() {
+        return events.stream().map(event -> event.students().stream().map(Student::getName).toList()).toList();
+    }
+
+    @Test
+    void importNdjson_shouldWriteInBatches() throws Exception {
+        String body = """
+                {"name":"Alice"}
+                {"name":"Bob"}
+
+                {"name":"Carol"}
+                not json
+                {"id":5}
+                """;
+
+        ImportResult result = importService.importNdjson(stream(body));
+
+        assertEquals(3, result.rows());
+        assertEquals(2, result.skipped());
+        assertEquals(2, result.batches());
+        assertEquals(List.of(List.of("Alice", "Bob"), List.of("Carol")), batches());
+        // Every batch carries the ids it was given
+        assertEquals(jdbcTemplate.query("SELECT id, name FROM student ORDER BY id",
+                        (rs, n) -> new Student(rs.getLong(1), rs.getString(2))),
+                events.stream().flatMap(event -> event.students().stream()).toList());
+    }
+
+    @Test
+    void importCsv_shouldSkipHeaderAndHandleQuotes() throws Exception {
+        String body = """
+                name,age
+                Alice,20
+                "Doe, ""JD"" John",30
+                Bob
+                """;
+
+        ImportResult result = importService.importCsv(stream(body));
+
+        assertEquals(3, result.rows());
+        assertEquals(List.of(List.of("Alice", "Doe, \"JD\" John"), List.of("Bob")), batches());
+    }
+
+    @Test
+    void importNdjson_withSharding_shouldWriteBatchesToTheShards() throws Exception {
+        String template = "jdbc:h2:mem:import-shard-test-" + UUID.randomUUID() + "-{shard};DB_CLOSE_DELAY=-1";
+        ShardedStudentStore store = new ShardedStudentStore(
+                new ShardingProperties(true, 2, 4, template, 2, 1, Duration.ofSeconds(5), 100, 100),
+                new SqlMetrics(100), JdbcInstrumentation.NONE,
+                new TaskExecutionService(16, 100, 64, Duration.ofMinutes(1)),
+                event -> events.add((StudentsImportedEvent) event), 1000);
+        try {
+            StudentImportService sharded = new StudentImportService(store, new ObjectMapper(), 2);
+            String body = """
+                    {"name":"Alice"}
+                    {"name":"Bob"}
+                    {"name":"Carol"}
+                    """;
+
+            ImportResult result = sharded.importNdjson(stream(body));
+
+            assertEquals(3, result.rows());
+            assertEquals(List.of(List.of("Alice", "Bob"), List.of("Carol")), batches());
+            assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM student", Integer.class));
+            assertEquals(events.stream().flatMap(event -> event.students().stream()).toList(),
+                    store.findAfter(0, 10));
+        } finally {
+            store.close();
+        }
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,144 @@
+package com.example;
+
+import com.example.repositories.StudentRepository;
+import com.example.service.JpaStudentStore;
+import com.example.service.StudentSearchIndex;
+import com.example.service.StudentSearchIndex.Mode;
+import com.example.service.StudentSearchIndex.SearchHit;
+import com.example.service.StudentStore;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class StudentSearchIndexTest {
+
+    private StudentSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new StudentSearchIndex(mock(StudentStore.class), 100, 50);
+        index.put(1, "Alice");
+        index.put(2, "alicia");
+        index.put(3, "Alison");
+        index.put(4, "Bob");
+        index.put(5, "Alice ");
+        index.put(6, "Albert");
+    }
+
+    @Test
+    void search_shouldMatchPrefixCaseInsensitively() {
+        List<SearchHit> hits = index.search("ALI", Mode.PREFIX, 10, 0);
+
+        assertEquals(List.of(1L, 5L, 2L, 3L), hits.stream().map(SearchHit::id).toList());
+        assertEquals(2, index.search("ali", Mode.PREFIX, 2, 0).size());
+    }
+
+    @Test
+    void search_shouldMatchExactNormalizedName() {
+        assertEquals(List.of(1L, 5L), index.search(" alice", Mode.EXACT, 10, 0).stream().map(SearchHit::id).toList());
+    }
+
+    @Test
+    void search_shouldRankFuzzyMatchesByDistance() {
+        List<SearchHit> hits = index.search("alise", Mode.FUZZY, 10, 2);
+
+        assertEquals(List.of("Alice", "Alice ", "Alison"), hits.stream().map(SearchHit::name).toList());
+        assertEquals(List.of(1, 1, 2), hits.stream().map(SearchHit::distance).toList());
+        assertEquals(List.of("alicia"), index.search("alicja", Mode.FUZZY, 10, 1).stream().map(SearchHit::name).toList());
+        assertEquals(List.of(), index.search("zzzzz", Mode.FUZZY, 10, 2));
+    }
+
+    @Test
+    void search_shouldFindSameFuzzyMatchesAsFullScan() {
+        StudentSearchIndex large = new StudentSearchIndex(mock(StudentStore.class), 100, 100);
+        Random random = new Random(42);
+        List<String> all = new ArrayList<>();
+        for (int id = 0; id < 5000; id++) {
+            StringBuilder name = new StringBuilder();
+            for (int i = 0, n = 3 + random.nextInt(6); i < n; i++) {
+                name.append((char) ('a' + random.nextInt(5)));
+            }
+            all.add(name.toString());
+            large.put(id, name.toString());
+        }
+        for (String query : List.of("abc", "eeda", "abcdeab", "a")) {
+            long expected = all.stream().filter(name -> levenshtein(query, name) <= 1).count();
+            assertEquals(Math.min(expected, 100), large.search(query, Mode.FUZZY, 100, 1).size(), query);
+        }
+    }
+
+    @Test
+    void put_shouldMoveRenamedStudentAndRemoveDeletedOne() {
+        index.put(4, "Alina");
+        index.remove(1);
+
+        assertEquals(List.of("Alice ", "alicia", "Alina", "Alison"),
+                index.search("ali", Mode.PREFIX, 10, 0).stream().map(SearchHit::name).toList());
+        assertEquals(List.of(), index.search("bob", Mode.EXACT, 10, 0));
+        assertEquals(5, index.stats().students());
+    }
+
+    @Test
+    void scan_shouldNotResurrectRowDeletedWhileItsBatchWasApplied() {
+        List<Runnable> afterRead = new ArrayList<>();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:search-index-test-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1")) {
+            @Override
+            public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+                List<T> rows = super.query(sql, rowMapper, args);
+                afterRead.forEach(Runnable::run);
+                afterRead.clear();
+                return rows;
+            }
+        };
+        jdbcTemplate.execute("CREATE TABLE student (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255))");
+        jdbcTemplate.update("INSERT INTO student (name) VALUES ('Zoe'), ('Yann')");
+        JpaStudentStore store = new JpaStudentStore(mock(StudentRepository.class), jdbcTemplate,
+                new DataSourceTransactionManager(jdbcTemplate.getDataSource()), mock(EntityManager.class), event -> {});
+        StudentSearchIndex scanned = new StudentSearchIndex(store, 100, 50);
+        // Committed after the batch was read, announced before it is applied
+        afterRead.add(() -> {
+            jdbcTemplate.update("DELETE FROM student WHERE id = 1");
+            scanned.remove(1);
+            jdbcTemplate.update("UPDATE student SET name = 'Yannick' WHERE id = 2");
+            scanned.put(2, "Yannick");
+        });
+
+        assertEquals(2, scanned.scan());
+
+        assertEquals(List.of(), scanned.search("zoe", Mode.EXACT, 10, 0));
+        assertEquals(List.of(new SearchHit(2, "Yannick", 0)), scanned.search("yann", Mode.PREFIX, 10, 0));
+        assertEquals(1, scanned.stats().students());
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
@@ -0,0 +1,205 @@
+package com.example;
+
+import com.example.analytics.StudentSnapshot;
+import com.example.analytics.StudentSnapshot.Frequency;
+import com.example.analytics.StudentSnapshot.RefreshResult;
+import com.example.entities.StudentChangedEvent;
+import com.example.entities.StudentChangedEvent.ChangeType;
+import com.example.repositories.StudentRepository;
+import com.example.service.JpaStudentStore;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class StudentSnapshotTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private JpaStudentStore store;
+    private StudentSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:snapshot-test-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE student (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255))");
+        store = new JpaStudentStore(mock(StudentRepository.class), jdbcTemplate,
+                new DataSourceTransactionManager(dataSource), mock(EntityManager.class), event -> {});
+        // Small batches and initial columns, so refreshes page and the mapped files grow
+        snapshot = new StudentSnapshot(store, "", 16, 7, 4, 100, Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        snapshot.close();
+    }
+
+    // What the entity listener publishes once the write has committed
+    private void changed(StudentSnapshot target, ChangeType type, long id, String name) {
+        ReflectionTestUtils.invokeMethod(target, "onStudentChanged", new StudentChangedEvent(type, id, name));
+    }
+
+    private void insert(String... names) {
+        jdbcTemplate.batchUpdate("INSERT INTO student (name) VALUES (?)",
+                List.of(names).stream().map(name -> new Object[]{name}).toList());
+    }
+
+    @Test
+    void refresh_shouldAppendOnlyNewRows() {
+        insert(IntStream.range(0, 3000).mapToObj(i -> "student-" + (i % 50)).toArray(String[]::new));
+        RefreshResult first = snapshot.refresh();
+        assertEquals(3000, first.rowsAdded());
+        assertFalse(first.rebuilt());
+
+        insert("late", "late");
+        RefreshResult second = snapshot.refresh();
+        assertEquals(2, second.rowsAdded());
+        assertEquals(3002, second.rows());
+        assertEquals(51, snapshot.stats().distinctNames());
+        assertEquals(3002, snapshot.count(null, null, null).count());
+    }
+
+    @Test
+    void count_shouldFilterByPrefixAndIdRange() {
+        insert("alice", "albert", "bob", "alfred", "carol", "alice");
+        snapshot.refresh();
+
+        assertEquals(4, snapshot.count("al", null, null).count());
+        assertEquals(2, snapshot.count("al", 2L, 5L).count());
+        assertEquals(0, snapshot.count("zed", null, null).count());
+        assertEquals(4, snapshot.count(null, 3L, null).count());
+    }
+
+    @Test
+    void topNamesAndPrefixes_shouldAggregateAcrossParallelScans() {
+        // Enough rows for several scan ranges
+        insert(IntStream.range(0, 40_000)
+                .mapToObj(i -> i % 2 == 0 ? "alice" : "b" + (i % 7))
+                .toArray(String[]::new));
+        snapshot.refresh();
+
+        assertEquals(new Frequency("alice", 20_000), snapshot.topNames(null, 3).getFirst());
+        assertEquals(List.of(new Frequency("alice", 20_000)), snapshot.topNames("al", 10));
+        assertEquals(List.of(new Frequency("a", 20_000), new Frequency("b", 20_000)), snapshot.prefixes(1, 10));
+        assertEquals(3, snapshot.prefixes(2, 3).size());
+    }
+
+    @Test
+    void refresh_shouldRebuildWhenAnInsertCommitsBelowTheLastId() {
+        insert("alice", "bob");
+        jdbcTemplate.update("INSERT INTO student (id, name) VALUES (10, 'dave')");
+        snapshot.refresh();
+        snapshot.announce(1, 2, 10);
+        assertFalse(snapshot.refresh().rebuilt());
+
+        // Id 5 was handed out before 10 but committed after the snapshot had passed it
+        jdbcTemplate.update("INSERT INTO student (id, name) VALUES (5, 'carol')");
+        snapshot.announce(5);
+        assertEquals(0, snapshot.refresh().rowsAdded());
+        assertTrue(snapshot.stats().dirty());
+        RefreshResult rebuilt = snapshot.refresh();
+
+        assertTrue(rebuilt.rebuilt());
+        assertEquals(4, rebuilt.rows());
+        assertEquals(1, snapshot.count("carol", null, null).count());
+    }
+
+    @Test
+    void refresh_shouldGrowTheNameHashPastItsInitialSize() {
+        insert(IntStream.range(0, 5000).mapToObj(i -> "name-" + (i % 2500)).toArray(String[]::new));
+        insert("name-1234");
+        snapshot.refresh();
+
+        assertEquals(2500, snapshot.stats().distinctNames());
+        assertEquals(new Frequency("name-1234", 3), snapshot.topNames(null, 1).getFirst());
+        assertEquals(2, snapshot.count("name-2499", null, null).count());
+    }
+
+    @Test
+    void refresh_shouldApplyDeletesAndRenamesInPlace() {
+        insert("alice", "bob", "carol", "bob");
+        snapshot.refresh();
+
+        jdbcTemplate.update("DELETE FROM student WHERE id = 2");
+        changed(snapshot, ChangeType.DELETED, 2, null);
+        jdbcTemplate.update("UPDATE student SET name = 'dave' WHERE id = 3");
+        changed(snapshot, ChangeType.UPDATED, 3, "dave");
+        RefreshResult result = snapshot.refresh();
+
+        assertFalse(result.rebuilt());
+        assertEquals(2, result.rowsChanged());
+        assertEquals(3, result.rows());
+        assertFalse(snapshot.stats().dirty());
+        assertEquals(1, snapshot.stats().deletedRows());
+        assertEquals(3, snapshot.count(null, null, null).count());
+        assertEquals(1, snapshot.count(null, 2L, 3L).count());
+        assertEquals(0, snapshot.count("carol", null, null).count());
+        assertEquals(List.of(new Frequency("alice", 1), new Frequency("bob", 1), new Frequency("dave", 1)),
+                snapshot.topNames(null, 10));
+    }
+
+    @Test
+    void refresh_shouldKeepADeletedRowDeletedWhenARenameArrivesLate() {
+        insert("alice", "bob");
+        snapshot.refresh();
+
+        jdbcTemplate.update("DELETE FROM student WHERE id = 2");
+        changed(snapshot, ChangeType.DELETED, 2, null);
+        changed(snapshot, ChangeType.UPDATED, 2, "robert");
+        // Not copied yet: the scan reads it as committed
+        insert("carol");
+        jdbcTemplate.update("UPDATE student SET name = 'carla' WHERE id = 3");
+        changed(snapshot, ChangeType.UPDATED, 3, "carla");
+        RefreshResult result = snapshot.refresh();
+
+        assertEquals(1, result.rowsAdded());
+        assertEquals(2, result.rows());
+        assertEquals(0, snapshot.count("robert", null, null).count());
+        assertEquals(1, snapshot.count("carla", null, null).count());
+    }
+
+    @Test
+    void refresh_shouldRebuildAtMostOncePerInterval() {
+        StudentSnapshot limited = new StudentSnapshot(store, "", 16, 7, 4, 100, Duration.ofHours(1));
+        try {
+            insert("alice");
+            jdbcTemplate.update("INSERT INTO student (id, name) VALUES (10, 'dave')");
+            limited.refresh();
+            jdbcTemplate.update("INSERT INTO student (id, name) VALUES (5, 'carol')");
+            limited.announce(5);
+            limited.refresh();
+            assertTrue(limited.refresh().rebuilt());
+
+            jdbcTemplate.update("INSERT INTO student (id, name) VALUES (7, 'erin')");
+            limited.announce(7);
+            limited.refresh();
+            // Within the interval the missed row waits for a later rebuild
+            RefreshResult deferred = limited.refresh();
+            assertFalse(deferred.rebuilt());
+            assertEquals(3, deferred.rows());
+            assertTrue(limited.stats().dirty());
+
+            RefreshResult forced = limited.rebuild();
+            assertTrue(forced.rebuilt());
+            assertEquals(4, forced.rows());
+            assertFalse(limited.stats().dirty());
+        } finally {
+            limited.close();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example;
+
+import com.example.controller.CacheController;
+import com.example.entities.Student;
+import com.example.repositories.StudentRepository;
+import com.example.service.JpaStudentStore;
+import com.example.service.StudentStore;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@DataJpaTest
+@Import(JpaStudentStore.class)
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+class StudentStoreCacheTest {
+
+    @TestConfiguration
+    @EnableCaching
+    static class CachingConfig {
+    }
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentStore studentStore;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Cache byId;
+    private Cache byName;
+
+    @BeforeEach
+    void setUp() {
+        byId = cacheManager.getCache(StudentRepository.CACHE_BY_ID);
+        byName = cacheManager.getCache(StudentRepository.CACHE_BY_NAME);
+        byId.clear();
+        byName.clear();
+    }
+
+    private static CacheStats stats(Cache cache) {
+        return ((CaffeineCache) cache).getNativeCache().stats();
+    }
+
+    private Student cached(String name) {
+        Student student = studentRepository.save(new Student(null, name));
+        byId.clear();
+        assertTrue(studentStore.findById(student.getId()).isPresent());
+        assertEquals(1, studentStore.findByName(name).size());
+        assertNotNull(byId.get(student.getId()));
+        assertNotNull(byName.get(name));
+        return student;
+    }
+
+    @Test
+    void findById_shouldBeServedFromTheCacheOnceLoaded() {
+        Student student = cached("Alice");
+        long hits = stats(byId).hitCount();
+        long misses = stats(byId).missCount();
+
+        studentStore.findById(student.getId());
+        studentStore.findById(student.getId());
+
+        assertEquals(hits + 2, stats(byId).hitCount());
+        assertEquals(misses, stats(byId).missCount());
+    }
+
+    @Test
+    void findById_shouldNotCacheMissingIds() {
+        assertTrue(studentStore.findById(-1L).isEmpty());
+
+        assertNull(byId.get(-1L));
+    }
+
+    @Test
+    void deleteAllInBatch_shouldEvictBothCaches() {
+        Student student = cached("Alice");
+
+        studentRepository.deleteAllInBatch();
+
+        assertNull(byId.get(student.getId()));
+        assertNull(byName.get("Alice"));
+        assertTrue(studentStore.findByName("Alice").isEmpty());
+    }
+
+    @Test
+    void deleteAllInBatchOfEntities_shouldEvictBothCaches() {
+        Student student = cached("Alice");
+
+        studentRepository.deleteAllInBatch(List.of(student));
+
+        assertNull(byId.get(student.getId()));
+        assertNull(byName.get("Alice"));
+    }
+
+    @Test
+    void deleteAllByIdInBatch_shouldEvictBothCaches() {
+        Student student = cached("Alice");
+
+        studentRepository.deleteAllByIdInBatch(List.of(student.getId()));
+
+        assertNull(byId.get(student.getId()));
+        assertNull(byName.get("Alice"));
+    }
+
+    @Test
+    void save_shouldRefreshTheIdAndEvictTheName() {
+        Student student = cached("Alice");
+
+        student.setName("Alicia");
+        studentRepository.save(student);
+
+        assertEquals("Alicia", studentStore.findById(student.getId()).orElseThrow().getName());
+        assertNull(byName.get("Alice"));
+    }
+
+    @Test
+    void cacheStats_shouldReportHitsAndMisses() throws Exception {
+        Student student = cached("Bob");
+        studentStore.findById(student.getId());
+        studentStore.findByName("Bob");
+        studentStore.findByName("Bob");
+
+        CacheController controller = new CacheController();
+        ReflectionTestUtils.setField(controller, "cacheManager", cacheManager);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        mockMvc.perform(get("/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.students.size").value(1))
+                .andExpect(jsonPath("$.students.hits").value(greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.students.misses").value(greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.studentsByName.size").value(1))
+                .andExpect(jsonPath("$.studentsByName.hits").value(greaterThanOrEqualTo(2)));
+    }
+}
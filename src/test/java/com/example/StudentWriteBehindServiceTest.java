@@ -0,0 +1,118 @@
+package com.example;
+
+import com.example.entities.Student;
+import com.example.service.StudentStore;
+import com.example.service.StudentWriteBehindService;
+import com.example.service.StudentWriteBehindService.OverflowPolicy;
+import com.example.service.StudentWriteBehindService.WriteState;
+import com.example.service.StudentWriteBehindService.WriteStatus;
+import com.example.service.WriteBehindRejectedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StudentWriteBehindServiceTest {
+
+    private final StudentStore studentStore = mock(StudentStore.class);
+    private final AtomicLong ids = new AtomicLong();
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch firstBatch = new CountDownLatch(1);
+    private StudentWriteBehindService service;
+
+    private StudentWriteBehindService start(int capacity, boolean holdFirstBatch) {
+        when(studentStore.saveAll(anyList())).thenAnswer(invocation -> {
+            firstBatch.countDown();
+            if (holdFirstBatch) {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            List<Student> saved = new ArrayList<>();
+            for (String name : invocation.<List<String>>getArgument(0)) {
+                saved.add(new Student(ids.incrementAndGet(), name));
+            }
+            synchronized (batchSizes) {
+                batchSizes.add(saved.size());
+            }
+            return saved;
+        });
+        service = new StudentWriteBehindService(studentStore, capacity, 100,
+                OverflowPolicy.REJECT, Duration.ofMillis(50), Duration.ofSeconds(5));
+        service.start();
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.stop();
+    }
+
+    @Test
+    void enqueue_shouldPersistInBackgroundAndReportStatus() throws Exception {
+        start(100, false);
+
+        WriteStatus queued = service.enqueue("Alice");
+        assertEquals(WriteState.QUEUED, queued.state());
+
+        WriteStatus status = awaitState(queued.id(), WriteState.WRITTEN);
+        assertEquals(1L, status.studentId());
+        assertEquals(1, service.metrics().written());
+    }
+
+    @Test
+    void enqueue_shouldRejectWhenQueueIsFull() throws Exception {
+        start(2, true);
+        service.enqueue("held");
+        assertTrue(firstBatch.await(5, TimeUnit.SECONDS));
+
+        service.enqueue("a");
+        service.enqueue("b");
+        assertThrows(WriteBehindRejectedException.class, () -> service.enqueue("c"));
+        assertEquals(1, service.metrics().rejected());
+    }
+
+    @Test
+    void stop_shouldFlushPendingWritesInBatches() throws Exception {
+        start(1000, true);
+        service.enqueue("held");
+        assertTrue(firstBatch.await(5, TimeUnit.SECONDS));
+        List<String> pending = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            pending.add(service.enqueue("student-" + i).id());
+        }
+
+        release.countDown();
+        service.stop();
+
+        assertEquals(List.of(1, 100, 100, 50), batchSizes);
+        for (String id : pending) {
+            assertEquals(WriteState.WRITTEN, service.status(id).orElseThrow().state());
+        }
+        assertThrows(WriteBehindRejectedException.class, () -> service.enqueue("late"));
+    }
+
+    private WriteStatus awaitState(String id, WriteState state) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            WriteStatus status = service.status(id).orElseThrow();
+            if (status.state() == state) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("write " + id + " never reached " + state);
+    }
+}
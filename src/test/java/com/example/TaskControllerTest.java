@@ -0,0 +1,57 @@
+package com.example;
+
+import com.example.controller.TaskController;
+import com.example.service.StudentStore;
+import com.example.service.TaskExecutionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TaskController.class)
+@Import(TaskExecutionService.class)
+class TaskControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskExecutionService taskExecutionService;
+
+    @MockBean
+    private StudentStore studentStore;
+
+    @Test
+    void submit_withMaxIntParts_shouldBeRefusedBeforeQueueing() throws Exception {
+        mockMvc.perform(post("/tasks")
+                        .param("type", "composite")
+                        .param("parts", Integer.toString(Integer.MAX_VALUE)))
+                .andExpect(status().isUnprocessableEntity());
+
+        assertEquals(0, taskExecutionService.metrics().submitted());
+    }
+
+    @Test
+    void submit_withNegativeParts_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/tasks")
+                        .param("type", "composite")
+                        .param("parts", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void submit_withUnknownTypeAndOversizedMillis_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/tasks")
+                        .param("type", "unknown")
+                        .param("millis", Long.toString(Long.MAX_VALUE)))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(0, taskExecutionService.metrics().submitted());
+    }
+}
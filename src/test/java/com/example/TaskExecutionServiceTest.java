@@ -0,0 +1,129 @@
+package com.example;
+
+import com.example.service.TaskExecutionService;
+import com.example.service.TaskExecutionService.TaskState;
+import com.example.service.TaskExecutionService.TaskStatus;
+import com.example.service.TaskLimitExceededException;
+import com.example.service.TaskRejectedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskExecutionServiceTest {
+
+    private TaskExecutionService taskExecutionService;
+
+    @BeforeEach
+    void setUp() {
+        taskExecutionService = new TaskExecutionService(1, 2, 2, Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        taskExecutionService.shutdown();
+    }
+
+    @Test
+    void submit_shouldRunTaskAndReportResult() throws Exception {
+        TaskStatus submitted = taskExecutionService.submit("answer", () -> 42);
+
+        TaskStatus finished = awaitFinished(submitted.id());
+
+        assertEquals(TaskState.SUCCEEDED, finished.state());
+        assertEquals(42, finished.result());
+    }
+
+    @Test
+    void submit_shouldRejectWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        TaskStatus blocker = taskExecutionService.submit("blocker", () -> release.await(5, TimeUnit.SECONDS));
+        awaitState(blocker.id(), TaskState.RUNNING);
+        taskExecutionService.submit("queued-1", () -> 1);
+        taskExecutionService.submit("queued-2", () -> 1);
+
+        assertThrows(TaskRejectedException.class, () -> taskExecutionService.submit("rejected", () -> 2));
+        release.countDown();
+    }
+
+    @Test
+    void cancel_shouldInterruptRunningTask() throws Exception {
+        TaskStatus submitted = taskExecutionService.submit("sleeper", () -> {
+            Thread.sleep(10_000);
+            return null;
+        });
+
+        awaitState(submitted.id(), TaskState.RUNNING);
+        taskExecutionService.cancel(submitted.id());
+
+        assertEquals(TaskState.CANCELLED, awaitFinished(submitted.id()).state());
+    }
+
+    @Test
+    void fanOut_shouldCancelSiblingsOnFirstFailure() {
+        AtomicBoolean siblingInterrupted = new AtomicBoolean();
+        CountDownLatch siblingStarted = new CountDownLatch(1);
+        List<Callable<Object>> subtasks = List.of(
+                () -> {
+                    siblingStarted.await();
+                    throw new IllegalStateException("boom");
+                },
+                () -> {
+                    siblingStarted.countDown();
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        siblingInterrupted.set(true);
+                        throw e;
+                    }
+                    return null;
+                });
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> taskExecutionService.run("composite", () -> taskExecutionService.fanOut(subtasks)));
+
+        assertEquals("boom", error.getMessage());
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            while (!siblingInterrupted.get()) {
+                Thread.sleep(5);
+            }
+        });
+    }
+
+    @Test
+    void checkLimits_shouldRefuseWideOrLongWork() {
+        taskExecutionService.checkLimits(2, Duration.ofSeconds(1));
+
+        assertThrows(TaskLimitExceededException.class,
+                () -> taskExecutionService.checkLimits(3, Duration.ZERO));
+        assertThrows(TaskLimitExceededException.class,
+                () -> taskExecutionService.checkLimits(1, Duration.ofMillis(1001)));
+        assertThrows(TaskLimitExceededException.class, () -> taskExecutionService.run("wide",
+                () -> taskExecutionService.fanOut(List.<Callable<Object>>of(() -> 1, () -> 2, () -> 3))));
+    }
+
+    private void awaitState(String id, TaskState state) throws InterruptedException {
+        while (taskExecutionService.status(id).orElseThrow().state() != state) {
+            Thread.sleep(5);
+        }
+    }
+
+    private TaskStatus awaitFinished(String id) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            TaskStatus status = taskExecutionService.status(id).orElseThrow();
+            if (status.finishedAt() != null) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        return fail("Task " + id + " did not finish");
+    }
+}
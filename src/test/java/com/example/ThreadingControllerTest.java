@@ -0,0 +1,66 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// The whole application on a random port with virtual request threads, so GET /threads runs on the
+// executor Tomcat is really configured with; the pinning threshold is low enough to catch a short sleep
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.threads.virtual.enabled=true", "app.threads.pinning-threshold=1ms"})
+class ThreadingControllerTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void threads_inVirtualMode_shouldServeRequestsOnVirtualThreads() {
+        JsonNode info = restTemplate.getForObject("/threads", JsonNode.class);
+
+        assertEquals("virtual", info.get("mode").asText());
+        assertTrue(info.get("virtual").asBoolean());
+        assertTrue(info.get("requestThread").asText().startsWith("VirtualThread"), info.toString());
+        assertTrue(info.get("pinning").isObject());
+    }
+
+    @Test
+    void threads_shouldReportThePinnedCallSite() throws Exception {
+        Object lock = new Object();
+        Thread pinned = Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                sleep(50);
+            }
+        });
+        pinned.join();
+
+        // JFR hands events to the monitor about once a second
+        String lastSeen = "nothing";
+        for (int attempt = 0; attempt < 100; attempt++) {
+            JsonNode pinning = restTemplate.getForObject("/threads", JsonNode.class).get("pinning");
+            for (JsonNode top : pinning.get("topSites")) {
+                if (top.get("frame").asText().startsWith(ThreadingControllerTest.class.getName() + ".")) {
+                    assertTrue(top.get("count").asLong() >= 1);
+                    assertTrue(pinning.get("events").asLong() >= 1);
+                    return;
+                }
+                lastSeen = top.get("frame").asText();
+            }
+            Thread.sleep(100);
+        }
+        fail("no pinned site from this test was reported, last seen " + lastSeen);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example;
+
+import com.example.service.TaskRejectedException;
+import com.example.service.WorkerPool;
+import com.example.service.WorkerPool.WorkerMetrics;
+import com.example.service.WorkerPool.WorkerState;
+import com.example.service.WorkerPool.WorkerStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkerPoolTest {
+
+    private final WorkerPool workerPool = new WorkerPool(1, 1, Duration.ofSeconds(10));
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        workerPool.shutdown();
+    }
+
+    private WorkerStatus await(String id) throws InterruptedException {
+        return workerPool.await(id, Duration.ofSeconds(5)).orElseThrow();
+    }
+
+    private void awaitState(String id, WorkerState state) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (workerPool.status(id).orElseThrow().state() != state) {
+            assertTrue(System.nanoTime() < deadline, "worker never reached " + state);
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void pause_shouldHoldWorkerAtCheckpointUntilResumed() throws Exception {
+        AtomicInteger steps = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        WorkerStatus worker = workerPool.submit("paused", null, context -> {
+            started.countDown();
+            proceed.await();
+            for (int i = 0; i < 3; i++) {
+                context.checkpoint();
+                steps.incrementAndGet();
+            }
+            return steps.get();
+        });
+        started.await();
+        workerPool.pause(worker.id());
+        proceed.countDown();
+
+        awaitState(worker.id(), WorkerState.PAUSED);
+        assertEquals(0, steps.get());
+        assertEquals(1, workerPool.metrics().paused());
+
+        workerPool.resume(worker.id());
+        WorkerStatus finished = await(worker.id());
+        assertEquals(WorkerState.SUCCEEDED, finished.state());
+        assertEquals(3, finished.result());
+    }
+
+    @Test
+    void cancel_shouldInterruptBlockedWorkerAndReleaseItsResources() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        WorkerStatus worker = workerPool.submit("blocked", null, context -> {
+            context.register(() -> { });
+            started.countDown();
+            Thread.sleep(60_000);
+            return null;
+        });
+        started.await();
+
+        workerPool.cancel(worker.id());
+        assertEquals(WorkerState.CANCELLED, await(worker.id()).state());
+
+        WorkerMetrics metrics = workerPool.metrics();
+        assertEquals(1, metrics.cancelled());
+        assertEquals(1, metrics.cancellationLatency().count());
+        assertEquals(1, metrics.resources().released());
+        assertEquals(0, metrics.resources().pending());
+    }
+
+    @Test
+    void checkpoint_shouldThrowAfterCancelEvenWhenTheInterruptWasSwallowed() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        WorkerStatus worker = workerPool.submit("swallowing", null, context -> {
+            started.countDown();
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                // The interrupt status is gone from here on
+            }
+            context.checkpoint();
+            return "finished";
+        });
+        started.await();
+
+        workerPool.cancel(worker.id());
+        assertEquals(WorkerState.CANCELLED, await(worker.id()).state());
+    }
+
+    @Test
+    void cancel_shouldStopQueuedWorkerWithoutRunningIt() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        WorkerStatus busy = workerPool.submit("busy", null, context -> release.await(5, TimeUnit.SECONDS));
+        WorkerStatus queued = workerPool.submit("queued", null, context -> runs.incrementAndGet());
+
+        assertEquals(WorkerState.CANCELLED, workerPool.cancel(queued.id()).orElseThrow().state());
+        release.countDown();
+        assertEquals(WorkerState.SUCCEEDED, await(busy.id()).state());
+        assertEquals(0, runs.get());
+        assertEquals(0, workerPool.metrics().queued());
+    }
+
+    @Test
+    void deadline_shouldInterruptWorkerThatRunsTooLong() throws Exception {
+        WorkerStatus worker = workerPool.submit("slow", Duration.ofMillis(50), context -> {
+            while (true) {
+                context.checkpoint();
+                Thread.onSpinWait();
+            }
+        });
+
+        assertEquals(WorkerState.DEADLINE_EXCEEDED, await(worker.id()).state());
+        assertEquals(1, workerPool.metrics().deadlineExceeded());
+    }
+
+    @Test
+    void submit_shouldRejectWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        workerPool.submit("busy", null, context -> release.await(5, TimeUnit.SECONDS));
+        workerPool.submit("queued", null, context -> null);
+
+        assertThrows(TaskRejectedException.class, () -> workerPool.submit("overflow", null, context -> null));
+        assertEquals(1, workerPool.metrics().rejected());
+        release.countDown();
+    }
+}